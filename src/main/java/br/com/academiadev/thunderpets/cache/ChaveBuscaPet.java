@@ -0,0 +1,22 @@
+package br.com.academiadev.thunderpets.cache;
+
+import br.com.academiadev.thunderpets.dto.FiltroPetDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Chave do cache de buscas. A versão muda a cada alteração de pet, o que torna inalcançáveis
+ * todas as buscas anteriores sem precisar percorrer o cache; elas saem pelo TTL.
+ */
+@Data
+@AllArgsConstructor
+public class ChaveBuscaPet {
+
+    private long versao;
+    private FiltroPetDTO filtro;
+    private int paginaAtual;
+    private int tamanho;
+    private Sort.Direction direcao;
+    private String campoOrdenacao;
+}
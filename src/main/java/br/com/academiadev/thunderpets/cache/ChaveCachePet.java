@@ -0,0 +1,31 @@
+package br.com.academiadev.thunderpets.cache;
+
+import br.com.academiadev.thunderpets.enums.FormatoFoto;
+import br.com.academiadev.thunderpets.enums.TamanhoFoto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class ChaveCachePet {
+
+    private UUID id;
+    private FormatoFoto formatoFotos;
+    private TamanhoFoto tamanhoFotos;
+
+    public static List<ChaveCachePet> todasDoPet(UUID id) {
+        List<ChaveCachePet> chaves = new ArrayList<>();
+
+        for (FormatoFoto formato : FormatoFoto.values()) {
+            for (TamanhoFoto tamanho : TamanhoFoto.values()) {
+                chaves.add(new ChaveCachePet(id, formato, tamanho));
+            }
+        }
+
+        return chaves;
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.academiadev.thunderpets.cache;
+
+import br.com.academiadev.thunderpets.dto.PetRespostaDTO;
+import br.com.academiadev.thunderpets.enums.EntidadeInvalidada;
+import br.com.academiadev.thunderpets.event.InvalidacaoRemotaEvent;
+import br.com.academiadev.thunderpets.event.PetAlteradoEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class InvalidadorCachePet {
+
+    private Cache<ChaveCachePet, PetRespostaDTO> cachePet;
+    private VersaoBuscaPet versaoBuscaPet;
+
+    @Autowired
+    public InvalidadorCachePet(Cache<ChaveCachePet, PetRespostaDTO> cachePet, VersaoBuscaPet versaoBuscaPet) {
+        this.cachePet = cachePet;
+        this.versaoBuscaPet = versaoBuscaPet;
+    }
+
+    /**
+     * Remove o pet só depois que a transação termina: uma leitura concorrente feita antes do commit
+     * ainda enxerga a versão antiga e poderia recolocá-la no cache se a remoção fosse imediata.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void aoAlterarPet(PetAlteradoEvent evento) {
+        versaoBuscaPet.incrementar();
+        cachePet.invalidateAll(ChaveCachePet.todasDoPet(evento.getId()));
+    }
+
+    @EventListener
+    public void aoAlterarPetEmOutraInstancia(InvalidacaoRemotaEvent evento) {
+        if (evento.getEntidade() != EntidadeInvalidada.PET) {
+            return;
+        }
+
+        versaoBuscaPet.incrementar();
+
+        if (evento.isTodas()) {
+            cachePet.invalidateAll();
+        } else {
+            cachePet.invalidateAll(ChaveCachePet.todasDoPet(evento.getId()));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.academiadev.thunderpets.cache;
+
+import br.com.academiadev.thunderpets.dto.CredenciaisUsuarioDTO;
+import br.com.academiadev.thunderpets.enums.EntidadeInvalidada;
+import br.com.academiadev.thunderpets.event.InvalidacaoRemotaEvent;
+import br.com.academiadev.thunderpets.event.UsuarioAlteradoEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+
+@Component
+public class InvalidadorCacheUsuario {
+
+    private Cache<String, CredenciaisUsuarioDTO> cacheUsuario;
+
+    @Autowired
+    public InvalidadorCacheUsuario(Cache<String, CredenciaisUsuarioDTO> cacheUsuario) {
+        this.cacheUsuario = cacheUsuario;
+    }
+
+    /**
+     * O cache é indexado pelo e-mail, que também pode ter mudado, então as entradas são procuradas pelo id.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void aoAlterarUsuario(UsuarioAlteradoEvent evento) {
+        invalidar(evento.getId());
+    }
+
+    @EventListener
+    public void aoAlterarUsuarioEmOutraInstancia(InvalidacaoRemotaEvent evento) {
+        if (evento.getEntidade() != EntidadeInvalidada.USUARIO) {
+            return;
+        }
+
+        if (evento.isTodas()) {
+            cacheUsuario.invalidateAll();
+        } else {
+            invalidar(evento.getId());
+        }
+    }
+
+    private void invalidar(UUID id) {
+        cacheUsuario.asMap().values().removeIf(credenciais -> credenciais.getId().equals(id));
+    }
+}
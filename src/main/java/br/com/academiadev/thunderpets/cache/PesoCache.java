@@ -0,0 +1,37 @@
+package br.com.academiadev.thunderpets.cache;
+
+import br.com.academiadev.thunderpets.dto.PetRespostaDTO;
+
+/**
+ * Estimativa do tamanho em bytes das entradas dos caches locais, usada como peso pelo Caffeine.
+ * Não precisa ser exata: só precisa crescer com as fotos e os textos, que dominam o consumo de memória.
+ */
+public final class PesoCache {
+
+    private static final int PESO_BASE_PET = 1024;
+
+    private PesoCache() {
+    }
+
+    public static int estimar(PetRespostaDTO pet) {
+        long peso = PESO_BASE_PET + tamanho(pet.getNome()) + tamanho(pet.getDescricao());
+
+        if (pet.getFotos() != null) {
+            for (byte[] foto : pet.getFotos()) {
+                peso += foto.length;
+            }
+        }
+
+        if (pet.getUrlsFotos() != null) {
+            for (String url : pet.getUrlsFotos()) {
+                peso += tamanho(url);
+            }
+        }
+
+        return (int) Math.min(peso, Integer.MAX_VALUE);
+    }
+
+    private static long tamanho(String texto) {
+        return texto == null ? 0 : 2L * texto.length();
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.academiadev.thunderpets.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class ResultadoBuscaPet {
+
+    private List<UUID> ids;
+    private long total;
+}
@@ -0,0 +1,19 @@
+package br.com.academiadev.thunderpets.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class VersaoBuscaPet {
+
+    private final AtomicLong versao = new AtomicLong();
+
+    public long atual() {
+        return versao.get();
+    }
+
+    public void incrementar() {
+        versao.incrementAndGet();
+    }
+}
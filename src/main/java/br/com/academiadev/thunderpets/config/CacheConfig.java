@@ -0,0 +1,61 @@
+package br.com.academiadev.thunderpets.config;
+
+import br.com.academiadev.thunderpets.cache.ChaveBuscaPet;
+import br.com.academiadev.thunderpets.cache.ChaveCachePet;
+import br.com.academiadev.thunderpets.cache.PesoCache;
+import br.com.academiadev.thunderpets.cache.ResultadoBuscaPet;
+import br.com.academiadev.thunderpets.dto.CredenciaisUsuarioDTO;
+import br.com.academiadev.thunderpets.dto.PetRespostaDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public Cache<ChaveCachePet, PetRespostaDTO> cachePet(@Value("${cache-local.pet.peso-maximo-bytes}") long pesoMaximo,
+                                                         @Value("${cache-local.pet.expiracao-segundos}") long expiracao,
+                                                         MeterRegistry meterRegistry) {
+        Cache<ChaveCachePet, PetRespostaDTO> cache = Caffeine.newBuilder()
+                .maximumWeight(pesoMaximo)
+                .weigher((ChaveCachePet chave, PetRespostaDTO pet) -> PesoCache.estimar(pet))
+                .expireAfterWrite(expiracao, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "pet");
+    }
+
+    @Bean
+    public Cache<ChaveBuscaPet, ResultadoBuscaPet> cacheBuscaPet(@Value("${cache-local.busca.maximo-entradas}") long maximoEntradas,
+                                                                 @Value("${cache-local.busca.expiracao-segundos}") long expiracao,
+                                                                 MeterRegistry meterRegistry) {
+        Cache<ChaveBuscaPet, ResultadoBuscaPet> cache = Caffeine.newBuilder()
+                .maximumSize(maximoEntradas)
+                .expireAfterWrite(expiracao, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "busca-pet");
+    }
+
+    @Bean
+    public Cache<String, CredenciaisUsuarioDTO> cacheUsuario(@Value("${cache-local.usuario.maximo-entradas}") long maximoEntradas,
+                                                             @Value("${cache-local.usuario.expiracao-segundos}") long expiracao,
+                                                             MeterRegistry meterRegistry) {
+        Cache<String, CredenciaisUsuarioDTO> cache = Caffeine.newBuilder()
+                .maximumSize(maximoEntradas)
+                .expireAfterWrite(expiracao, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "usuario");
+    }
+}
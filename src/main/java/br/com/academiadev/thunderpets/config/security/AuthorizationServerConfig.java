@@ -1,21 +1,42 @@
 package br.com.academiadev.thunderpets.config.security;
 
+import br.com.academiadev.thunderpets.service.RevogacaoTokenService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.config.annotation.configurers.ClientDetailsServiceConfigurer;
 import org.springframework.security.oauth2.config.annotation.web.configuration.AuthorizationServerConfigurerAdapter;
 import org.springframework.security.oauth2.config.annotation.web.configuration.EnableAuthorizationServer;
 import org.springframework.security.oauth2.config.annotation.web.configurers.AuthorizationServerEndpointsConfigurer;
 import org.springframework.security.oauth2.config.annotation.web.configurers.AuthorizationServerSecurityConfigurer;
+import org.springframework.security.oauth2.provider.token.DefaultAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.DefaultUserAuthenticationConverter;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.KeyStoreKeyFactory;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
 
 @Configuration
 @EnableAuthorizationServer
 public class AuthorizationServerConfig extends AuthorizationServerConfigurerAdapter {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuthorizationServerConfig.class);
     private static final Integer ACCESS_TOKEN_VALIDITY_IN_SECONDS = 60 * 60 * 24;
     private static final Integer REFRESH_TOKEN_VALIDITY_IN_SECONDS = 60 * 60 * 24;
 
@@ -25,9 +46,62 @@ public class AuthorizationServerConfig extends AuthorizationServerConfigurerAdap
     @Value("${security.oauth2.client.client-secret}")
     private String secret;
 
+    @Value("${jwt.keystore}")
+    private String keystore;
+
+    @Value("${jwt.senha-keystore}")
+    private String senhaKeystore;
+
+    @Value("${jwt.alias}")
+    private String alias;
+
     @Autowired
     private AuthenticationManager authenticationManager;
 
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private RevogacaoTokenService revogacaoTokenService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private Environment environment;
+
+    @Bean
+    public JwtAccessTokenConverter accessTokenConverter() throws NoSuchAlgorithmException {
+        // O token decodificado não passa pelo ProviderManager, então a senha do principal é apagada aqui.
+        DefaultUserAuthenticationConverter userTokenConverter = new DefaultUserAuthenticationConverter() {
+            @Override
+            public Authentication extractAuthentication(Map<String, ?> map) {
+                Authentication authentication = super.extractAuthentication(map);
+
+                if (authentication instanceof CredentialsContainer) {
+                    ((CredentialsContainer) authentication).eraseCredentials();
+                }
+
+                return authentication;
+            }
+        };
+        userTokenConverter.setUserDetailsService(userDetailsService);
+
+        DefaultAccessTokenConverter accessTokenConverter = new DefaultAccessTokenConverter();
+        accessTokenConverter.setUserTokenConverter(userTokenConverter);
+
+        JwtAccessTokenConverter converter = new JwtAccessTokenConverter();
+        converter.setAccessTokenConverter(accessTokenConverter);
+        converter.setKeyPair(carregarChaves());
+
+        return converter;
+    }
+
+    @Bean
+    public TokenStore tokenStore() throws NoSuchAlgorithmException {
+        return new JwtTokenStoreComRevogacao(accessTokenConverter(), revogacaoTokenService);
+    }
+
     @Override
     public void configure(AuthorizationServerSecurityConfigurer security) throws Exception {
         security
@@ -40,7 +114,7 @@ public class AuthorizationServerConfig extends AuthorizationServerConfigurerAdap
     public void configure(ClientDetailsServiceConfigurer clients) throws Exception {
         clients.inMemory()
                 .withClient(client)
-                .secret(new BCryptPasswordEncoder().encode(secret))
+                .secret(passwordEncoder.encode(secret))
                 .authorizedGrantTypes("password", "authorization_code", "refresh_token", "implicit")
                 .scopes("read", "write", "trust")
                 .resourceIds("oauth2-resource")
@@ -51,6 +125,32 @@ public class AuthorizationServerConfig extends AuthorizationServerConfigurerAdap
     @Override
     public void configure(AuthorizationServerEndpointsConfigurer endpoints) throws Exception {
         endpoints.authenticationManager(authenticationManager)
+            .tokenStore(tokenStore())
+            .accessTokenConverter(accessTokenConverter())
+            .exceptionTranslator(new TradutorExcecaoOAuth())
             .allowedTokenEndpointRequestMethods(HttpMethod.GET, HttpMethod.POST);
     }
+
+    /**
+     * Sem keystore configurado, só os perfis dev e test sobem com um par de chaves gerado a cada inicialização: os
+     * tokens deixam de valer ao reiniciar e não são aceitos por outras instâncias.
+     */
+    private KeyPair carregarChaves() throws NoSuchAlgorithmException {
+        if (keystore.isEmpty()) {
+            if (!environment.acceptsProfiles(Profiles.of("dev", "test"))) {
+                throw new IllegalStateException("Nenhum keystore configurado em jwt.keystore (JWT_KEYSTORE); "
+                        + "chaves temporárias só são permitidas nos perfis dev e test");
+            }
+
+            LOGGER.warn("Nenhum keystore configurado em jwt.keystore, usando chaves temporárias para assinar os tokens");
+
+            KeyPairGenerator gerador = KeyPairGenerator.getInstance("RSA");
+            gerador.initialize(2048);
+
+            return gerador.generateKeyPair();
+        }
+
+        return new KeyStoreKeyFactory(new DefaultResourceLoader().getResource(keystore), senhaKeystore.toCharArray())
+                .getKeyPair(alias);
+    }
 }
@@ -0,0 +1,59 @@
+package br.com.academiadev.thunderpets.config.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class BCryptConfig {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BCryptConfig.class);
+    private static final int CUSTO_MINIMO = 10;
+    private static final int CUSTO_MAXIMO = 16;
+
+    @Bean
+    public static PasswordEncoderLimitado passwordEncoder(@Value("${bcrypt.custo}") int custo,
+                                                          @Value("${bcrypt.tempo-alvo-ms}") long tempoAlvo,
+                                                          @Value("${bcrypt.threads}") int threads,
+                                                          @Value("${bcrypt.tamanho-fila}") int tamanhoFila) {
+        int threadsUsados = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        LOGGER.info("BCrypt com custo {} em {} threads", custo, threadsUsados);
+
+        int recomendado = calibrar(tempoAlvo);
+        if (recomendado != custo) {
+            LOGGER.info("Nesta máquina o custo {} do BCrypt levaria até {} ms; ajuste bcrypt.custo em todas as instâncias "
+                    + "para usá-lo", recomendado, tempoAlvo);
+        }
+
+        return new PasswordEncoderLimitado(custo, threadsUsados, tamanhoFila);
+    }
+
+    /**
+     * Mede um hash com o custo mínimo e sobe o custo enquanto o tempo estimado couber no alvo;
+     * cada ponto de custo dobra o tempo do BCrypt. Serve apenas de recomendação: o custo usado é sempre o configurado,
+     * igual em todas as instâncias, senão cada login numa instância com outro custo regravaria a senha.
+     */
+    static int calibrar(long tempoAlvo) {
+        BCryptPasswordEncoder aquecimento = new BCryptPasswordEncoder(4);
+        for (int i = 0; i < 10; i++) {
+            aquecimento.encode("calibracao");
+        }
+
+        BCryptPasswordEncoder minimo = new BCryptPasswordEncoder(CUSTO_MINIMO);
+        long inicio = System.nanoTime();
+        minimo.encode("calibracao");
+        double tempoMinimo = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+
+        int custo = CUSTO_MINIMO;
+        while (custo < CUSTO_MAXIMO && tempoMinimo * (1L << (custo + 1 - CUSTO_MINIMO)) <= tempoAlvo) {
+            custo++;
+        }
+
+        return custo;
+    }
+}
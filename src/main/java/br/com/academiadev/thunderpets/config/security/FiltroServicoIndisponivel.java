@@ -0,0 +1,30 @@
+package br.com.academiadev.thunderpets.config.security;
+
+import br.com.academiadev.thunderpets.exception.ServicoIndisponivelException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * A autenticação do client no /oauth/token acontece nos filtros do Spring Security, antes do ExceptionAdvice;
+ * sem este filtro a recusa do pool do BCrypt viraria 500.
+ */
+public class FiltroServicoIndisponivel extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try {
+            chain.doFilter(request, response);
+        } catch (ServicoIndisponivelException e) {
+            if (!response.isCommitted()) {
+                response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage());
+            }
+        }
+    }
+}
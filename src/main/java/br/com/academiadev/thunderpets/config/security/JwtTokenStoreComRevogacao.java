@@ -0,0 +1,73 @@
+package br.com.academiadev.thunderpets.config.security;
+
+import br.com.academiadev.thunderpets.service.RevogacaoTokenService;
+import org.springframework.security.jwt.JwtHelper;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.common.util.JsonParserFactory;
+import org.springframework.security.oauth2.provider.token.AccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Valida os tokens apenas pela assinatura e pelas claims, consultando somente a lista local de revogados.
+ * Revogar um access token também invalida o refresh token emitido junto com ele (claim ati).
+ */
+public class JwtTokenStoreComRevogacao extends JwtTokenStore {
+
+    private RevogacaoTokenService revogacaoTokenService;
+
+    public JwtTokenStoreComRevogacao(JwtAccessTokenConverter jwtTokenEnhancer, RevogacaoTokenService revogacaoTokenService) {
+        super(jwtTokenEnhancer);
+        this.revogacaoTokenService = revogacaoTokenService;
+    }
+
+    @Override
+    public OAuth2AccessToken readAccessToken(String tokenValue) {
+        OAuth2AccessToken token = super.readAccessToken(tokenValue);
+
+        return revogacaoTokenService.isRevogado(jti(token.getAdditionalInformation().get(AccessTokenConverter.JTI)))
+                ? null
+                : token;
+    }
+
+    @Override
+    public OAuth2RefreshToken readRefreshToken(String tokenValue) {
+        OAuth2RefreshToken token = super.readRefreshToken(tokenValue);
+
+        if (token == null) {
+            return null;
+        }
+
+        Map<String, Object> claims = JsonParserFactory.create().parseMap(JwtHelper.decode(tokenValue).getClaims());
+
+        return revogacaoTokenService.isRevogado(jti(claims.get(AccessTokenConverter.JTI)))
+                || revogacaoTokenService.isRevogado(jti(claims.get(AccessTokenConverter.ATI)))
+                ? null
+                : token;
+    }
+
+    @Override
+    public void removeAccessToken(OAuth2AccessToken token) {
+        UUID jti = jti(token.getAdditionalInformation().get(AccessTokenConverter.JTI));
+
+        if (jti != null && token.getExpiration() != null) {
+            revogacaoTokenService.revogar(jti, token.getExpiration());
+        }
+    }
+
+    private static UUID jti(Object claim) {
+        if (claim == null) {
+            return null;
+        }
+
+        try {
+            return UUID.fromString(claim.toString());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
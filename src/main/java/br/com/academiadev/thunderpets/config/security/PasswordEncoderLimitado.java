@@ -0,0 +1,95 @@
+package br.com.academiadev.thunderpets.config.security;
+
+import br.com.academiadev.thunderpets.exception.ServicoIndisponivelException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Executa o BCrypt num pool próprio e limitado, para que rajadas de cadastro e login não ocupem todos os
+ * threads do Tomcat com trabalho de CPU. Com o pool e a fila cheios a operação é recusada com
+ * ServicoIndisponivelException (503) em vez de enfileirar sem limite.
+ */
+public class PasswordEncoderLimitado implements PasswordEncoder, DisposableBean {
+
+    private static final Pattern CUSTO_HASH = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private final BCryptPasswordEncoder bCrypt;
+    private final int custo;
+    private final ThreadPoolExecutor executor;
+
+    public PasswordEncoderLimitado(int custo, int threads, int tamanhoFila) {
+        AtomicInteger contador = new AtomicInteger();
+
+        this.bCrypt = new BCryptPasswordEncoder(custo);
+        this.custo = custo;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(tamanhoFila),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public int getCusto() {
+        return custo;
+    }
+
+    @Override
+    public String encode(CharSequence senha) {
+        return executar(() -> bCrypt.encode(senha));
+    }
+
+    @Override
+    public boolean matches(CharSequence senha, String hash) {
+        return executar(() -> bCrypt.matches(senha, hash));
+    }
+
+    /**
+     * Hashes gerados com outro custo são refeitos no próximo login que acertar a senha.
+     */
+    @Override
+    public boolean upgradeEncoding(String hash) {
+        if (hash == null) {
+            return false;
+        }
+
+        Matcher matcher = CUSTO_HASH.matcher(hash);
+
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != custo;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private <T> T executar(Callable<T> tarefa) {
+        try {
+            return executor.submit(tarefa).get();
+        } catch (RejectedExecutionException e) {
+            throw new ServicoIndisponivelException("Muitas requisições simultâneas, tente novamente em instantes.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServicoIndisponivelException("Operação interrompida, tente novamente em instantes.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.academiadev.thunderpets.config.security;
+
+import br.com.academiadev.thunderpets.exception.ServicoIndisponivelException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.oauth2.common.exceptions.OAuth2Exception;
+import org.springframework.security.oauth2.provider.error.DefaultWebResponseExceptionTranslator;
+
+/**
+ * O TokenEndpoint transforma qualquer exceção desconhecida em 500; a recusa do pool do BCrypt deve chegar ao
+ * cliente como 503 para que ele tente novamente.
+ */
+public class TradutorExcecaoOAuth extends DefaultWebResponseExceptionTranslator {
+
+    @Override
+    public ResponseEntity<OAuth2Exception> translate(Exception e) throws Exception {
+        Throwable causa = e;
+
+        while (causa != null && !(causa instanceof ServicoIndisponivelException)) {
+            causa = causa.getCause();
+        }
+
+        if (causa == null) {
+            return super.translate(e);
+        }
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new OAuth2Exception(causa.getMessage()) {
+            @Override
+            public String getOAuth2ErrorCode() {
+                return "temporarily_unavailable";
+            }
+
+            @Override
+            public int getHttpErrorCode() {
+                return HttpStatus.SERVICE_UNAVAILABLE.value();
+            }
+        });
+    }
+}
@@ -12,7 +12,8 @@ import org.springframework.security.config.annotation.authentication.builders.Au
 import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
@@ -23,11 +24,6 @@ import javax.transaction.Transactional;
 @EnableWebSecurity
 public class WebConfigSecurityAdapter extends WebSecurityConfigurerAdapter {
 
-    @Bean
-    private static BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
     @Bean
     public AuthenticationManager customAuthenticationManager() throws Exception {
         return authenticationManagerBean();
@@ -35,19 +31,21 @@ public class WebConfigSecurityAdapter extends WebSecurityConfigurerAdapter {
 
     @Autowired
     @Transactional
-    public void authenticationManager(AuthenticationManagerBuilder builder, UsuarioRepository usuarioRepository)
-            throws Exception {
+    public void authenticationManager(AuthenticationManagerBuilder builder,
+                                      UsuarioRepository usuarioRepository,
+                                      UserDetailsService userDetailsService,
+                                      PasswordEncoder passwordEncoder) throws Exception {
         if (usuarioRepository.count() == 0) {
             Usuario usuario = new Usuario();
             usuario.setEmail("admin@mail.com");
-            usuario.setSenha(passwordEncoder().encode("admin"));
+            usuario.setSenha(passwordEncoder.encode("admin"));
             usuario.setNome("admin");
             usuario.setAtivo(true);
 
             usuarioRepository.save(usuario);
         }
 
-        builder.userDetailsService(usuarioRepository::findOneByEmail).passwordEncoder(passwordEncoder());
+        builder.userDetailsService(userDetailsService).passwordEncoder(passwordEncoder);
     }
 
     @Override
@@ -78,4 +76,13 @@ public class WebConfigSecurityAdapter extends WebSecurityConfigurerAdapter {
 
         return bean;
     }
+
+    @Bean
+    @SuppressWarnings("unchecked")
+    public FilterRegistrationBean filtroServicoIndisponivel() {
+        FilterRegistrationBean bean = new FilterRegistrationBean(new FiltroServicoIndisponivel());
+        bean.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+
+        return bean;
+    }
 }
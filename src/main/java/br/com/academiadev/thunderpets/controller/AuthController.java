@@ -3,8 +3,9 @@ package br.com.academiadev.thunderpets.controller;
 import br.com.academiadev.thunderpets.dto.LoginSocialDTO;
 import br.com.academiadev.thunderpets.exception.UsuarioNaoEncontradoException;
 import br.com.academiadev.thunderpets.mapper.UsuarioMapper;
-import br.com.academiadev.thunderpets.model.Usuario;
+import br.com.academiadev.thunderpets.model.UsuarioAutenticado;
 import br.com.academiadev.thunderpets.repository.ContatoRepository;
+import br.com.academiadev.thunderpets.repository.UsuarioRepository;
 import br.com.academiadev.thunderpets.service.FacebookService;
 import br.com.academiadev.thunderpets.service.GoogleService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,6 +27,7 @@ public class AuthController {
 
     private ConsumerTokenServices tokenServices;
     private ContatoRepository contatoRepository;
+    private UsuarioRepository usuarioRepository;
     private UsuarioMapper usuarioMapper;
     private FacebookService facebookService;
     private GoogleService googleService;
@@ -33,11 +35,13 @@ public class AuthController {
     @Autowired
     public AuthController(ConsumerTokenServices tokenServices,
                           ContatoRepository contatoRepository,
+                          UsuarioRepository usuarioRepository,
                           UsuarioMapper usuarioMapper,
                           FacebookService facebookService,
                           GoogleService googleService) {
         this.tokenServices = tokenServices;
         this.contatoRepository = contatoRepository;
+        this.usuarioRepository = usuarioRepository;
         this.usuarioMapper = usuarioMapper;
         this.facebookService = facebookService;
         this.googleService = googleService;
@@ -51,9 +55,10 @@ public class AuthController {
             return authentication.getPrincipal();
         }
 
-        Usuario usuario = (Usuario) authentication.getPrincipal();
+        UsuarioAutenticado usuario = (UsuarioAutenticado) authentication.getPrincipal();
 
-        return usuarioMapper.toDTO(usuario, contatoRepository.findByUsuario(usuario));
+        return usuarioMapper.toDTO(usuario, contatoRepository.findByUsuarioId(usuario.getId()),
+                usuarioRepository.buscarFotoHash(usuario.getId()).orElse(null));
     }
 
     @GetMapping("logout")
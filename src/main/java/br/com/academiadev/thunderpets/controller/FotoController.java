@@ -0,0 +1,54 @@
+package br.com.academiadev.thunderpets.controller;
+
+import br.com.academiadev.thunderpets.dto.ConteudoFotoDTO;
+import br.com.academiadev.thunderpets.enums.TamanhoFoto;
+import br.com.academiadev.thunderpets.service.FotoService;
+import io.swagger.annotations.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("pet/{petId}/fotos")
+@Api("Controller de Fotos dos Pets")
+public class FotoController {
+
+    private FotoService service;
+
+    @Value("${cache-http.foto-pet}")
+    private String cacheControl;
+
+    @Autowired
+    public FotoController(FotoService service) {
+        this.service = service;
+    }
+
+    @ApiOperation(
+            value = "Busca o conteúdo de uma foto do pet",
+            notes = "Retorna os bytes da imagem com o content type correspondente, para uso direto em <img src>. " +
+                    "A resposta traz um ETag com o hash do conteúdo e responde 304 quando o If-None-Match confere."
+    )
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Foto encontrada com sucesso"),
+            @ApiResponse(code = 304, message = "Foto não modificada"),
+            @ApiResponse(code = 404, message = "Foto não encontrada")
+    })
+    @GetMapping("/{fotoId}")
+    public ResponseEntity<Resource> buscar(@ApiParam(value = "ID do pet") @PathVariable("petId") UUID petId,
+                                           @ApiParam(value = "ID da foto") @PathVariable("fotoId") UUID fotoId,
+                                           @ApiParam(value = "Tamanho da foto: MINIATURA, CARTAO, COMPLETA ou ORIGINAL")
+                                               @RequestParam(defaultValue = "COMPLETA") TamanhoFoto tamanho) {
+        ConteudoFotoDTO foto = service.buscarConteudo(petId, fotoId, tamanho);
+
+        return ResponseEntity.ok()
+                .eTag(foto.getHash())
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .contentType(foto.getTipo())
+                .body(foto.getConteudo());
+    }
+}
@@ -1,18 +1,28 @@
 package br.com.academiadev.thunderpets.controller;
 
+import br.com.academiadev.thunderpets.dto.CelulaPetDTO;
+import br.com.academiadev.thunderpets.dto.CorrespondenciaPetDTO;
+import br.com.academiadev.thunderpets.dto.PaginaCursorDTO;
 import br.com.academiadev.thunderpets.dto.PetDTO;
 import br.com.academiadev.thunderpets.dto.PetRespostaDTO;
+import br.com.academiadev.thunderpets.dto.PetSimilarDTO;
 import br.com.academiadev.thunderpets.enums.*;
 import br.com.academiadev.thunderpets.service.PetService;
 import io.swagger.annotations.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.transaction.Transactional;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -23,6 +33,9 @@ public class PetController {
 
     private PetService service;
 
+    @Value("${cache-http.pet}")
+    private String cacheControl;
+
     @Autowired
     public PetController(PetService service) {
         this.service = service;
@@ -39,6 +52,8 @@ public class PetController {
     })
     @GetMapping
     public Page<PetRespostaDTO> buscar(@RequestParam(value = "nome", required = false) String nome,
+                                       @ApiParam(value = "Busca por palavras no nome e na descrição, sem diferenciar acentos")
+                                           @RequestParam(value = "texto", required = false) String texto,
                                        @RequestParam(value = "dataAchado", required = false) LocalDate dataAchado,
                                        @RequestParam(value = "especie", required = false) Especie especie,
                                        @RequestParam(value = "porte", required = false) Porte porte,
@@ -51,16 +66,21 @@ public class PetController {
                                        @RequestParam(value = "latitudeUsuario", required = false) String latitude,
                                        @RequestParam(value = "longitudeUsuario", required = false) String longitude,
                                        @RequestParam(value = "raioDistancia", required = false) Double raioDistancia,
+                                       @ApiParam(value = "CONTEUDO envia os bytes das fotos; URL envia apenas os endereços em urlsFotos")
+                                           @RequestParam(defaultValue = "CONTEUDO") FormatoFoto formatoFotos,
+                                       @ApiParam(value = "Tamanho das fotos: MINIATURA, CARTAO, COMPLETA ou ORIGINAL")
+                                           @RequestParam(defaultValue = "MINIATURA") TamanhoFoto tamanhoFotos,
                                        @ApiParam(value = "Número da página atual")
                                            @RequestParam(defaultValue = "0") int paginaAtual,
                                        @ApiParam(value = "Número do tamanho da página")
                                            @RequestParam(defaultValue = "10") int tamanho,
                                        @ApiParam(value = "Direção da ordenação: ascendente ou descendente")
                                            @RequestParam(defaultValue = "DESC") Sort.Direction direcao,
-                                       @ApiParam(value = "Nome da coluna que será usada para a ordenação")
+                                       @ApiParam(value = "Nome da coluna que será usada para a ordenação. Use distancia (com latitudeUsuario e longitudeUsuario) para ordenar pela proximidade ou relevancia (com texto) para ordenar pela relevância da busca")
                                            @RequestParam(defaultValue = "dataRegistro") String campoOrdenacao) {
 
         return service.buscar(nome,
+                texto,
                 dataAchado,
                 especie,
                 porte,
@@ -73,12 +93,134 @@ public class PetController {
                 latitude,
                 longitude,
                 raioDistancia,
+                formatoFotos,
+                tamanhoFotos,
                 paginaAtual,
                 tamanho,
                 direcao,
                 campoOrdenacao);
     }
 
+    @ApiOperation(
+            value = "Busca os pets com os parâmetros passados, paginando por cursor",
+            notes = "Ordena por dataRegistro e id e não calcula o total de registros. Para buscar a próxima página, " +
+                    "envie o proximoCursor recebido; ultima indica que não há mais pets.",
+            response = PaginaCursorDTO.class
+    )
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Pets listados com sucesso"),
+            @ApiResponse(code = 400, message = "Cursor inválido")
+    })
+    @GetMapping("/cursor")
+    public PaginaCursorDTO<PetRespostaDTO> buscarPorCursor(@RequestParam(value = "nome", required = false) String nome,
+                                                           @ApiParam(value = "Busca por palavras no nome e na descrição, sem diferenciar acentos")
+                                                               @RequestParam(value = "texto", required = false) String texto,
+                                                           @RequestParam(value = "dataAchado", required = false) LocalDate dataAchado,
+                                                           @RequestParam(value = "especie", required = false) Especie especie,
+                                                           @RequestParam(value = "porte", required = false) Porte porte,
+                                                           @RequestParam(value = "sexo", required = false) Sexo sexo,
+                                                           @RequestParam(value = "status", required = false) Status status,
+                                                           @RequestParam(value = "idade", required = false) Idade idade,
+                                                           @RequestParam(value = "buscarPorLocalidade", required = false) TipoPesquisaLocalidade tipoPesquisaLocalidade,
+                                                           @RequestParam(value = "cidade", required = false) String cidade,
+                                                           @RequestParam(value = "estado", required = false) String estado,
+                                                           @RequestParam(value = "latitudeUsuario", required = false) String latitude,
+                                                           @RequestParam(value = "longitudeUsuario", required = false) String longitude,
+                                                           @RequestParam(value = "raioDistancia", required = false) Double raioDistancia,
+                                                           @ApiParam(value = "CONTEUDO envia os bytes das fotos; URL envia apenas os endereços em urlsFotos")
+                                                               @RequestParam(defaultValue = "CONTEUDO") FormatoFoto formatoFotos,
+                                                           @ApiParam(value = "Tamanho das fotos: MINIATURA, CARTAO, COMPLETA ou ORIGINAL")
+                                                               @RequestParam(defaultValue = "MINIATURA") TamanhoFoto tamanhoFotos,
+                                                           @ApiParam(value = "proximoCursor da página anterior; vazio na primeira página")
+                                                               @RequestParam(value = "cursor", required = false) String cursor,
+                                                           @ApiParam(value = "Número do tamanho da página")
+                                                               @RequestParam(defaultValue = "10") int tamanho,
+                                                           @ApiParam(value = "Direção da ordenação por dataRegistro: ascendente ou descendente")
+                                                               @RequestParam(defaultValue = "DESC") Sort.Direction direcao) {
+
+        return service.buscarPorCursor(nome,
+                texto,
+                dataAchado,
+                especie,
+                porte,
+                sexo,
+                status,
+                idade,
+                tipoPesquisaLocalidade,
+                cidade,
+                estado,
+                latitude,
+                longitude,
+                raioDistancia,
+                formatoFotos,
+                tamanhoFotos,
+                cursor,
+                tamanho,
+                direcao);
+    }
+
+    @ApiOperation(
+            value = "Agrupa os pets da área do mapa em células",
+            notes = "Retorna, para cada célula com pets, a quantidade, o centroide das coordenadas e a quantidade por " +
+                    "status. As células ficam menores conforme o zoom aumenta. Aceita os mesmos filtros da busca.",
+            response = CelulaPetDTO.class,
+            responseContainer = "List"
+    )
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Pets agrupados com sucesso"),
+            @ApiResponse(code = 400, message = "Área ou zoom inválidos")
+    })
+    @GetMapping("/clusters")
+    public List<CelulaPetDTO> agrupar(@ApiParam(value = "Área visível no formato minLongitude,minLatitude,maxLongitude,maxLatitude")
+                                          @RequestParam("bbox") String area,
+                                      @ApiParam(value = "Zoom do mapa, de 0 a 22")
+                                          @RequestParam("zoom") int zoom,
+                                      @RequestParam(value = "nome", required = false) String nome,
+                                      @ApiParam(value = "Busca por palavras no nome e na descrição, sem diferenciar acentos")
+                                          @RequestParam(value = "texto", required = false) String texto,
+                                      @RequestParam(value = "dataAchado", required = false) LocalDate dataAchado,
+                                      @RequestParam(value = "especie", required = false) Especie especie,
+                                      @RequestParam(value = "porte", required = false) Porte porte,
+                                      @RequestParam(value = "sexo", required = false) Sexo sexo,
+                                      @RequestParam(value = "status", required = false) Status status,
+                                      @RequestParam(value = "idade", required = false) Idade idade) {
+        return service.agrupar(area, zoom, nome, texto, dataAchado, especie, porte, sexo, status, idade);
+    }
+
+    @ApiOperation(
+            value = "Busca os pets mais próximos de uma coordenada",
+            notes = "Retorna até quantidade pets, do mais próximo ao mais distante, com a distância em quilômetros. " +
+                    "Aceita os mesmos filtros da busca; raioDistancia, quando informado, também limita o resultado.",
+            response = PetRespostaDTO.class,
+            responseContainer = "List"
+    )
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Pets listados com sucesso"),
+            @ApiResponse(code = 400, message = "Quantidade inválida")
+    })
+    @GetMapping("/proximos")
+    public List<PetRespostaDTO> buscarProximos(@RequestParam("latitudeUsuario") String latitude,
+                                               @RequestParam("longitudeUsuario") String longitude,
+                                               @ApiParam(value = "Quantidade máxima de pets, de 1 a 100")
+                                                   @RequestParam(defaultValue = "10") int quantidade,
+                                               @RequestParam(value = "nome", required = false) String nome,
+                                               @ApiParam(value = "Busca por palavras no nome e na descrição, sem diferenciar acentos")
+                                                   @RequestParam(value = "texto", required = false) String texto,
+                                               @RequestParam(value = "dataAchado", required = false) LocalDate dataAchado,
+                                               @RequestParam(value = "especie", required = false) Especie especie,
+                                               @RequestParam(value = "porte", required = false) Porte porte,
+                                               @RequestParam(value = "sexo", required = false) Sexo sexo,
+                                               @RequestParam(value = "status", required = false) Status status,
+                                               @RequestParam(value = "idade", required = false) Idade idade,
+                                               @RequestParam(value = "raioDistancia", required = false) Double raioDistancia,
+                                               @ApiParam(value = "CONTEUDO envia os bytes das fotos; URL envia apenas os endereços em urlsFotos")
+                                                   @RequestParam(defaultValue = "CONTEUDO") FormatoFoto formatoFotos,
+                                               @ApiParam(value = "Tamanho das fotos: MINIATURA, CARTAO, COMPLETA ou ORIGINAL")
+                                                   @RequestParam(defaultValue = "MINIATURA") TamanhoFoto tamanhoFotos) {
+        return service.buscarProximos(latitude, longitude, quantidade, nome, texto, dataAchado, especie, porte, sexo,
+                status, idade, raioDistancia, formatoFotos, tamanhoFotos);
+    }
+
     @ApiOperation(
             value = "Busca um pet com base no id",
             notes = " O objeto é do tipo PetRespostaDTO.",
@@ -86,11 +228,73 @@ public class PetController {
     )
     @ApiResponses({
             @ApiResponse(code = 200, message = "Pet encontrado com sucesso"),
+            @ApiResponse(code = 304, message = "Pet não modificado"),
             @ApiResponse(code = 404, message = "Pet não encontrado")
     })
     @GetMapping("/{id}")
-    public PetRespostaDTO buscarPorId(@ApiParam(value = "ID no pet") @PathVariable("id") UUID id) {
-        return service.buscarPorId(id);
+    public ResponseEntity<PetRespostaDTO> buscarPorId(@ApiParam(value = "ID no pet") @PathVariable("id") UUID id,
+                                                      @ApiParam(value = "CONTEUDO envia os bytes das fotos; URL envia apenas os endereços em urlsFotos")
+                                                          @RequestParam(defaultValue = "CONTEUDO") FormatoFoto formatoFotos,
+                                                      @ApiParam(value = "Tamanho das fotos: MINIATURA, CARTAO, COMPLETA ou ORIGINAL")
+                                                          @RequestParam(defaultValue = "COMPLETA") TamanhoFoto tamanhoFotos,
+                                                      WebRequest request) {
+        long dataAtualizacao = service.buscarDataAtualizacao(id)
+                .map(data -> data.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                .orElse(-1L);
+        String etag = String.format("\"%s-%d-%s-%s\"", id, dataAtualizacao, formatoFotos, tamanhoFotos);
+
+        // checkNotModified já grava ETag e Last-Modified na resposta.
+        boolean naoModificado = request.checkNotModified(etag, dataAtualizacao);
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.status(naoModificado ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl);
+
+        if (naoModificado) {
+            return resposta.build();
+        }
+
+        return resposta.body(service.buscarPorId(id, formatoFotos, tamanhoFotos));
+    }
+
+    @ApiOperation(
+            value = "Busca os pets que podem corresponder a um pet perdido ou achado",
+            notes = "Para um pet PROCURANDO_PET, lista os pets PROCURANDO_DONO da mesma espécie, e vice-versa, ordenados " +
+                    "pela pontuação (de 0 a 1) calculada com porte, sexo, idade, distância e datas.",
+            response = CorrespondenciaPetDTO.class,
+            responseContainer = "List"
+    )
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Correspondências listadas com sucesso"),
+            @ApiResponse(code = 404, message = "Pet não encontrado")
+    })
+    @GetMapping("/{id}/matches")
+    public List<CorrespondenciaPetDTO> buscarCorrespondencias(@ApiParam(value = "ID no pet") @PathVariable("id") UUID id,
+                                                              @ApiParam(value = "CONTEUDO envia os bytes das fotos; URL envia apenas os endereços em urlsFotos")
+                                                                  @RequestParam(defaultValue = "URL") FormatoFoto formatoFotos,
+                                                              @ApiParam(value = "Tamanho das fotos: MINIATURA, CARTAO, COMPLETA ou ORIGINAL")
+                                                                  @RequestParam(defaultValue = "MINIATURA") TamanhoFoto tamanhoFotos) {
+        return service.buscarCorrespondencias(id, formatoFotos, tamanhoFotos);
+    }
+
+    @ApiOperation(
+            value = "Busca os pets com fotos parecidas com uma foto do pet",
+            notes = "A distância é o número de bits diferentes entre os hashes perceptuais das fotos (0 a 64). " +
+                    "duplicata indica fotos praticamente iguais, como o mesmo animal cadastrado duas vezes.",
+            response = PetSimilarDTO.class,
+            responseContainer = "List"
+    )
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Pets similares listados com sucesso"),
+            @ApiResponse(code = 404, message = "Foto não encontrada"),
+            @ApiResponse(code = 503, message = "Foto ainda não indexada")
+    })
+    @GetMapping("/{id}/fotos/{fotoId}/similares")
+    public List<PetSimilarDTO> buscarSimilares(@ApiParam(value = "ID no pet") @PathVariable("id") UUID id,
+                                               @ApiParam(value = "ID da foto") @PathVariable("fotoId") UUID fotoId,
+                                               @ApiParam(value = "CONTEUDO envia os bytes das fotos; URL envia apenas os endereços em urlsFotos")
+                                                   @RequestParam(defaultValue = "URL") FormatoFoto formatoFotos,
+                                               @ApiParam(value = "Tamanho das fotos: MINIATURA, CARTAO, COMPLETA ou ORIGINAL")
+                                                   @RequestParam(defaultValue = "MINIATURA") TamanhoFoto tamanhoFotos) {
+        return service.buscarSimilares(id, fotoId, formatoFotos, tamanhoFotos);
     }
 
     @ApiOperation(
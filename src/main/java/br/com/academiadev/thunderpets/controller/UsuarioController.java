@@ -1,5 +1,6 @@
 package br.com.academiadev.thunderpets.controller;
 
+import br.com.academiadev.thunderpets.dto.ConteudoFotoDTO;
 import br.com.academiadev.thunderpets.dto.FotoDTO;
 import br.com.academiadev.thunderpets.dto.PetRespostaDTO;
 import br.com.academiadev.thunderpets.dto.UsuarioDTO;
@@ -8,8 +9,11 @@ import br.com.academiadev.thunderpets.exception.ErroAoProcessarException;
 import br.com.academiadev.thunderpets.exception.NaoEncontradoException;
 import br.com.academiadev.thunderpets.service.UsuarioService;
 import io.swagger.annotations.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,6 +28,9 @@ public class UsuarioController {
 
     private UsuarioService usuarioService;
 
+    @Value("${cache-http.foto-usuario}")
+    private String cacheControlFoto;
+
     public UsuarioController(UsuarioService usuarioService) {
         this.usuarioService = usuarioService;
     }
@@ -88,10 +95,14 @@ public class UsuarioController {
             @ApiResponse(code = 404, message = "Usuário não encontrado; Foto não encontrada")
     })
     @GetMapping("{id}/foto")
-    public ResponseEntity<Object> getFoto(@PathVariable("id") UUID id) {
-        byte[] bytes = usuarioService.getFoto(id);
-
-        return ResponseEntity.ok().contentType(MediaType.IMAGE_JPEG).body(bytes);
+    public ResponseEntity<Resource> getFoto(@PathVariable("id") UUID id) {
+        ConteudoFotoDTO foto = usuarioService.getFoto(id);
+
+        return ResponseEntity.ok()
+                .eTag(foto.getHash())
+                .header(HttpHeaders.CACHE_CONTROL, cacheControlFoto)
+                .contentType(foto.getTipo())
+                .body(foto.getConteudo());
     }
 
     @ApiOperation("Busca os pets de determinado usuário com base no id do usuário")
@@ -106,7 +117,7 @@ public class UsuarioController {
 
     @ApiOperation("Envia um e-mail para redefinição da senha")
     @ApiResponses({
-            @ApiResponse(code = 200, message = "E-mail enviado com sucesso"),
+            @ApiResponse(code = 200, message = "E-mail agendado para envio"),
             @ApiResponse(code = 404, message = "Usuário não encontrado")
     })
     @GetMapping("/esqueci-minha-senha")
@@ -0,0 +1,86 @@
+package br.com.academiadev.thunderpets.correspondencia;
+
+import br.com.academiadev.thunderpets.enums.Sexo;
+import br.com.academiadev.thunderpets.geo.DistanciaGeografica;
+import br.com.academiadev.thunderpets.model.Localizacao;
+import br.com.academiadev.thunderpets.model.Pet;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Pontua, de 0 a 1, o quanto um pet perdido e um pet achado podem ser o mesmo animal. Espécies ou sexos diferentes,
+ * distância acima do raio e datas fora da janela eliminam o par; quando um dos dois não informa o sexo, a localização
+ * ou a data, o critério conta pela metade.
+ */
+@Getter
+@AllArgsConstructor
+public class CalculadoraCorrespondencia {
+
+    private static final double PESO_PORTE = 0.2;
+    private static final double PESO_SEXO = 0.15;
+    private static final double PESO_IDADE = 0.15;
+    private static final double PESO_DISTANCIA = 0.3;
+    private static final double PESO_TEMPO = 0.2;
+    private static final double SEM_INFORMACAO = 0.5;
+
+    private double raioMaximoKm;
+    private long janelaDias;
+
+    public Double distancia(Pet pet, Pet candidato) {
+        Localizacao origem = pet.getLocalizacao();
+        Localizacao destino = candidato.getLocalizacao();
+
+        if (origem == null || destino == null || !origem.possuiCoordenadas() || !destino.possuiCoordenadas()) {
+            return null;
+        }
+
+        return DistanciaGeografica.emQuilometros(origem.getLatitude().doubleValue(), origem.getLongitude().doubleValue(),
+                destino.getLatitude().doubleValue(), destino.getLongitude().doubleValue());
+    }
+
+    public double pontuar(Pet pet, Pet candidato, Double distanciaKm) {
+        if (!pet.getEspecie().equals(candidato.getEspecie())
+                || sexosOpostos(pet.getSexo(), candidato.getSexo())
+                || (distanciaKm != null && distanciaKm > raioMaximoKm)
+                || diasEntre(pet, candidato) > janelaDias) {
+            return 0;
+        }
+
+        return PESO_PORTE * proximidade(pet.getPorte().ordinal(), candidato.getPorte().ordinal(), 2)
+                + PESO_SEXO * pontuarSexo(pet.getSexo(), candidato.getSexo())
+                + PESO_IDADE * proximidade(pet.getIdade().ordinal(), candidato.getIdade().ordinal(), 2)
+                + PESO_DISTANCIA * (distanciaKm == null ? SEM_INFORMACAO : 1 - distanciaKm / raioMaximoKm)
+                + PESO_TEMPO * pontuarTempo(pet, candidato);
+    }
+
+    private boolean sexosOpostos(Sexo sexo, Sexo sexoCandidato) {
+        return !sexo.equals(sexoCandidato) && !Sexo.INDETERMINADO.equals(sexo) && !Sexo.INDETERMINADO.equals(sexoCandidato);
+    }
+
+    private double pontuarSexo(Sexo sexo, Sexo sexoCandidato) {
+        return sexo.equals(sexoCandidato) ? 1 : SEM_INFORMACAO;
+    }
+
+    private double pontuarTempo(Pet pet, Pet candidato) {
+        long dias = diasEntre(pet, candidato);
+
+        return dias < 0 ? SEM_INFORMACAO : 1 - (double) dias / (janelaDias + 1);
+    }
+
+    /**
+     * Dias entre as datas em que os pets foram perdidos e achados, ou -1 quando alguma delas não foi informada.
+     */
+    private long diasEntre(Pet pet, Pet candidato) {
+        if (pet.getDataAchado() == null || candidato.getDataAchado() == null) {
+            return -1;
+        }
+
+        return Math.abs(ChronoUnit.DAYS.between(pet.getDataAchado(), candidato.getDataAchado()));
+    }
+
+    private static double proximidade(int valor, int valorCandidato, int diferencaMaxima) {
+        return 1 - (double) Math.abs(valor - valorCandidato) / diferencaMaxima;
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.academiadev.thunderpets.dto;
+
+import br.com.academiadev.thunderpets.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CelulaPetDTO {
+
+    private double latitude;
+    private double longitude;
+    private long quantidade;
+    private Map<Status, Long> quantidadePorStatus = new EnumMap<>(Status.class);
+}
@@ -0,0 +1,17 @@
+package br.com.academiadev.thunderpets.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConteudoFotoDTO {
+
+    private String hash;
+    private MediaType tipo;
+    private Resource conteudo;
+}
@@ -0,0 +1,14 @@
+package br.com.academiadev.thunderpets.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CorrespondenciaPetDTO {
+
+    private PetRespostaDTO pet;
+    private double pontuacao;
+}
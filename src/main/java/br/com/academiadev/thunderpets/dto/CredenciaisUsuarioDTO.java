@@ -0,0 +1,22 @@
+package br.com.academiadev.thunderpets.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.UUID;
+
+/**
+ * Apenas os campos usados na autenticação. É guardado em cache, por isso não tem setters.
+ */
+@Getter
+@AllArgsConstructor
+@ToString(exclude = "senha")
+public class CredenciaisUsuarioDTO {
+
+    private final UUID id;
+    private final String email;
+    private final String nome;
+    private final String senha;
+    private final boolean ativo;
+}
@@ -0,0 +1,44 @@
+package br.com.academiadev.thunderpets.dto;
+
+import br.com.academiadev.thunderpets.exception.ErroAoProcessarException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posição da última linha entregue na paginação por cursor, ordenada por (dataRegistro, id).
+ * Para o cliente o cursor é opaco: apenas o valor devolvido em proximoCursor deve ser reenviado.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPetDTO {
+
+    private static final String SEPARADOR = "|";
+
+    private LocalDateTime dataRegistro;
+    private UUID id;
+
+    public String codificar() {
+        String valor = dataRegistro + SEPARADOR + id;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorPetDTO decodificar(String cursor) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = valor.indexOf(SEPARADOR);
+
+            return new CursorPetDTO(LocalDateTime.parse(valor.substring(0, separador)),
+                    UUID.fromString(valor.substring(separador + 1)));
+        } catch (RuntimeException e) {
+            throw new ErroAoProcessarException(String.format("Cursor %s inválido", cursor));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.academiadev.thunderpets.dto;
+
+import br.com.academiadev.thunderpets.enums.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@NoArgsConstructor
+public class FiltroPetDTO {
+
+    private String nome;
+    private String texto;
+    private LocalDate dataAchado;
+    private Especie especie;
+    private Porte porte;
+    private Sexo sexo;
+    private Status status;
+    private Idade idade;
+    private String cidade;
+    private String estado;
+    private Double latitude;
+    private Double longitude;
+    private Double raioDistancia;
+
+    public boolean possuiCoordenadas() {
+        return latitude != null && longitude != null;
+    }
+
+    public boolean possuiTexto() {
+        return texto != null && !texto.trim().isEmpty();
+    }
+
+    public boolean possuiRaioDistancia() {
+        return possuiCoordenadas() && raioDistancia != null;
+    }
+}
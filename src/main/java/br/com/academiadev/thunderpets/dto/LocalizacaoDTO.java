@@ -0,0 +1,37 @@
+package br.com.academiadev.thunderpets.dto;
+
+import br.com.academiadev.thunderpets.model.Localizacao;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Localização de um pet nas respostas. Vai junto do PetRespostaDTO para o cache, por isso não tem setters nem
+ * referência à entidade.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class LocalizacaoDTO {
+
+    private final UUID id;
+    private final BigDecimal latitude;
+    private final BigDecimal longitude;
+    private final String cidade;
+    private final String estado;
+    private final String descricao;
+
+    public static LocalizacaoDTO de(Localizacao localizacao) {
+        if (localizacao == null) {
+            return null;
+        }
+
+        return new LocalizacaoDTO(localizacao.getId(), localizacao.getLatitude(), localizacao.getLongitude(),
+                localizacao.getCidade(), localizacao.getEstado(), localizacao.getDescricao());
+    }
+}
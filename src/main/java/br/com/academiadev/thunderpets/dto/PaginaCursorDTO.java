@@ -0,0 +1,17 @@
+package br.com.academiadev.thunderpets.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaginaCursorDTO<T> {
+
+    private List<T> conteudo;
+    private String proximoCursor;
+    private boolean ultima;
+}
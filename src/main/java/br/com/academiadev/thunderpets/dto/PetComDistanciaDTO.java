@@ -0,0 +1,15 @@
+package br.com.academiadev.thunderpets.dto;
+
+import br.com.academiadev.thunderpets.model.Pet;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PetComDistanciaDTO {
+
+    private Pet pet;
+    private Double distancia;
+}
@@ -1,37 +1,75 @@
 package br.com.academiadev.thunderpets.dto;
 
 import br.com.academiadev.thunderpets.enums.*;
-import br.com.academiadev.thunderpets.model.Localizacao;
-import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
-@Data
-@AllArgsConstructor
-@Builder
-@NoArgsConstructor
+/**
+ * Fica no cache local e é compartilhado entre requisições, por isso não tem setters e as listas não podem ser
+ * alteradas. Variações por requisição, como a distância, são feitas em cópias com toBuilder.
+ */
+@Getter
+@ToString(exclude = "fotos")
 public class PetRespostaDTO {
 
-    private UUID id;
-    private String nome;
-    private String descricao;
-    private LocalDate dataAchado;
-    private LocalDateTime dataRegistro;
-    private Especie especie;
-    private Porte porte;
-    private Sexo sexo;
-    private Status status;
-    private Idade idade;
-    private UUID usuarioId;
-    private Localizacao localizacao;
-    private boolean ativo;
-    private List<byte[]> fotos;
-    private BigDecimal distancia;
-}
\ No newline at end of file
+    private final UUID id;
+    private final String nome;
+    private final String descricao;
+    private final LocalDate dataAchado;
+    private final LocalDateTime dataRegistro;
+    private final Especie especie;
+    private final Porte porte;
+    private final Sexo sexo;
+    private final Status status;
+    private final Idade idade;
+    private final UUID usuarioId;
+    private final LocalizacaoDTO localizacao;
+    private final boolean ativo;
+    private final List<byte[]> fotos;
+    private final List<String> urlsFotos;
+    private final BigDecimal distancia;
+
+    @Builder(toBuilder = true)
+    public PetRespostaDTO(UUID id,
+                          String nome,
+                          String descricao,
+                          LocalDate dataAchado,
+                          LocalDateTime dataRegistro,
+                          Especie especie,
+                          Porte porte,
+                          Sexo sexo,
+                          Status status,
+                          Idade idade,
+                          UUID usuarioId,
+                          LocalizacaoDTO localizacao,
+                          boolean ativo,
+                          List<byte[]> fotos,
+                          List<String> urlsFotos,
+                          BigDecimal distancia) {
+        this.id = id;
+        this.nome = nome;
+        this.descricao = descricao;
+        this.dataAchado = dataAchado;
+        this.dataRegistro = dataRegistro;
+        this.especie = especie;
+        this.porte = porte;
+        this.sexo = sexo;
+        this.status = status;
+        this.idade = idade;
+        this.usuarioId = usuarioId;
+        this.localizacao = localizacao;
+        this.ativo = ativo;
+        this.fotos = fotos != null ? Collections.unmodifiableList(new ArrayList<>(fotos)) : null;
+        this.urlsFotos = urlsFotos != null ? Collections.unmodifiableList(new ArrayList<>(urlsFotos)) : null;
+        this.distancia = distancia;
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.academiadev.thunderpets.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PetSimilarDTO {
+
+    private PetRespostaDTO pet;
+    private UUID fotoId;
+    private int distancia;
+    private boolean duplicata;
+}
@@ -15,7 +15,10 @@ public class UsuarioRespostaDTO {
     private UUID id;
     private String nome;
     private String email;
-    private byte[] foto;
+    /**
+     * Hash da foto servida em /usuario/{id}/foto, ou null quando o usuário não tem foto. Muda junto com a foto.
+     */
+    private String fotoHash;
     private boolean ativo;
     private Set<ContatoDTO> contatos;
 }
@@ -0,0 +1,5 @@
+package br.com.academiadev.thunderpets.enums;
+
+public enum FormatoFoto {
+    CONTEUDO, URL;
+}
\ No newline at end of file
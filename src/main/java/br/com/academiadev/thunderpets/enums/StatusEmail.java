@@ -0,0 +1,5 @@
+package br.com.academiadev.thunderpets.enums;
+
+public enum StatusEmail {
+    PENDENTE, ENVIADO, DESCARTADO;
+}
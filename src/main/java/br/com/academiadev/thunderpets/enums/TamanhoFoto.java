@@ -0,0 +1,15 @@
+package br.com.academiadev.thunderpets.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum TamanhoFoto {
+    MINIATURA(160),
+    CARTAO(480),
+    COMPLETA(1280),
+    ORIGINAL(0);
+
+    private int ladoMaximo;
+}
@@ -0,0 +1,23 @@
+package br.com.academiadev.thunderpets.event;
+
+import br.com.academiadev.thunderpets.enums.EntidadeInvalidada;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * Alteração feita por outra instância da aplicação. O id nulo indica que as notificações podem ter sido perdidas
+ * e que todas as entradas da entidade devem ser descartadas.
+ */
+@Data
+@AllArgsConstructor
+public class InvalidacaoRemotaEvent {
+
+    private EntidadeInvalidada entidade;
+    private UUID id;
+
+    public boolean isTodas() {
+        return id == null;
+    }
+}
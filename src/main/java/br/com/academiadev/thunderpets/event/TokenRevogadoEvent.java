@@ -0,0 +1,13 @@
+package br.com.academiadev.thunderpets.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class TokenRevogadoEvent {
+
+    private UUID jti;
+}
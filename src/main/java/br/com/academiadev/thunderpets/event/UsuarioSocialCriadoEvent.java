@@ -0,0 +1,14 @@
+package br.com.academiadev.thunderpets.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class UsuarioSocialCriadoEvent {
+
+    private UUID id;
+    private String urlFoto;
+}
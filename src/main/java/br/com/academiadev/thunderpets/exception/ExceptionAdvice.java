@@ -40,6 +40,13 @@ public class ExceptionAdvice {
         return new ApiResponse(HttpStatus.METHOD_NOT_ALLOWED, exception.getMessage());
     }
 
+    @ExceptionHandler(ServicoIndisponivelException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ResponseBody
+    protected ApiResponse handleServicoIndisponivel(ServicoIndisponivelException exception) {
+        return new ApiResponse(HttpStatus.SERVICE_UNAVAILABLE, exception.getMessage());
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
     @ResponseBody
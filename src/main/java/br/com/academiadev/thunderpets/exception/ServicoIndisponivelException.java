@@ -0,0 +1,11 @@
+package br.com.academiadev.thunderpets.exception;
+
+public class ServicoIndisponivelException extends RuntimeException {
+
+    public ServicoIndisponivelException() {
+    }
+
+    public ServicoIndisponivelException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.academiadev.thunderpets.geo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Retângulo de latitude/longitude que envolve um círculo de busca. Serve como pré-filtro indexável
+ * antes do cálculo exato da distância.
+ */
+@Getter
+@AllArgsConstructor
+public class AreaDeBusca {
+
+    public static final double RAIO_TERRA_KM = 6371;
+
+    private static final double KM_POR_GRAU = RAIO_TERRA_KM * Math.PI / 180;
+    private static final int ESCALA_COORDENADAS = 6;
+
+    private BigDecimal latitudeMinima;
+    private BigDecimal latitudeMaxima;
+    private BigDecimal longitudeMinima;
+    private BigDecimal longitudeMaxima;
+
+    public static AreaDeBusca aoRedorDe(double latitude, double longitude, double raioKm) {
+        double deltaLatitude = raioKm / KM_POR_GRAU;
+        double latitudeMinima = Math.max(-90, latitude - deltaLatitude);
+        double latitudeMaxima = Math.min(90, latitude + deltaLatitude);
+
+        double latitudeMaisProximaDoPolo = Math.max(Math.abs(latitudeMinima), Math.abs(latitudeMaxima));
+        double longitudeMinima = -180;
+        double longitudeMaxima = 180;
+
+        if (latitudeMaisProximaDoPolo < 90) {
+            double deltaLongitude = deltaLatitude / Math.cos(Math.toRadians(latitudeMaisProximaDoPolo));
+
+            if (longitude - deltaLongitude >= -180 && longitude + deltaLongitude <= 180) {
+                longitudeMinima = longitude - deltaLongitude;
+                longitudeMaxima = longitude + deltaLongitude;
+            }
+        }
+
+        return new AreaDeBusca(
+                arredondar(latitudeMinima, RoundingMode.FLOOR),
+                arredondar(latitudeMaxima, RoundingMode.CEILING),
+                arredondar(longitudeMinima, RoundingMode.FLOOR),
+                arredondar(longitudeMaxima, RoundingMode.CEILING));
+    }
+
+    private static BigDecimal arredondar(double valor, RoundingMode modo) {
+        return BigDecimal.valueOf(valor).setScale(ESCALA_COORDENADAS, modo);
+    }
+}
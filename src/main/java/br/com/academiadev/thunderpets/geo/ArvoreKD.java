@@ -0,0 +1,280 @@
+package br.com.academiadev.thunderpets.geo;
+
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Árvore KD imutável sobre pontos da esfera. Cada coordenada vira um vetor unitário em três dimensões, guardado em
+ * vetores de double na ordem da árvore, então o antimeridiano e os polos não precisam de tratamento especial. A corda
+ * entre dois vetores cresce junto com a distância na superfície, o que permite podar a busca sem trigonometria.
+ * As buscas devolvem a posição do ponto na lista usada na construção.
+ */
+public class ArvoreKD {
+
+    private static final int DIMENSOES = 3;
+
+    private final double[] coordenadas;
+    private final int[] posicoes;
+
+    public ArvoreKD(double[] latitudes, double[] longitudes) {
+        int tamanho = latitudes.length;
+        coordenadas = new double[tamanho * DIMENSOES];
+        posicoes = new int[tamanho];
+
+        for (int i = 0; i < tamanho; i++) {
+            posicoes[i] = i;
+            converter(latitudes[i], longitudes[i], coordenadas, i * DIMENSOES);
+        }
+
+        construir(0, tamanho, 0);
+    }
+
+    public int getTamanho() {
+        return posicoes.length;
+    }
+
+    /**
+     * Entrega as posições dos pontos a no máximo raioKm do centro. A comparação usa a corda com uma pequena folga; quem
+     * usa confirma com {@link DistanciaGeografica} para ter o mesmo limite das consultas ao banco.
+     */
+    public void buscarNoRaio(double latitude, double longitude, double raioKm, IntConsumer consumidor) {
+        double[] centro = new double[DIMENSOES];
+        converter(latitude, longitude, centro, 0);
+
+        double corda = cordaAte(raioKm) + 1e-9;
+        buscarNoRaio(centro, corda * corda, 0, posicoes.length, 0, consumidor);
+    }
+
+    /**
+     * Posições dos até quantidade pontos mais próximos que atendem o filtro, do mais próximo ao mais distante.
+     */
+    public int[] buscarMaisProximos(double latitude, double longitude, int quantidade, IntPredicate filtro) {
+        double[] centro = new double[DIMENSOES];
+        converter(latitude, longitude, centro, 0);
+
+        MaisProximos maisProximos = new MaisProximos(quantidade);
+        if (quantidade > 0) {
+            buscarMaisProximos(centro, 0, posicoes.length, 0, filtro, maisProximos);
+        }
+
+        return maisProximos.ordenados();
+    }
+
+    public static double cordaAte(double distanciaKm) {
+        double angulo = Math.min(Math.PI, distanciaKm / AreaDeBusca.RAIO_TERRA_KM);
+        return 2 * Math.sin(angulo / 2);
+    }
+
+    private void construir(int inicio, int fim, int eixo) {
+        if (fim - inicio <= 1) {
+            return;
+        }
+
+        int meio = (inicio + fim) >>> 1;
+        selecionar(inicio, fim - 1, meio, eixo);
+
+        int proximoEixo = (eixo + 1) % DIMENSOES;
+        construir(inicio, meio, proximoEixo);
+        construir(meio + 1, fim, proximoEixo);
+    }
+
+    /**
+     * Quickselect: deixa na posição k o ponto que estaria ali se o intervalo fosse ordenado pelo eixo.
+     */
+    private void selecionar(int inicio, int fim, int k, int eixo) {
+        while (fim > inicio) {
+            double pivo = valor((inicio + fim) >>> 1, eixo);
+            int i = inicio;
+            int j = fim;
+
+            while (i <= j) {
+                while (valor(i, eixo) < pivo) {
+                    i++;
+                }
+                while (valor(j, eixo) > pivo) {
+                    j--;
+                }
+                if (i <= j) {
+                    trocar(i++, j--);
+                }
+            }
+
+            if (k <= j) {
+                fim = j;
+            } else if (k >= i) {
+                inicio = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void buscarNoRaio(double[] centro, double cordaAoQuadrado, int inicio, int fim, int eixo, IntConsumer consumidor) {
+        if (inicio >= fim) {
+            return;
+        }
+
+        int meio = (inicio + fim) >>> 1;
+        if (distanciaAoQuadrado(centro, meio) <= cordaAoQuadrado) {
+            consumidor.accept(posicoes[meio]);
+        }
+
+        double diferenca = centro[eixo] - valor(meio, eixo);
+        int proximoEixo = (eixo + 1) % DIMENSOES;
+
+        if (diferenca <= 0 || diferenca * diferenca <= cordaAoQuadrado) {
+            buscarNoRaio(centro, cordaAoQuadrado, inicio, meio, proximoEixo, consumidor);
+        }
+        if (diferenca >= 0 || diferenca * diferenca <= cordaAoQuadrado) {
+            buscarNoRaio(centro, cordaAoQuadrado, meio + 1, fim, proximoEixo, consumidor);
+        }
+    }
+
+    private void buscarMaisProximos(double[] centro, int inicio, int fim, int eixo, IntPredicate filtro, MaisProximos maisProximos) {
+        if (inicio >= fim) {
+            return;
+        }
+
+        int meio = (inicio + fim) >>> 1;
+        if (filtro.test(posicoes[meio])) {
+            maisProximos.oferecer(posicoes[meio], distanciaAoQuadrado(centro, meio));
+        }
+
+        double diferenca = centro[eixo] - valor(meio, eixo);
+        int proximoEixo = (eixo + 1) % DIMENSOES;
+
+        // Desce primeiro no lado do centro; o outro lado só é visitado se ainda puder ter algo mais próximo.
+        if (diferenca <= 0) {
+            buscarMaisProximos(centro, inicio, meio, proximoEixo, filtro, maisProximos);
+            if (diferenca * diferenca <= maisProximos.limite()) {
+                buscarMaisProximos(centro, meio + 1, fim, proximoEixo, filtro, maisProximos);
+            }
+        } else {
+            buscarMaisProximos(centro, meio + 1, fim, proximoEixo, filtro, maisProximos);
+            if (diferenca * diferenca <= maisProximos.limite()) {
+                buscarMaisProximos(centro, inicio, meio, proximoEixo, filtro, maisProximos);
+            }
+        }
+    }
+
+    private double distanciaAoQuadrado(double[] centro, int indice) {
+        int base = indice * DIMENSOES;
+        double dx = centro[0] - coordenadas[base];
+        double dy = centro[1] - coordenadas[base + 1];
+        double dz = centro[2] - coordenadas[base + 2];
+
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private double valor(int indice, int eixo) {
+        return coordenadas[indice * DIMENSOES + eixo];
+    }
+
+    private void trocar(int i, int j) {
+        int posicao = posicoes[i];
+        posicoes[i] = posicoes[j];
+        posicoes[j] = posicao;
+
+        for (int eixo = 0; eixo < DIMENSOES; eixo++) {
+            double valor = coordenadas[i * DIMENSOES + eixo];
+            coordenadas[i * DIMENSOES + eixo] = coordenadas[j * DIMENSOES + eixo];
+            coordenadas[j * DIMENSOES + eixo] = valor;
+        }
+    }
+
+    private static void converter(double latitude, double longitude, double[] destino, int base) {
+        double phi = Math.toRadians(latitude);
+        double lambda = Math.toRadians(longitude);
+
+        destino[base] = Math.cos(phi) * Math.cos(lambda);
+        destino[base + 1] = Math.cos(phi) * Math.sin(lambda);
+        destino[base + 2] = Math.sin(phi);
+    }
+
+    /**
+     * Heap de máximo com as distâncias dos melhores candidatos até agora, em vetores primitivos.
+     */
+    private static class MaisProximos {
+
+        private final int capacidade;
+        private final int[] posicoes;
+        private final double[] distancias;
+        private int tamanho;
+
+        private MaisProximos(int capacidade) {
+            this.capacidade = capacidade;
+            this.posicoes = new int[capacidade];
+            this.distancias = new double[capacidade];
+        }
+
+        private double limite() {
+            return tamanho < capacidade ? Double.POSITIVE_INFINITY : distancias[0];
+        }
+
+        private void oferecer(int posicao, double distancia) {
+            if (tamanho < capacidade) {
+                posicoes[tamanho] = posicao;
+                distancias[tamanho] = distancia;
+                subir(tamanho++);
+            } else if (distancia < distancias[0]) {
+                posicoes[0] = posicao;
+                distancias[0] = distancia;
+                descer(0, tamanho);
+            }
+        }
+
+        private int[] ordenados() {
+            int[] resultado = new int[tamanho];
+            for (int fim = tamanho - 1; fim >= 0; fim--) {
+                resultado[fim] = posicoes[0];
+                trocar(0, fim);
+                descer(0, fim);
+            }
+
+            return resultado;
+        }
+
+        private void subir(int i) {
+            while (i > 0) {
+                int pai = (i - 1) / 2;
+                if (distancias[pai] >= distancias[i]) {
+                    return;
+                }
+
+                trocar(pai, i);
+                i = pai;
+            }
+        }
+
+        private void descer(int i, int fim) {
+            while (true) {
+                int maior = i;
+                int esquerda = 2 * i + 1;
+                int direita = esquerda + 1;
+
+                if (esquerda < fim && distancias[esquerda] > distancias[maior]) {
+                    maior = esquerda;
+                }
+                if (direita < fim && distancias[direita] > distancias[maior]) {
+                    maior = direita;
+                }
+                if (maior == i) {
+                    return;
+                }
+
+                trocar(i, maior);
+                i = maior;
+            }
+        }
+
+        private void trocar(int i, int j) {
+            int posicao = posicoes[i];
+            posicoes[i] = posicoes[j];
+            posicoes[j] = posicao;
+
+            double distancia = distancias[i];
+            distancias[i] = distancias[j];
+            distancias[j] = distancia;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.academiadev.thunderpets.geo;
+
+/**
+ * Distância na esfera pela lei dos cossenos, a mesma fórmula usada nas consultas do PetRepositoryImpl.
+ */
+public final class DistanciaGeografica {
+
+    private DistanciaGeografica() {
+    }
+
+    public static double emQuilometros(double latitudeOrigem, double longitudeOrigem,
+                                       double latitudeDestino, double longitudeDestino) {
+        double cosseno = Math.cos(Math.toRadians(latitudeOrigem))
+                * Math.cos(Math.toRadians(latitudeDestino))
+                * Math.cos(Math.toRadians(longitudeOrigem) - Math.toRadians(longitudeDestino))
+                + Math.sin(Math.toRadians(latitudeOrigem)) * Math.sin(Math.toRadians(latitudeDestino));
+
+        return AreaDeBusca.RAIO_TERRA_KM * Math.acos(Math.max(-1, Math.min(1, cosseno)));
+    }
+}
@@ -0,0 +1,119 @@
+package br.com.academiadev.thunderpets.geo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Codificação geohash em base 32, idêntica à função geohash_codificar da migração V0036. Prefixos comuns indicam
+ * células vizinhas, o que permite filtrar por área com um índice btree comum.
+ */
+public final class Geohash {
+
+    public static final int PRECISAO_MAXIMA = 12;
+
+    private static final char[] ALFABETO = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    private Geohash() {
+    }
+
+    public static String codificar(double latitude, double longitude, int precisao) {
+        double latitudeMinima = -90;
+        double latitudeMaxima = 90;
+        double longitudeMinima = -180;
+        double longitudeMaxima = 180;
+
+        StringBuilder geohash = new StringBuilder(precisao);
+        boolean longitudePar = true;
+        int valor = 0;
+        int bits = 0;
+
+        while (geohash.length() < precisao) {
+            if (longitudePar) {
+                double meio = (longitudeMinima + longitudeMaxima) / 2;
+                if (longitude >= meio) {
+                    valor = valor * 2 + 1;
+                    longitudeMinima = meio;
+                } else {
+                    valor = valor * 2;
+                    longitudeMaxima = meio;
+                }
+            } else {
+                double meio = (latitudeMinima + latitudeMaxima) / 2;
+                if (latitude >= meio) {
+                    valor = valor * 2 + 1;
+                    latitudeMinima = meio;
+                } else {
+                    valor = valor * 2;
+                    latitudeMaxima = meio;
+                }
+            }
+
+            longitudePar = !longitudePar;
+            if (++bits == 5) {
+                geohash.append(ALFABETO[valor]);
+                bits = 0;
+                valor = 0;
+            }
+        }
+
+        return geohash.toString();
+    }
+
+    /**
+     * Prefixos de maior precisão cujas células cobrem a área inteira sem passar de maximoPrefixos. Retorna lista
+     * vazia quando nem a precisão 1 atende o limite, caso em que o filtro por prefixo não compensa.
+     */
+    public static List<String> prefixosCobrindo(AreaDeBusca area, int maximoPrefixos) {
+        double latitudeMinima = area.getLatitudeMinima().doubleValue();
+        double latitudeMaxima = area.getLatitudeMaxima().doubleValue();
+        double longitudeMinima = area.getLongitudeMinima().doubleValue();
+        double longitudeMaxima = area.getLongitudeMaxima().doubleValue();
+
+        int precisaoEscolhida = 0;
+        for (int precisao = 1; precisao <= PRECISAO_MAXIMA; precisao++) {
+            long celulas = (long) contarCelulas(latitudeMinima, latitudeMaxima, alturaCelula(precisao), -90)
+                    * contarCelulas(longitudeMinima, longitudeMaxima, larguraCelula(precisao), -180);
+
+            if (celulas > maximoPrefixos) {
+                break;
+            }
+
+            precisaoEscolhida = precisao;
+        }
+
+        if (precisaoEscolhida == 0) {
+            return Collections.emptyList();
+        }
+
+        double altura = alturaCelula(precisaoEscolhida);
+        double largura = larguraCelula(precisaoEscolhida);
+        List<String> prefixos = new ArrayList<>();
+
+        for (int linha = indiceCelula(latitudeMinima, altura, -90); linha <= indiceCelula(latitudeMaxima, altura, -90); linha++) {
+            for (int coluna = indiceCelula(longitudeMinima, largura, -180); coluna <= indiceCelula(longitudeMaxima, largura, -180); coluna++) {
+                // O centro da célula evita ambiguidade nas bordas ao codificar.
+                prefixos.add(codificar(-90 + (linha + 0.5) * altura, -180 + (coluna + 0.5) * largura, precisaoEscolhida));
+            }
+        }
+
+        return prefixos;
+    }
+
+    private static int contarCelulas(double minimo, double maximo, double lado, double origem) {
+        return indiceCelula(maximo, lado, origem) - indiceCelula(minimo, lado, origem) + 1;
+    }
+
+    private static int indiceCelula(double valor, double lado, double origem) {
+        int ultimo = (int) Math.round((-2 * origem) / lado) - 1;
+        return Math.min(ultimo, (int) Math.floor((valor - origem) / lado));
+    }
+
+    private static double alturaCelula(int precisao) {
+        return 180 / Math.pow(2, (5 * precisao) / 2);
+    }
+
+    private static double larguraCelula(int precisao) {
+        return 360 / Math.pow(2, (5 * precisao + 1) / 2);
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.academiadev.thunderpets.geo;
+
+import br.com.academiadev.thunderpets.dto.FiltroPetDTO;
+import br.com.academiadev.thunderpets.enums.Especie;
+import br.com.academiadev.thunderpets.enums.Idade;
+import br.com.academiadev.thunderpets.enums.Porte;
+import br.com.academiadev.thunderpets.enums.Sexo;
+import br.com.academiadev.thunderpets.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Pet ativo com localização e os campos que o índice geográfico consegue filtrar sem ir ao banco.
+ */
+@Getter
+@AllArgsConstructor
+public class PetLocalizado {
+
+    private UUID id;
+    private double latitude;
+    private double longitude;
+    private Especie especie;
+    private Porte porte;
+    private Sexo sexo;
+    private Status status;
+    private Idade idade;
+    private LocalDate dataAchado;
+
+    public PetLocalizado(UUID id, BigDecimal latitude, BigDecimal longitude, Especie especie, Porte porte, Sexo sexo,
+                         Status status, Idade idade, LocalDate dataAchado) {
+        this(id, latitude.doubleValue(), longitude.doubleValue(), especie, porte, sexo, status, idade, dataAchado);
+    }
+
+    /**
+     * Mesmas igualdades do PetRepositoryImpl.montarCondicoes; filtros nulos não restringem.
+     */
+    public boolean atende(FiltroPetDTO filtro) {
+        return atende(filtro.getDataAchado(), dataAchado)
+                && atende(filtro.getEspecie(), especie)
+                && atende(filtro.getPorte(), porte)
+                && atende(filtro.getSexo(), sexo)
+                && atende(filtro.getStatus(), status)
+                && atende(filtro.getIdade(), idade);
+    }
+
+    private static boolean atende(Object filtro, Object valor) {
+        return filtro == null || Objects.equals(filtro, valor);
+    }
+}
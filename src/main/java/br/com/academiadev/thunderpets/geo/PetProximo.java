@@ -0,0 +1,14 @@
+package br.com.academiadev.thunderpets.geo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class PetProximo {
+
+    private UUID petId;
+    private double distancia;
+}
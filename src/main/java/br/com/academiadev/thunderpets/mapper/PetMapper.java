@@ -1,5 +1,6 @@
 package br.com.academiadev.thunderpets.mapper;
 
+import br.com.academiadev.thunderpets.dto.LocalizacaoDTO;
 import br.com.academiadev.thunderpets.dto.PetDTO;
 import br.com.academiadev.thunderpets.dto.PetRespostaDTO;
 import br.com.academiadev.thunderpets.model.Localizacao;
@@ -14,11 +15,31 @@ import java.util.List;
 @Mapper(componentModel = "spring")
 public interface PetMapper {
 
-    @Mappings({
-            @Mapping(source = "pet.usuario.id", target = "usuarioId"),
-            @Mapping(source = "fotos", target = "fotos")
-    })
-    PetRespostaDTO toDTO(Pet pet, List<byte[]> fotos);
+    /**
+     * Escrito à mão porque o PetRespostaDTO é imutável e esta versão do MapStruct só preenche alvos por setters.
+     */
+    default PetRespostaDTO toDTO(Pet pet, List<byte[]> fotos) {
+        if (pet == null) {
+            return null;
+        }
+
+        return PetRespostaDTO.builder()
+                .id(pet.getId())
+                .nome(pet.getNome())
+                .descricao(pet.getDescricao())
+                .dataAchado(pet.getDataAchado())
+                .dataRegistro(pet.getDataRegistro())
+                .especie(pet.getEspecie())
+                .porte(pet.getPorte())
+                .sexo(pet.getSexo())
+                .status(pet.getStatus())
+                .idade(pet.getIdade())
+                .usuarioId(pet.getUsuario() != null ? pet.getUsuario().getId() : null)
+                .localizacao(LocalizacaoDTO.de(pet.getLocalizacao()))
+                .ativo(pet.isAtivo())
+                .fotos(fotos)
+                .build();
+    }
 
 
     @Mappings({
@@ -4,7 +4,9 @@ import br.com.academiadev.thunderpets.dto.UsuarioDTO;
 import br.com.academiadev.thunderpets.dto.UsuarioRespostaDTO;
 import br.com.academiadev.thunderpets.model.Contato;
 import br.com.academiadev.thunderpets.model.Usuario;
+import br.com.academiadev.thunderpets.model.UsuarioAutenticado;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 import java.util.Set;
 
@@ -13,5 +15,8 @@ public interface UsuarioMapper {
 
     UsuarioRespostaDTO toDTO(Usuario usuario, Set<Contato> contatos);
 
+    @Mapping(target = "fotoHash", source = "fotoHash")
+    UsuarioRespostaDTO toDTO(UsuarioAutenticado usuario, Set<Contato> contatos, String fotoHash);
+
     Usuario toEntity(UsuarioDTO usuarioDTO);
 }
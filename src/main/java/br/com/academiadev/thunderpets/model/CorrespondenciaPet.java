@@ -0,0 +1,38 @@
+package br.com.academiadev.thunderpets.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.validation.constraints.NotNull;
+import java.util.UUID;
+
+/**
+ * Candidato pré-calculado para um pet perdido ou achado. Cada par é gravado nos dois sentidos, para que as
+ * correspondências de qualquer um dos pets sejam lidas pelo índice de pet_id.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CorrespondenciaPet {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @NotNull
+    private UUID petId;
+
+    @NotNull
+    private UUID candidatoId;
+
+    private double pontuacao;
+
+    private Double distancia;
+}
@@ -0,0 +1,55 @@
+package br.com.academiadev.thunderpets.model;
+
+import br.com.academiadev.thunderpets.enums.StatusEmail;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EntityListeners(AuditingEntityListener.class)
+public class EmailPendente {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @NotNull
+    private String para;
+
+    @NotNull
+    private String assunto;
+
+    @NotNull
+    private String conteudo;
+
+    @NotNull
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    private StatusEmail status = StatusEmail.PENDENTE;
+
+    @Builder.Default
+    private int tentativas = 0;
+
+    @NotNull
+    @Column(name = "proxima_tentativa")
+    private LocalDateTime proximaTentativa;
+
+    @Column(name = "ultimo_erro")
+    private String ultimoErro;
+
+    @CreatedDate
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
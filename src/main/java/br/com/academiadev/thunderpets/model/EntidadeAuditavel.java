@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 import net.bytebuddy.implementation.bind.annotation.Super;
 import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import javax.persistence.Column;
@@ -24,4 +25,11 @@ public class EntidadeAuditavel{
     @Column(updatable = false)
     private LocalDateTime dataRegistro;
 
+    @LastModifiedDate
+    private LocalDateTime dataAtualizacao;
+
+    public EntidadeAuditavel(LocalDateTime dataRegistro) {
+        this.dataRegistro = dataRegistro;
+    }
+
 }
@@ -1,7 +1,7 @@
 package br.com.academiadev.thunderpets.model;
 
+import br.com.academiadev.thunderpets.enums.TamanhoFoto;
 import lombok.*;
-import org.hibernate.annotations.Type;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
@@ -16,11 +16,39 @@ public class Foto {
     @GeneratedValue
     private UUID id;
 
-    @Lob
     @NotNull
-    @Type(type = "org.hibernate.type.BinaryType")
-    private byte[] image;
+    private String hashImagem;
 
-    @ManyToOne(optional = false)
+    private String hashMiniatura;
+
+    private String hashCartao;
+
+    private String hashCompleta;
+
+    private String tipoConteudo;
+
+    private Long hashPerceptual;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     private Pet pet;
+
+    public String getHash(TamanhoFoto tamanho) {
+        String hash = null;
+
+        switch (tamanho) {
+            case MINIATURA:
+                hash = hashMiniatura;
+                break;
+            case CARTAO:
+                hash = hashCartao;
+                break;
+            case COMPLETA:
+                hash = hashCompleta;
+                break;
+            default:
+                break;
+        }
+
+        return hash != null ? hash : hashImagem;
+    }
 }
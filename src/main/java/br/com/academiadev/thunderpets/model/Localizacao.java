@@ -1,5 +1,6 @@
 package br.com.academiadev.thunderpets.model;
 
+import br.com.academiadev.thunderpets.geo.Geohash;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -8,6 +9,8 @@ import lombok.NoArgsConstructor;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.validation.constraints.NotNull;
 import java.math.BigDecimal;
 import java.util.UUID;
@@ -36,4 +39,25 @@ public class Localizacao {
     private String estado;
 
     private String descricao;
+
+    private String geohash;
+
+    /**
+     * Coordenadas que não eram números válidos ficaram nulas na conversão da V0010_2.
+     */
+    public boolean possuiCoordenadas() {
+        return latitude != null && longitude != null;
+    }
+
+    /**
+     * Calculado em toda escrita para que a entidade já tenha o geohash sem recarregar. O trigger da V0036 calcula o mesmo
+     * valor para as linhas gravadas por fora da entidade.
+     */
+    @PrePersist
+    @PreUpdate
+    private void calcularGeohash() {
+        geohash = !possuiCoordenadas()
+                ? null
+                : Geohash.codificar(latitude.doubleValue(), longitude.doubleValue(), Geohash.PRECISAO_MAXIMA);
+    }
 }
@@ -0,0 +1,26 @@
+package br.com.academiadev.thunderpets.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TokenRevogado {
+
+    @Id
+    private UUID jti;
+
+    @NotNull
+    private LocalDateTime expiracao;
+}
@@ -4,7 +4,6 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.Type;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -37,10 +36,11 @@ public class Usuario implements UserDetails {
     @Size(min = 8)
     private String senha;
 
-    @Type(type = "org.hibernate.type.BinaryType")
-    @Lob
+    @Transient
     private byte[] foto;
 
+    private String fotoHash;
+
     @Builder.Default
     private boolean ativo = true;
 
@@ -0,0 +1,77 @@
+package br.com.academiadev.thunderpets.model;
+
+import br.com.academiadev.thunderpets.dto.CredenciaisUsuarioDTO;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+
+/**
+ * Principal guardado no contexto de segurança. A senha só existe até a autenticação terminar, quando o
+ * Spring Security chama eraseCredentials; o restante do usuário deve ser carregado pelo id quando necessário.
+ */
+@Getter
+@ToString(exclude = "senha")
+@EqualsAndHashCode(of = "id")
+public class UsuarioAutenticado implements UserDetails, CredentialsContainer {
+
+    private final UUID id;
+    private final String email;
+    private final String nome;
+    private final boolean ativo;
+    private String senha;
+
+    public UsuarioAutenticado(CredenciaisUsuarioDTO credenciais) {
+        this.id = credenciais.getId();
+        this.email = credenciais.getEmail();
+        this.nome = credenciais.getNome();
+        this.ativo = credenciais.isAtivo();
+        this.senha = credenciais.getSenha();
+    }
+
+    @Override
+    public void eraseCredentials() {
+        senha = null;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public String getPassword() {
+        return senha;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
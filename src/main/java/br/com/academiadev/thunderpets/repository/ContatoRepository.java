@@ -3,6 +3,9 @@ package br.com.academiadev.thunderpets.repository;
 import br.com.academiadev.thunderpets.model.Contato;
 import br.com.academiadev.thunderpets.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Set;
@@ -12,4 +15,10 @@ import java.util.UUID;
 public interface ContatoRepository extends JpaRepository<Contato, UUID> {
 
     Set<Contato> findByUsuario(Usuario usuario);
+
+    Set<Contato> findByUsuarioId(UUID usuarioId);
+
+    @Modifying
+    @Query("delete from Contato c where c.usuario.id = :usuarioId")
+    int deleteByUsuarioId(@Param("usuarioId") UUID usuarioId);
 }
@@ -0,0 +1,22 @@
+package br.com.academiadev.thunderpets.repository;
+
+import br.com.academiadev.thunderpets.model.CorrespondenciaPet;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface CorrespondenciaPetRepository extends JpaRepository<CorrespondenciaPet, UUID> {
+
+    List<CorrespondenciaPet> findByPetIdOrderByPontuacaoDesc(UUID petId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from CorrespondenciaPet c where c.petId = :petId or c.candidatoId = :petId")
+    int deleteByPetIdOrCandidatoId(@Param("petId") UUID petId);
+}
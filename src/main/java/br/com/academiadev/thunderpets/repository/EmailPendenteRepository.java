@@ -0,0 +1,25 @@
+package br.com.academiadev.thunderpets.repository;
+
+import br.com.academiadev.thunderpets.model.EmailPendente;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EmailPendenteRepository extends JpaRepository<EmailPendente, UUID> {
+
+    /**
+     * Bloqueia o lote até o fim da transação; as linhas já bloqueadas por outra instância são puladas.
+     */
+    @Query(value = "SELECT * FROM email_pendente " +
+            "WHERE status = 'PENDENTE' AND proxima_tentativa <= :agora " +
+            "ORDER BY proxima_tentativa " +
+            "LIMIT :lote " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmailPendente> bloquearProntosParaEnvio(@Param("agora") LocalDateTime agora, @Param("lote") int lote);
+}
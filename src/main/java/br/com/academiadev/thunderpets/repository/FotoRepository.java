@@ -2,16 +2,62 @@ package br.com.academiadev.thunderpets.repository;
 
 import br.com.academiadev.thunderpets.model.Foto;
 import br.com.academiadev.thunderpets.model.Pet;
+import br.com.academiadev.thunderpets.similaridade.FotoIndexada;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 public interface FotoRepository extends JpaRepository<Foto, UUID> {
 
     List<Foto> findByPetId(UUID id);
 
-    List<Foto> findFirstByPetId(UUID id);
-
     Foto findOneByPet(Pet pet);
+
+    Optional<Foto> findOneByIdAndPetId(UUID id, UUID petId);
+
+    @Modifying
+    @Query("delete from Foto f where f.pet.id = :petId")
+    int deleteByPetId(@Param("petId") UUID petId);
+
+    @Modifying
+    @Query("update Foto f set f.hashPerceptual = :hashPerceptual where f.id = :id")
+    void atualizarHashPerceptual(@Param("id") UUID id, @Param("hashPerceptual") Long hashPerceptual);
+
+    @Query("select new br.com.academiadev.thunderpets.similaridade.FotoIndexada(f.id, f.pet.id, f.hashPerceptual) " +
+            "from Foto f where f.pet.ativo = true and f.hashPerceptual is not null")
+    List<FotoIndexada> buscarIndexadas();
+
+    @Query("select distinct f.pet.id from Foto f where f.pet.ativo = true and f.hashPerceptual is null")
+    List<UUID> buscarPetsComHashPerceptualPendente();
+
+    @Query("select f.pet.id, f from Foto f where f.pet.id in :petIds order by f.id")
+    List<Object[]> findComPetIdByPetIdIn(@Param("petIds") Collection<UUID> petIds);
+
+    @Query("select f.pet.id, f from Foto f " +
+            "where f.pet.id in :petIds " +
+            "and not exists (select 1 from Foto anterior where anterior.pet = f.pet and anterior.id < f.id)")
+    List<Object[]> findPrimeiraComPetIdByPetIdIn(@Param("petIds") Collection<UUID> petIds);
+
+    default Map<UUID, List<Foto>> buscarPorPets(Collection<UUID> petIds) {
+        return petIds.isEmpty() ? new HashMap<>() : agruparPorPet(findComPetIdByPetIdIn(petIds));
+    }
+
+    default Map<UUID, List<Foto>> buscarPrimeiraPorPets(Collection<UUID> petIds) {
+        return petIds.isEmpty() ? new HashMap<>() : agruparPorPet(findPrimeiraComPetIdByPetIdIn(petIds));
+    }
+
+    static Map<UUID, List<Foto>> agruparPorPet(List<Object[]> linhas) {
+        return linhas.stream().collect(Collectors.groupingBy(
+                linha -> (UUID) linha[0],
+                Collectors.mapping(linha -> (Foto) linha[1], Collectors.toList())));
+    }
 }
@@ -1,10 +1,10 @@
 package br.com.academiadev.thunderpets.repository;
 
-import br.com.academiadev.thunderpets.enums.*;
+import br.com.academiadev.thunderpets.enums.Especie;
+import br.com.academiadev.thunderpets.enums.Status;
+import br.com.academiadev.thunderpets.geo.PetLocalizado;
 import br.com.academiadev.thunderpets.model.Pet;
 import br.com.academiadev.thunderpets.model.Usuario;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,62 +12,45 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface PetRepository extends JpaRepository<Pet, UUID> {
+public interface PetRepository extends JpaRepository<Pet, UUID>, PetRepositoryCustom {
 
     List<Pet> findByUsuarioAndAtivoIsTrue(Usuario usuario);
 
-    @Query("select p from Pet p " +
-            "where (:nome is null or lower(p.nome) like %:nome%) " +
-            "and (:dataAchado is null or :dataAchado = p.dataAchado)  " +
-            "and (:especie is null or :especie = p.especie) " +
-            "and (:porte is null or :porte = p.porte) " +
-            "and (:sexo is null or :sexo = p.sexo) " +
-            "and (:status is null or :status = p.status) " +
-            "and (:idade is null or :idade = p.idade) " +
-            "and (:cidade is null or lower(p.localizacao.cidade) like %:cidade%) " +
-            "and (:estado is null or lower(p.localizacao.estado) like %:estado%) " +
-            "and (:raioDistancia is null or  " +
-            "    (6371 * " +
-            "      acos( " +
-            "        cos(radians(cast(:latitude as double))) * " +
-            "        cos(radians(cast(p.localizacao.latitude as double))) * " +
-            "        cos(radians(cast(:longitude as double)) - radians(cast(p.localizacao.longitude as double))) + " +
-            "        sin(radians(cast(:latitude as double))) * " +
-            "        sin(radians(cast(p.localizacao.latitude as double))) " +
-            "      ) " +
-            "    ) <= :raioDistancia " +
-            "  ) " +
-            "and (ativo is true)")
-    Page<Pet> buscar(@Param("nome") String nome,
-                     @Param("dataAchado") LocalDate dataAchado,
-                     @Param("especie") Especie especie,
-                     @Param("porte") Porte porte,
-                     @Param("sexo") Sexo sexo,
-                     @Param("status") Status status,
-                     @Param("idade") Idade idade,
-                     @Param("cidade") String cidade,
-                     @Param("estado") String estado,
-                     @Param("latitude") String latitude,
-                     @Param("longitude") String longitude,
-                     @Param("raioDistancia") Double raioDistancia,
-                     Pageable paginacao);
+    @Query("select p.dataAtualizacao from Pet p where p.id = :id")
+    List<LocalDateTime> findDataAtualizacaoById(@Param("id") UUID id);
 
-    @Query("SELECT (6371 * " +
-            "  acos( " +
-            "    cos(radians(:latitude)) * " +
-            "    cos(radians(cast(loc.latitude as double))) * " +
-            "    cos(radians(:longitude) - radians(cast(loc.longitude as double))) + " +
-            "    sin(radians(:latitude)) * " +
-            "    sin(radians(cast(loc.latitude as double))) " +
-            "  ) " +
-            ") AS distancia " +
-            "FROM Pet pet JOIN pet.localizacao loc " +
-            "WHERE pet.id = :petId")
-    BigDecimal findDistancia(@Param("latitude") BigDecimal latitudeCentro,
-                            @Param("longitude") BigDecimal longitudeCentro,
-                            @Param("petId") UUID petId);
+    List<Pet> findByAtivoIsTrueAndStatus(Status status);
+
+    @Query("select new br.com.academiadev.thunderpets.geo.PetLocalizado(" +
+            "p.id, l.latitude, l.longitude, p.especie, p.porte, p.sexo, p.status, p.idade, p.dataAchado) " +
+            "from Pet p join p.localizacao l " +
+            "where p.ativo = true and l.latitude is not null and l.longitude is not null")
+    List<PetLocalizado> buscarLocalizados();
+
+    @Query("select new br.com.academiadev.thunderpets.geo.PetLocalizado(" +
+            "p.id, l.latitude, l.longitude, p.especie, p.porte, p.sexo, p.status, p.idade, p.dataAchado) " +
+            "from Pet p join p.localizacao l " +
+            "where p.ativo = true and l.latitude is not null and l.longitude is not null and p.id = :id")
+    List<PetLocalizado> buscarLocalizado(@Param("id") UUID id);
+
+    @Query("select p from Pet p left join fetch p.localizacao l " +
+            "where p.ativo = true and p.especie = :especie and p.status = :status and p.id <> :id " +
+            "and (p.dataAchado is null or p.dataAchado between :dataInicial and :dataFinal) " +
+            "and (p.localizacao is null or l.latitude is null or l.longitude is null " +
+            "or (l.latitude between :latitudeMinima and :latitudeMaxima " +
+            "and l.longitude between :longitudeMinima and :longitudeMaxima))")
+    List<Pet> buscarCandidatosCorrespondencia(@Param("id") UUID id,
+                                              @Param("especie") Especie especie,
+                                              @Param("status") Status status,
+                                              @Param("dataInicial") LocalDate dataInicial,
+                                              @Param("dataFinal") LocalDate dataFinal,
+                                              @Param("latitudeMinima") BigDecimal latitudeMinima,
+                                              @Param("latitudeMaxima") BigDecimal latitudeMaxima,
+                                              @Param("longitudeMinima") BigDecimal longitudeMinima,
+                                              @Param("longitudeMaxima") BigDecimal longitudeMaxima);
 }
@@ -0,0 +1,22 @@
+package br.com.academiadev.thunderpets.repository;
+
+import br.com.academiadev.thunderpets.dto.CelulaPetDTO;
+import br.com.academiadev.thunderpets.dto.CursorPetDTO;
+import br.com.academiadev.thunderpets.dto.FiltroPetDTO;
+import br.com.academiadev.thunderpets.dto.PetComDistanciaDTO;
+import br.com.academiadev.thunderpets.geo.AreaDeBusca;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+public interface PetRepositoryCustom {
+
+    Page<PetComDistanciaDTO> buscar(FiltroPetDTO filtro, Pageable paginacao);
+
+    Slice<PetComDistanciaDTO> buscarPorCursor(FiltroPetDTO filtro, CursorPetDTO cursor, Sort.Direction direcao, int tamanho);
+
+    List<CelulaPetDTO> agrupar(FiltroPetDTO filtro, AreaDeBusca area, double tamanhoCelula);
+}
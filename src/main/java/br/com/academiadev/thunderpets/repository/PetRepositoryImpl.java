@@ -0,0 +1,304 @@
+package br.com.academiadev.thunderpets.repository;
+
+import br.com.academiadev.thunderpets.dto.CelulaPetDTO;
+import br.com.academiadev.thunderpets.dto.CursorPetDTO;
+import br.com.academiadev.thunderpets.dto.FiltroPetDTO;
+import br.com.academiadev.thunderpets.dto.PetComDistanciaDTO;
+import br.com.academiadev.thunderpets.enums.Status;
+import br.com.academiadev.thunderpets.exception.ErroAoProcessarException;
+import br.com.academiadev.thunderpets.geo.AreaDeBusca;
+import br.com.academiadev.thunderpets.geo.Geohash;
+import br.com.academiadev.thunderpets.model.Pet;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class PetRepositoryImpl implements PetRepositoryCustom {
+
+    private static final String CAMPO_DISTANCIA = "distancia";
+    private static final String CAMPO_RELEVANCIA = "relevancia";
+    private static final int MAXIMO_PREFIXOS_GEOHASH = 16;
+    // Só colunas do próprio pet; um caminho livre permitiria ordenar por colunas de outras entidades, como a senha.
+    private static final Set<String> CAMPOS_ORDENACAO = new HashSet<>(Arrays.asList("id", "nome", "descricao",
+            "dataAchado", "dataRegistro", "dataAtualizacao", "especie", "porte", "sexo", "status", "idade"));
+
+    private static final String EXPRESSAO_DISTANCIA = "(6371 * " +
+            "acos( " +
+            "  cos(radians(:latitude)) * " +
+            "  cos(radians(l.latitude)) * " +
+            "  cos(radians(:longitude) - radians(l.longitude)) + " +
+            "  sin(radians(:latitude)) * " +
+            "  sin(radians(l.latitude)) " +
+            "))";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<PetComDistanciaDTO> buscar(FiltroPetDTO filtro, Pageable paginacao) {
+        Map<String, Object> parametros = new HashMap<>();
+        String condicoes = montarCondicoes(filtro, parametros);
+        String ordenacao = montarOrdenacao(paginacao.getSort(), filtro);
+
+        List<PetComDistanciaDTO> pets = paginacao.isPaged()
+                ? consultar(filtro, condicoes + ordenacao, parametros, (int) paginacao.getOffset(), paginacao.getPageSize())
+                : consultar(filtro, condicoes + ordenacao, parametros, 0, null);
+
+        return PageableExecutionUtils.getPage(pets, paginacao, () -> contar(condicoes, parametros));
+    }
+
+    @Override
+    public Slice<PetComDistanciaDTO> buscarPorCursor(FiltroPetDTO filtro,
+                                                     CursorPetDTO cursor,
+                                                     Sort.Direction direcao,
+                                                     int tamanho) {
+        Map<String, Object> parametros = new HashMap<>();
+        StringBuilder jpql = new StringBuilder(montarCondicoes(filtro, parametros));
+
+        if (cursor != null) {
+            String comparacao = direcao.isAscending() ? ">" : "<";
+
+            // O primeiro termo, sem o or, é o que o PostgreSQL usa como limite da faixa no índice de data_registro e id;
+            // sem ele as páginas profundas percorrem o índice desde o começo.
+            jpql.append("and p.dataRegistro ").append(comparacao).append("= :cursorDataRegistro ")
+                    .append("and (p.dataRegistro ").append(comparacao).append(" :cursorDataRegistro ")
+                    .append("or (p.dataRegistro = :cursorDataRegistro and p.id ").append(comparacao).append(" :cursorId)) ");
+            parametros.put("cursorDataRegistro", cursor.getDataRegistro());
+            parametros.put("cursorId", cursor.getId());
+        }
+
+        String sentido = direcao.isAscending() ? "asc" : "desc";
+        jpql.append("order by p.dataRegistro ").append(sentido).append(", p.id ").append(sentido);
+
+        // Uma linha a mais indica se existe próxima página sem precisar do count.
+        List<PetComDistanciaDTO> pets = consultar(filtro, jpql.toString(), parametros, 0, tamanho + 1);
+        boolean possuiProxima = pets.size() > tamanho;
+
+        return new SliceImpl<>(possuiProxima ? pets.subList(0, tamanho) : pets,
+                PageRequest.of(0, tamanho, direcao, "dataRegistro", "id"),
+                possuiProxima);
+    }
+
+    /**
+     * Agrupa os pets da área numa grade de células com o lado em graus. O tamanho da célula entra como literal, e não
+     * como parâmetro, para que o PostgreSQL reconheça as expressões do select e do group by como a mesma.
+     */
+    @Override
+    public List<CelulaPetDTO> agrupar(FiltroPetDTO filtro, AreaDeBusca area, double tamanhoCelula) {
+        Map<String, Object> parametros = new HashMap<>();
+        String lado = BigDecimal.valueOf(tamanhoCelula).toPlainString();
+        String celulaLatitude = "function('floor', l.latitude / " + lado + ")";
+        String celulaLongitude = "function('floor', l.longitude / " + lado + ")";
+
+        TypedQuery<Object[]> query = entityManager.createQuery(
+                "select " + celulaLatitude + ", " + celulaLongitude + ", p.status, count(p), sum(l.latitude), sum(l.longitude) " +
+                        "from Pet p join p.localizacao l " + montarCondicoes(filtro, parametros) +
+                        "and l.latitude between :latitudeMinimaArea and :latitudeMaximaArea " +
+                        "and l.longitude between :longitudeMinimaArea and :longitudeMaximaArea " +
+                        "group by " + celulaLatitude + ", " + celulaLongitude + ", p.status",
+                Object[].class);
+        parametros.forEach(query::setParameter);
+        query.setParameter("latitudeMinimaArea", area.getLatitudeMinima());
+        query.setParameter("latitudeMaximaArea", area.getLatitudeMaxima());
+        query.setParameter("longitudeMinimaArea", area.getLongitudeMinima());
+        query.setParameter("longitudeMaximaArea", area.getLongitudeMaxima());
+
+        Map<List<Number>, double[]> somasPorCelula = new LinkedHashMap<>();
+        Map<List<Number>, CelulaPetDTO> celulas = new LinkedHashMap<>();
+        for (Object[] linha : query.getResultList()) {
+            List<Number> chave = Arrays.asList((Number) linha[0], (Number) linha[1]);
+            long quantidade = ((Number) linha[3]).longValue();
+
+            CelulaPetDTO celula = celulas.computeIfAbsent(chave, c -> new CelulaPetDTO());
+            celula.setQuantidade(celula.getQuantidade() + quantidade);
+            celula.getQuantidadePorStatus().put((Status) linha[2], quantidade);
+
+            double[] somas = somasPorCelula.computeIfAbsent(chave, c -> new double[2]);
+            somas[0] += ((Number) linha[4]).doubleValue();
+            somas[1] += ((Number) linha[5]).doubleValue();
+        }
+
+        celulas.forEach((chave, celula) -> {
+            double[] somas = somasPorCelula.get(chave);
+            celula.setLatitude(somas[0] / celula.getQuantidade());
+            celula.setLongitude(somas[1] / celula.getQuantidade());
+        });
+
+        return new ArrayList<>(celulas.values());
+    }
+
+    private List<PetComDistanciaDTO> consultar(FiltroPetDTO filtro,
+                                               String condicoesEOrdenacao,
+                                               Map<String, Object> parametros,
+                                               int primeiro,
+                                               Integer maximo) {
+        if (!filtro.possuiCoordenadas()) {
+            TypedQuery<Pet> query = entityManager.createQuery(
+                    "select p from Pet p left join fetch p.localizacao l " + condicoesEOrdenacao, Pet.class);
+
+            return limitar(query, parametros, primeiro, maximo).getResultList().stream()
+                    .map(pet -> new PetComDistanciaDTO(pet, null))
+                    .collect(Collectors.toList());
+        }
+
+        TypedQuery<Object[]> query = entityManager.createQuery(
+                "select p, " + EXPRESSAO_DISTANCIA + " as distancia " +
+                        "from Pet p left join fetch p.localizacao l " + condicoesEOrdenacao,
+                Object[].class);
+        query.setParameter("latitude", filtro.getLatitude());
+        query.setParameter("longitude", filtro.getLongitude());
+
+        return limitar(query, parametros, primeiro, maximo).getResultList().stream()
+                .map(linha -> new PetComDistanciaDTO((Pet) linha[0], distancia((Number) linha[1])))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Pets sem localização, ou com coordenadas inválidas, não têm distância.
+     */
+    private Double distancia(Number distancia) {
+        return distancia != null ? distancia.doubleValue() : null;
+    }
+
+    private long contar(String condicoes, Map<String, Object> parametros) {
+        TypedQuery<Long> query = entityManager.createQuery(
+                "select count(p) from Pet p left join p.localizacao l " + condicoes, Long.class);
+        parametros.forEach(query::setParameter);
+
+        return query.getSingleResult();
+    }
+
+    private <T> TypedQuery<T> limitar(TypedQuery<T> query, Map<String, Object> parametros, int primeiro, Integer maximo) {
+        parametros.forEach(query::setParameter);
+        query.setFirstResult(primeiro);
+
+        if (maximo != null) {
+            query.setMaxResults(maximo);
+        }
+
+        return query;
+    }
+
+    private String montarCondicoes(FiltroPetDTO filtro, Map<String, Object> parametros) {
+        StringBuilder jpql = new StringBuilder("where p.ativo = true ");
+
+        // Os filtros de texto usam as funções da migração V0029, indexadas por trigrama e por tsvector.
+        if (filtro.getNome() != null) {
+            jpql.append("and function('sem_acento', lower(p.nome)) like function('sem_acento', :nome) ");
+            parametros.put("nome", "%" + filtro.getNome() + "%");
+        }
+
+        if (filtro.possuiTexto()) {
+            jpql.append("and function('pet_corresponde_texto', p.nome, p.descricao, :texto) = true ");
+            parametros.put("texto", filtro.getTexto());
+        }
+
+        adicionarIgualdade(jpql, parametros, "dataAchado", filtro.getDataAchado());
+        adicionarIgualdade(jpql, parametros, "especie", filtro.getEspecie());
+        adicionarIgualdade(jpql, parametros, "porte", filtro.getPorte());
+        adicionarIgualdade(jpql, parametros, "sexo", filtro.getSexo());
+        adicionarIgualdade(jpql, parametros, "status", filtro.getStatus());
+        adicionarIgualdade(jpql, parametros, "idade", filtro.getIdade());
+
+        if (filtro.getCidade() != null) {
+            jpql.append("and lower(l.cidade) like :cidade ");
+            parametros.put("cidade", "%" + filtro.getCidade() + "%");
+        }
+
+        if (filtro.getEstado() != null) {
+            jpql.append("and lower(l.estado) like :estado ");
+            parametros.put("estado", "%" + filtro.getEstado() + "%");
+        }
+
+        if (filtro.possuiRaioDistancia()) {
+            AreaDeBusca area = AreaDeBusca.aoRedorDe(
+                    filtro.getLatitude(), filtro.getLongitude(), filtro.getRaioDistancia());
+
+            jpql.append("and l.latitude between :latitudeMinima and :latitudeMaxima ")
+                    .append("and l.longitude between :longitudeMinima and :longitudeMaxima ")
+                    .append("and ").append(EXPRESSAO_DISTANCIA.replace(":latitude", ":latitudeCentro")
+                            .replace(":longitude", ":longitudeCentro"))
+                    .append(" <= :raioDistancia ");
+
+            // Os prefixos de geohash usam o índice da V0036; a distância exata continua decidindo o resultado.
+            List<String> prefixos = Geohash.prefixosCobrindo(area, MAXIMO_PREFIXOS_GEOHASH);
+            if (!prefixos.isEmpty()) {
+                jpql.append("and (");
+                for (int i = 0; i < prefixos.size(); i++) {
+                    jpql.append(i > 0 ? " or " : "").append("l.geohash like :geohash").append(i);
+                    parametros.put("geohash" + i, prefixos.get(i) + "%");
+                }
+                jpql.append(") ");
+            }
+
+            parametros.put("latitudeMinima", area.getLatitudeMinima());
+            parametros.put("latitudeMaxima", area.getLatitudeMaxima());
+            parametros.put("longitudeMinima", area.getLongitudeMinima());
+            parametros.put("longitudeMaxima", area.getLongitudeMaxima());
+            parametros.put("latitudeCentro", filtro.getLatitude());
+            parametros.put("longitudeCentro", filtro.getLongitude());
+            parametros.put("raioDistancia", filtro.getRaioDistancia());
+        }
+
+        return jpql.toString();
+    }
+
+    private void adicionarIgualdade(StringBuilder jpql, Map<String, Object> parametros, String campo, Object valor) {
+        if (valor != null) {
+            jpql.append("and p.").append(campo).append(" = :").append(campo).append(" ");
+            parametros.put(campo, valor);
+        }
+    }
+
+    private String montarOrdenacao(Sort sort, FiltroPetDTO filtro) {
+        if (sort.isUnsorted()) {
+            return "order by p.id";
+        }
+
+        StringBuilder jpql = new StringBuilder("order by ");
+        for (Sort.Order ordem : sort) {
+            String campo = ordem.getProperty();
+
+            if (CAMPO_DISTANCIA.equals(campo)) {
+                if (!filtro.possuiCoordenadas()) {
+                    throw new ErroAoProcessarException(
+                            "A ordenação por distância exige latitudeUsuario e longitudeUsuario");
+                }
+
+                jpql.append(CAMPO_DISTANCIA);
+            } else if (CAMPO_RELEVANCIA.equals(campo)) {
+                if (!filtro.possuiTexto()) {
+                    throw new ErroAoProcessarException("A ordenação por relevância exige o parâmetro texto");
+                }
+
+                jpql.append("function('relevancia_pet', p.nome, p.descricao, :texto)");
+            } else if (CAMPOS_ORDENACAO.contains(campo)) {
+                jpql.append("p.").append(campo);
+            } else {
+                throw new ErroAoProcessarException(String.format("Campo de ordenação %s inválido", campo));
+            }
+
+            jpql.append(ordem.isAscending() ? " asc, " : " desc, ");
+        }
+
+        return jpql.append("p.id").toString();
+    }
+}
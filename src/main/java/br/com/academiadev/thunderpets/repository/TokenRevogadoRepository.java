@@ -0,0 +1,22 @@
+package br.com.academiadev.thunderpets.repository;
+
+import br.com.academiadev.thunderpets.model.TokenRevogado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TokenRevogadoRepository extends JpaRepository<TokenRevogado, UUID> {
+
+    List<TokenRevogado> findByExpiracaoAfter(LocalDateTime data);
+
+    @Modifying
+    @Query("delete from TokenRevogado t where t.expiracao < :data")
+    int excluirExpiradosAntesDe(@Param("data") LocalDateTime data);
+}
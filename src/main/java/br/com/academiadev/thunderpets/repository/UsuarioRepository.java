@@ -1,13 +1,33 @@
 package br.com.academiadev.thunderpets.repository;
 
+import br.com.academiadev.thunderpets.dto.CredenciaisUsuarioDTO;
 import br.com.academiadev.thunderpets.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface UsuarioRepository extends JpaRepository<Usuario, UUID> {
 
     Usuario findOneByEmail(String email);
+
+    @Query("select new br.com.academiadev.thunderpets.dto.CredenciaisUsuarioDTO(u.id, u.email, u.nome, u.senha, u.ativo) " +
+            "from Usuario u where u.email = :email")
+    Optional<CredenciaisUsuarioDTO> buscarCredenciaisPorEmail(@Param("email") String email);
+
+    @Query("select u.fotoHash from Usuario u where u.id = :id")
+    Optional<String> buscarFotoHash(@Param("id") UUID id);
+
+    @Modifying
+    @Query("update Usuario u set u.senha = :senha where u.id = :id")
+    void atualizarSenha(@Param("id") UUID id, @Param("senha") String senha);
+
+    @Modifying
+    @Query("update Usuario u set u.fotoHash = :fotoHash where u.id = :id and u.fotoHash is null")
+    int atualizarFotoSeAusente(@Param("id") UUID id, @Param("fotoHash") String fotoHash);
 }
@@ -0,0 +1,12 @@
+package br.com.academiadev.thunderpets.service;
+
+import br.com.academiadev.thunderpets.enums.EntidadeInvalidada;
+
+import java.util.UUID;
+
+public interface BarramentoInvalidacaoService {
+
+    void notificar(EntidadeInvalidada entidade, UUID id);
+
+    void receber(String mensagem);
+}
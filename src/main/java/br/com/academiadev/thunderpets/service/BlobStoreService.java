@@ -0,0 +1,20 @@
+package br.com.academiadev.thunderpets.service;
+
+import org.springframework.core.io.Resource;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public interface BlobStoreService {
+
+    String salvar(byte[] conteudo);
+
+    Optional<Resource> abrir(String hash);
+
+    Optional<byte[]> buscar(String hash);
+
+    void percorrerAnterioresA(Instant limite, Consumer<String> consumidor);
+
+    boolean removerSeAnteriorA(String hash, Instant limite);
+}
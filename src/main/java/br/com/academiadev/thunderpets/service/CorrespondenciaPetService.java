@@ -0,0 +1,14 @@
+package br.com.academiadev.thunderpets.service;
+
+import br.com.academiadev.thunderpets.model.CorrespondenciaPet;
+import br.com.academiadev.thunderpets.model.Pet;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface CorrespondenciaPetService {
+
+    void atualizar(Pet pet);
+
+    List<CorrespondenciaPet> buscar(UUID petId);
+}
@@ -0,0 +1,11 @@
+package br.com.academiadev.thunderpets.service;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface FotoPerfilService {
+
+    Optional<byte[]> baixar(String url);
+
+    void salvarFotoPerfil(UUID usuarioId, String url);
+}
@@ -0,0 +1,25 @@
+package br.com.academiadev.thunderpets.service;
+
+import br.com.academiadev.thunderpets.dto.ConteudoFotoDTO;
+import br.com.academiadev.thunderpets.enums.TamanhoFoto;
+import br.com.academiadev.thunderpets.exception.FotoNaoEncontradaException;
+import br.com.academiadev.thunderpets.model.Foto;
+import br.com.academiadev.thunderpets.model.Pet;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface FotoService {
+
+    Foto criar(Pet pet, byte[] image);
+
+    ConteudoFotoDTO buscarConteudo(UUID petId, UUID fotoId, TamanhoFoto tamanho) throws FotoNaoEncontradaException;
+
+    Map<UUID, List<byte[]>> buscarConteudoPorPets(Collection<UUID> petIds, TamanhoFoto tamanho);
+
+    Map<UUID, List<byte[]>> buscarPrimeiroConteudoPorPets(Collection<UUID> petIds, TamanhoFoto tamanho);
+
+    Map<UUID, List<String>> buscarUrlsPorPets(Collection<UUID> petIds, TamanhoFoto tamanho);
+}
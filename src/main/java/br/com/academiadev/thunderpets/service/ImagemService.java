@@ -0,0 +1,18 @@
+package br.com.academiadev.thunderpets.service;
+
+import br.com.academiadev.thunderpets.enums.TamanhoFoto;
+import org.springframework.http.MediaType;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface ImagemService {
+
+    byte[] redimensionar(byte[] original, TamanhoFoto tamanho);
+
+    Map<TamanhoFoto, byte[]> redimensionar(byte[] original, Collection<TamanhoFoto> tamanhos);
+
+    MediaType tipoDeConteudo(byte[] conteudo);
+
+    Long hashPerceptual(byte[] conteudo);
+}
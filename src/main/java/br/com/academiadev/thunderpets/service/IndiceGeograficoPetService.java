@@ -0,0 +1,20 @@
+package br.com.academiadev.thunderpets.service;
+
+import br.com.academiadev.thunderpets.dto.FiltroPetDTO;
+import br.com.academiadev.thunderpets.geo.PetProximo;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface IndiceGeograficoPetService {
+
+    boolean atende(FiltroPetDTO filtro);
+
+    List<PetProximo> buscarNoRaio(FiltroPetDTO filtro);
+
+    List<PetProximo> buscarMaisProximos(FiltroPetDTO filtro, int quantidade);
+
+    void indexar(UUID petId);
+
+    void carregar();
+}
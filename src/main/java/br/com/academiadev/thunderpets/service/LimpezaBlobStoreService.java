@@ -0,0 +1,6 @@
+package br.com.academiadev.thunderpets.service;
+
+public interface LimpezaBlobStoreService {
+
+    int limpar();
+}
@@ -1,8 +1,13 @@
 package br.com.academiadev.thunderpets.service;
 
+import br.com.academiadev.thunderpets.dto.CelulaPetDTO;
+import br.com.academiadev.thunderpets.dto.CorrespondenciaPetDTO;
+import br.com.academiadev.thunderpets.dto.PaginaCursorDTO;
 import br.com.academiadev.thunderpets.dto.PetDTO;
 import br.com.academiadev.thunderpets.dto.PetRespostaDTO;
+import br.com.academiadev.thunderpets.dto.PetSimilarDTO;
 import br.com.academiadev.thunderpets.enums.*;
+import br.com.academiadev.thunderpets.exception.FotoNaoEncontradaException;
 import br.com.academiadev.thunderpets.exception.PetNaoEncontradoException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
@@ -10,11 +15,14 @@ import org.springframework.data.domain.Sort;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface PetService {
 
     Page<PetRespostaDTO> buscar(String nome,
+                                String texto,
                                 LocalDate dataAchado,
                                 Especie especie,
                                 Porte porte,
@@ -27,12 +35,66 @@ public interface PetService {
                                 String latitude,
                                 String longitude,
                                 Double raioDistancia,
+                                FormatoFoto formatoFotos,
+                                TamanhoFoto tamanhoFotos,
                                 Integer paginaAtual,
                                 Integer tamanho,
                                 Sort.Direction direcao,
                                 String campoOrdenacao);
 
-    PetRespostaDTO buscarPorId(UUID id) throws PetNaoEncontradoException;
+    PaginaCursorDTO<PetRespostaDTO> buscarPorCursor(String nome,
+                                                    String texto,
+                                                    LocalDate dataAchado,
+                                                    Especie especie,
+                                                    Porte porte,
+                                                    Sexo sexo,
+                                                    Status status,
+                                                    Idade idade,
+                                                    TipoPesquisaLocalidade tipoPesquisaLocalidade,
+                                                    String cidade,
+                                                    String estado,
+                                                    String latitude,
+                                                    String longitude,
+                                                    Double raioDistancia,
+                                                    FormatoFoto formatoFotos,
+                                                    TamanhoFoto tamanhoFotos,
+                                                    String cursor,
+                                                    Integer tamanho,
+                                                    Sort.Direction direcao);
+
+    List<CelulaPetDTO> agrupar(String area,
+                               int zoom,
+                               String nome,
+                               String texto,
+                               LocalDate dataAchado,
+                               Especie especie,
+                               Porte porte,
+                               Sexo sexo,
+                               Status status,
+                               Idade idade);
+
+    List<PetRespostaDTO> buscarProximos(String latitude,
+                                        String longitude,
+                                        int quantidade,
+                                        String nome,
+                                        String texto,
+                                        LocalDate dataAchado,
+                                        Especie especie,
+                                        Porte porte,
+                                        Sexo sexo,
+                                        Status status,
+                                        Idade idade,
+                                        Double raioDistancia,
+                                        FormatoFoto formatoFotos,
+                                        TamanhoFoto tamanhoFotos);
+
+    Optional<LocalDateTime> buscarDataAtualizacao(UUID id) throws PetNaoEncontradoException;
+
+    PetRespostaDTO buscarPorId(UUID id, FormatoFoto formatoFotos, TamanhoFoto tamanhoFotos) throws PetNaoEncontradoException;
+
+    List<CorrespondenciaPetDTO> buscarCorrespondencias(UUID id, FormatoFoto formatoFotos, TamanhoFoto tamanhoFotos) throws PetNaoEncontradoException;
+
+    List<PetSimilarDTO> buscarSimilares(UUID id, UUID fotoId, FormatoFoto formatoFotos, TamanhoFoto tamanhoFotos) throws FotoNaoEncontradaException;
 
     PetRespostaDTO salvar(PetDTO petDTO);
 
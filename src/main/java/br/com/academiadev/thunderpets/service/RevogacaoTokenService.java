@@ -0,0 +1,13 @@
+package br.com.academiadev.thunderpets.service;
+
+import java.util.Date;
+import java.util.UUID;
+
+public interface RevogacaoTokenService {
+
+    void revogar(UUID jti, Date expiracao);
+
+    boolean isRevogado(UUID jti);
+
+    void carregar();
+}
@@ -0,0 +1,13 @@
+package br.com.academiadev.thunderpets.service;
+
+import br.com.academiadev.thunderpets.similaridade.FotoSimilar;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface SimilaridadeFotoService {
+
+    void indexar(UUID petId);
+
+    List<FotoSimilar> buscar(long hash, int distanciaMaxima);
+}
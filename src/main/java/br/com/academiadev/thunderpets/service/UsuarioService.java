@@ -1,5 +1,6 @@
 package br.com.academiadev.thunderpets.service;
 
+import br.com.academiadev.thunderpets.dto.ConteudoFotoDTO;
 import br.com.academiadev.thunderpets.dto.PetRespostaDTO;
 import br.com.academiadev.thunderpets.dto.UsuarioDTO;
 import br.com.academiadev.thunderpets.dto.UsuarioRespostaDTO;
@@ -22,7 +23,7 @@ public interface UsuarioService {
 
     void deletar(UUID id);
 
-    byte[] getFoto(UUID id);
+    ConteudoFotoDTO getFoto(UUID id);
 
     Optional<UsuarioRespostaDTO> salvarFoto(UUID usuarioId, byte[] foto);
 
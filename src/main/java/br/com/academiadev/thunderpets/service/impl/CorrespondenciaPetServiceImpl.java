@@ -0,0 +1,187 @@
+package br.com.academiadev.thunderpets.service.impl;
+
+import br.com.academiadev.thunderpets.correspondencia.CalculadoraCorrespondencia;
+import br.com.academiadev.thunderpets.enums.Status;
+import br.com.academiadev.thunderpets.geo.AreaDeBusca;
+import br.com.academiadev.thunderpets.model.CorrespondenciaPet;
+import br.com.academiadev.thunderpets.model.Localizacao;
+import br.com.academiadev.thunderpets.model.Pet;
+import br.com.academiadev.thunderpets.repository.CorrespondenciaPetRepository;
+import br.com.academiadev.thunderpets.repository.PetRepository;
+import br.com.academiadev.thunderpets.service.CorrespondenciaPetService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Mantém as correspondências entre pets PROCURANDO_PET e PROCURANDO_DONO. Cada vez que um pet é salvo, apenas os
+ * candidatos da mesma espécie, dentro do raio e da janela de datas, são pontuados, e as linhas do pet são trocadas.
+ * Todo par acima da pontuação mínima é gravado nos dois sentidos; o limite de candidatos só vale na leitura, para que
+ * o par continue valendo para o outro pet mesmo que não esteja entre os melhores deste.
+ */
+@Service
+public class CorrespondenciaPetServiceImpl implements CorrespondenciaPetService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CorrespondenciaPetServiceImpl.class);
+    private static final AreaDeBusca TODAS_AS_COORDENADAS = new AreaDeBusca(BigDecimal.valueOf(-90), BigDecimal.valueOf(90),
+            BigDecimal.valueOf(-180), BigDecimal.valueOf(180));
+
+    private static final String INSERIR_CORRESPONDENCIA = "INSERT INTO correspondencia_pet "
+            + "(id, pet_id, candidato_id, pontuacao, distancia) VALUES (?, ?, ?, ?, ?) "
+            + "ON CONFLICT (pet_id, candidato_id) DO UPDATE SET pontuacao = EXCLUDED.pontuacao, distancia = EXCLUDED.distancia";
+
+    private CorrespondenciaPetRepository correspondenciaPetRepository;
+    private PetRepository petRepository;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private CalculadoraCorrespondencia calculadora;
+    private double pontuacaoMinima;
+    private int maximoCandidatos;
+    private boolean calcularAoIniciar;
+
+    @Autowired
+    public CorrespondenciaPetServiceImpl(CorrespondenciaPetRepository correspondenciaPetRepository,
+                                         PetRepository petRepository,
+                                         JdbcTemplate jdbcTemplate,
+                                         TransactionTemplate transactionTemplate,
+                                         @Value("${correspondencia.raio-maximo-km}") double raioMaximoKm,
+                                         @Value("${correspondencia.janela-dias}") long janelaDias,
+                                         @Value("${correspondencia.pontuacao-minima}") double pontuacaoMinima,
+                                         @Value("${correspondencia.maximo-candidatos}") int maximoCandidatos,
+                                         @Value("${correspondencia.calcular-ao-iniciar}") boolean calcularAoIniciar) {
+        this.correspondenciaPetRepository = correspondenciaPetRepository;
+        this.petRepository = petRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.calculadora = new CalculadoraCorrespondencia(raioMaximoKm, janelaDias);
+        this.pontuacaoMinima = pontuacaoMinima;
+        this.maximoCandidatos = maximoCandidatos;
+        this.calcularAoIniciar = calcularAoIniciar;
+    }
+
+    /**
+     * Calcula as correspondências dos pets cadastrados antes do motor existir. Como os pares são gravados nos dois
+     * sentidos, basta percorrer os pets perdidos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void calcularAoIniciar() {
+        if (!calcularAoIniciar) {
+            return;
+        }
+
+        List<UUID> ids = petRepository.findByAtivoIsTrueAndStatus(Status.PROCURANDO_PET).stream()
+                .map(Pet::getId)
+                .collect(Collectors.toList());
+        ids.forEach(id -> transactionTemplate.execute(status -> {
+            petRepository.findById(id).ifPresent(this::atualizar);
+            return null;
+        }));
+
+        LOGGER.info("Correspondências calculadas para {} pets perdidos", ids.size());
+    }
+
+    @Override
+    public void atualizar(Pet pet) {
+        correspondenciaPetRepository.deleteByPetIdOrCandidatoId(pet.getId());
+
+        Status statusCandidatos = statusCorrespondente(pet.getStatus());
+        if (!pet.isAtivo() || statusCandidatos == null) {
+            return;
+        }
+
+        LocalDate referencia = pet.getDataAchado() != null ? pet.getDataAchado() : LocalDate.now();
+        Localizacao localizacao = pet.getLocalizacao();
+        AreaDeBusca area = localizacao == null || !localizacao.possuiCoordenadas()
+                ? TODAS_AS_COORDENADAS
+                : AreaDeBusca.aoRedorDe(localizacao.getLatitude().doubleValue(), localizacao.getLongitude().doubleValue(),
+                calculadora.getRaioMaximoKm());
+
+        List<Pet> candidatos = petRepository.buscarCandidatosCorrespondencia(pet.getId(),
+                pet.getEspecie(),
+                statusCandidatos,
+                referencia.minusDays(calculadora.getJanelaDias()),
+                referencia.plusDays(calculadora.getJanelaDias()),
+                area.getLatitudeMinima(),
+                area.getLatitudeMaxima(),
+                area.getLongitudeMinima(),
+                area.getLongitudeMaxima());
+
+        List<CorrespondenciaPet> correspondencias = new ArrayList<>();
+        candidatos.forEach(candidato -> {
+            Double distancia = calculadora.distancia(pet, candidato);
+            double pontuacao = calculadora.pontuar(pet, candidato, distancia);
+            if (pontuacao >= pontuacaoMinima) {
+                correspondencias.add(CorrespondenciaPet.builder()
+                        .petId(pet.getId())
+                        .candidatoId(candidato.getId())
+                        .distancia(distancia)
+                        .pontuacao(pontuacao)
+                        .build());
+                correspondencias.add(CorrespondenciaPet.builder()
+                        .petId(candidato.getId())
+                        .candidatoId(pet.getId())
+                        .distancia(distancia)
+                        .pontuacao(pontuacao)
+                        .build());
+            }
+        });
+
+        inserir(correspondencias);
+    }
+
+    @Override
+    public List<CorrespondenciaPet> buscar(UUID petId) {
+        return correspondenciaPetRepository.findByPetIdOrderByPontuacaoDesc(petId, PageRequest.of(0, maximoCandidatos));
+    }
+
+    /**
+     * Dois pets correspondentes salvos ao mesmo tempo gravam o mesmo par; o ON CONFLICT evita a violação de
+     * correspondencia_pet_unica e fica com o cálculo de quem terminar por último. Inserir sempre na mesma ordem evita
+     * deadlock entre as duas transações.
+     */
+    private void inserir(List<CorrespondenciaPet> correspondencias) {
+        if (correspondencias.isEmpty()) {
+            return;
+        }
+
+        correspondencias.sort(Comparator.comparing(CorrespondenciaPet::getPetId)
+                .thenComparing(CorrespondenciaPet::getCandidatoId));
+
+        jdbcTemplate.batchUpdate(INSERIR_CORRESPONDENCIA, correspondencias, correspondencias.size(),
+                (comando, correspondencia) -> {
+                    comando.setObject(1, UUID.randomUUID());
+                    comando.setObject(2, correspondencia.getPetId());
+                    comando.setObject(3, correspondencia.getCandidatoId());
+                    comando.setDouble(4, correspondencia.getPontuacao());
+                    comando.setObject(5, correspondencia.getDistancia(), Types.DOUBLE);
+                });
+    }
+
+    private static Status statusCorrespondente(Status status) {
+        if (Status.PROCURANDO_PET.equals(status)) {
+            return Status.PROCURANDO_DONO;
+        }
+
+        if (Status.PROCURANDO_DONO.equals(status)) {
+            return Status.PROCURANDO_PET;
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,149 @@
+package br.com.academiadev.thunderpets.service.impl;
+
+import br.com.academiadev.thunderpets.enums.StatusEmail;
+import br.com.academiadev.thunderpets.model.EmailPendente;
+import br.com.academiadev.thunderpets.repository.EmailPendenteRepository;
+import br.com.academiadev.thunderpets.service.DespachanteEmailService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drena a fila email_pendente em lotes. Cada lote é enviado numa única conexão SMTP; as mensagens que falharem
+ * voltam para a fila com espera exponencial e, depois do máximo de tentativas, ficam DESCARTADO para análise.
+ */
+@Service
+public class DespachanteEmailServiceImpl implements DespachanteEmailService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DespachanteEmailServiceImpl.class);
+
+    private EmailPendenteRepository emailPendenteRepository;
+    private JavaMailSender javaMailSender;
+    private boolean habilitado;
+    private int tamanhoLote;
+    private int maximoTentativas;
+    private long esperaInicialSegundos;
+    private long esperaMaximaSegundos;
+
+    @Autowired
+    public DespachanteEmailServiceImpl(EmailPendenteRepository emailPendenteRepository,
+                                       JavaMailSender javaMailSender,
+                                       @Value("${email.despacho.habilitado}") boolean habilitado,
+                                       @Value("${email.despacho.tamanho-lote}") int tamanhoLote,
+                                       @Value("${email.despacho.maximo-tentativas}") int maximoTentativas,
+                                       @Value("${email.despacho.espera-inicial-segundos}") long esperaInicialSegundos,
+                                       @Value("${email.despacho.espera-maxima-segundos}") long esperaMaximaSegundos) {
+        this.emailPendenteRepository = emailPendenteRepository;
+        this.javaMailSender = javaMailSender;
+        this.habilitado = habilitado;
+        this.tamanhoLote = tamanhoLote;
+        this.maximoTentativas = maximoTentativas;
+        this.esperaInicialSegundos = esperaInicialSegundos;
+        this.esperaMaximaSegundos = esperaMaximaSegundos;
+    }
+
+    @Scheduled(fixedDelayString = "${email.despacho.intervalo-ms}")
+    public void despacharAgendado() {
+        if (habilitado) {
+            despachar();
+        }
+    }
+
+    @Override
+    @Transactional
+    public int despachar() {
+        LocalDateTime agora = LocalDateTime.now();
+        List<EmailPendente> lote = emailPendenteRepository.bloquearProntosParaEnvio(agora, tamanhoLote);
+
+        if (lote.isEmpty()) {
+            return 0;
+        }
+
+        // SimpleMailMessage compara pelo conteúdo; e-mails iguais não podem se sobrepor no mapa.
+        Map<SimpleMailMessage, EmailPendente> mensagens = new IdentityHashMap<>();
+        lote.forEach(email -> mensagens.put(criarMensagem(email), email));
+
+        Map<Object, Exception> falhas = enviar(mensagens);
+        int enviados = 0;
+
+        for (Map.Entry<SimpleMailMessage, EmailPendente> mensagem : mensagens.entrySet()) {
+            EmailPendente email = mensagem.getValue();
+            Exception falha = falhas.get(mensagem.getKey());
+
+            if (falha == null) {
+                email.setStatus(StatusEmail.ENVIADO);
+                email.setUltimoErro(null);
+                enviados++;
+            } else {
+                registrarFalha(email, falha, agora);
+            }
+        }
+
+        emailPendenteRepository.saveAll(lote);
+
+        return enviados;
+    }
+
+    private Map<Object, Exception> enviar(Map<SimpleMailMessage, EmailPendente> mensagens) {
+        try {
+            javaMailSender.send(mensagens.keySet().toArray(new SimpleMailMessage[0]));
+
+            return Collections.emptyMap();
+        } catch (MailSendException e) {
+            if (!e.getFailedMessages().isEmpty()) {
+                return e.getFailedMessages();
+            }
+
+            return falharTodas(mensagens, e);
+        } catch (MailException e) {
+            return falharTodas(mensagens, e);
+        }
+    }
+
+    private Map<Object, Exception> falharTodas(Map<SimpleMailMessage, EmailPendente> mensagens, MailException e) {
+        Map<Object, Exception> falhas = new HashMap<>();
+        mensagens.keySet().forEach(mensagem -> falhas.put(mensagem, e));
+
+        return falhas;
+    }
+
+    private void registrarFalha(EmailPendente email, Exception falha, LocalDateTime agora) {
+        int tentativas = email.getTentativas() + 1;
+
+        email.setTentativas(tentativas);
+        email.setUltimoErro(falha.getMessage());
+
+        if (tentativas >= maximoTentativas) {
+            email.setStatus(StatusEmail.DESCARTADO);
+            LOGGER.error("E-mail {} descartado após {} tentativas: {}", email.getId(), tentativas, falha.getMessage());
+        } else {
+            long espera = Math.min(esperaMaximaSegundos, esperaInicialSegundos << Math.min(tentativas - 1, 30));
+            email.setProximaTentativa(agora.plusSeconds(espera));
+            LOGGER.warn("Falha ao enviar o e-mail {}, nova tentativa em {} s: {}", email.getId(), espera, falha.getMessage());
+        }
+    }
+
+    private SimpleMailMessage criarMensagem(EmailPendente email) {
+        SimpleMailMessage mensagem = new SimpleMailMessage();
+        mensagem.setTo(email.getPara());
+        mensagem.setSubject(email.getAssunto());
+        mensagem.setText(email.getConteudo());
+
+        return mensagem;
+    }
+}
@@ -1,30 +1,40 @@
 package br.com.academiadev.thunderpets.service.impl;
 
+import br.com.academiadev.thunderpets.model.EmailPendente;
+import br.com.academiadev.thunderpets.repository.EmailPendenteRepository;
 import br.com.academiadev.thunderpets.service.EmailService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.MailException;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
+/**
+ * Apenas grava o e-mail na fila. Exige a transação de quem pediu o envio, para que o e-mail só seja agendado se as
+ * alterações que ele anuncia também forem confirmadas. O envio por SMTP é feito pelo DespachanteEmailService, fora
+ * da requisição.
+ */
 @Service
 public class EmailServiceImpl implements EmailService {
 
+    private EmailPendenteRepository emailPendenteRepository;
+
     @Autowired
-    public JavaMailSender javaMailSender;
+    public EmailServiceImpl(EmailPendenteRepository emailPendenteRepository) {
+        this.emailPendenteRepository = emailPendenteRepository;
+    }
 
     @Override
+    @Transactional(propagation = Propagation.MANDATORY)
     public String enviaMensagemSimples(String para, String assunto, String conteudo) {
-        try {
-            SimpleMailMessage simpleMailMessage = new SimpleMailMessage();
-            simpleMailMessage.setTo(para);
-            simpleMailMessage.setSubject(assunto);
-            simpleMailMessage.setText(conteudo);
-            javaMailSender.send(simpleMailMessage);
-            return "E-mail enviado com sucesso.";
-        } catch (MailException e) {
-            return "Erro ao enviar e-mail: " + e.getMessage();
+        emailPendenteRepository.save(EmailPendente.builder()
+                .para(para)
+                .assunto(assunto)
+                .conteudo(conteudo)
+                .proximaTentativa(LocalDateTime.now())
+                .build());
 
-        }
+        return "E-mail agendado para envio.";
     }
 }
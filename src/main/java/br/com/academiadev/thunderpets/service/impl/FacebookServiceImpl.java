@@ -1,15 +1,17 @@
 package br.com.academiadev.thunderpets.service.impl;
 
 import br.com.academiadev.thunderpets.dto.LoginSocialDTO;
+import br.com.academiadev.thunderpets.event.UsuarioSocialCriadoEvent;
 import br.com.academiadev.thunderpets.exception.UsuarioNaoEncontradoException;
 import br.com.academiadev.thunderpets.model.Usuario;
 import br.com.academiadev.thunderpets.repository.UsuarioRepository;
 import br.com.academiadev.thunderpets.service.FacebookService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.common.OAuth2AccessToken;
 import org.springframework.security.oauth2.common.exceptions.InvalidGrantException;
 import org.springframework.security.oauth2.provider.endpoint.TokenEndpoint;
@@ -23,17 +25,14 @@ import org.springframework.social.oauth2.OAuth2Parameters;
 import org.springframework.stereotype.Service;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.net.MalformedURLException;
-import java.net.URL;
 import java.util.HashMap;
 import java.util.Optional;
 
 @Service
 public class FacebookServiceImpl implements FacebookService {
 
+    private static final String URL_FOTO = "https://graph.facebook.com/%s/picture?type=large";
+
     @Value("${spring.social.facebook.appId}")
     private String facebookAppId;
 
@@ -47,13 +46,19 @@ public class FacebookServiceImpl implements FacebookService {
     private String clientId;
 
     private UsuarioRepository usuarioRepository;
+    private ApplicationEventPublisher eventPublisher;
     private final TokenEndpoint tokenEndpoint;
-    private BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private PasswordEncoder passwordEncoder;
 
     @Autowired
-    public FacebookServiceImpl(UsuarioRepository usuarioRepository, TokenEndpoint tokenEndpoint) {
+    public FacebookServiceImpl(UsuarioRepository usuarioRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               TokenEndpoint tokenEndpoint,
+                               PasswordEncoder passwordEncoder) {
         this.usuarioRepository = usuarioRepository;
+        this.eventPublisher = eventPublisher;
         this.tokenEndpoint = tokenEndpoint;
+        this.passwordEncoder = passwordEncoder;
     }
 
     @Override
@@ -102,12 +107,13 @@ public class FacebookServiceImpl implements FacebookService {
 
         String access = usuarioFacebook.getEmail() == null ? usuarioFacebook.getId() : usuarioFacebook.getEmail();
         if (usuarioRepository.findOneByEmail(access) == null) {
-            usuarioRepository.saveAndFlush(Usuario.builder()
+            Usuario usuario = usuarioRepository.saveAndFlush(Usuario.builder()
                     .email(access)
                     .nome(usuarioFacebook.getName())
                     .senha(passwordEncoder.encode(usuarioFacebook.getId()))
-                    .foto(facebook.userOperations().getUserProfileImage())
                     .ativo(true).build());
+
+            eventPublisher.publishEvent(new UsuarioSocialCriadoEvent(usuario.getId(), String.format(URL_FOTO, usuarioFacebook.getId())));
         }
 
         UsernamePasswordAuthenticationToken principal = new UsernamePasswordAuthenticationToken(clientId, null, null);
@@ -126,26 +132,4 @@ public class FacebookServiceImpl implements FacebookService {
             throw new UsuarioNaoEncontradoException("Este endereço de e-mail já está cadastrado.");
         }
     }
-
-    private Optional<byte[]> getFoto(User userInfo) {
-        try {
-            URL photoUrl = new URL(userInfo.getCover().getSource());
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            InputStream inputStream = photoUrl.openStream();
-            byte[] buffer = new byte[1024];
-            int n = 0;
-
-            while ((n = inputStream.read(buffer)) != -1) {
-                baos.write(buffer, 0, n);
-            }
-
-            return Optional.ofNullable(baos.toByteArray());
-        } catch (MalformedURLException e) {
-            System.out.println("Erro na URL");
-        } catch (IOException e) {
-            System.out.println("Erro na leitura do InputStream");
-        }
-
-        return Optional.empty();
-    }
 }
@@ -0,0 +1,144 @@
+package br.com.academiadev.thunderpets.service.impl;
+
+import br.com.academiadev.thunderpets.event.UsuarioAlteradoEvent;
+import br.com.academiadev.thunderpets.event.UsuarioSocialCriadoEvent;
+import br.com.academiadev.thunderpets.repository.UsuarioRepository;
+import br.com.academiadev.thunderpets.service.BlobStoreService;
+import br.com.academiadev.thunderpets.service.FotoPerfilService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Baixa a foto de perfil dos logins sociais fora da requisição, depois que o usuário já foi gravado. A foto é
+ * opcional: falhas, respostas lentas ou grandes demais apenas deixam o usuário sem foto.
+ */
+@Service
+public class FotoPerfilServiceImpl implements FotoPerfilService, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FotoPerfilServiceImpl.class);
+
+    private UsuarioRepository usuarioRepository;
+    private BlobStoreService blobStoreService;
+    private ApplicationEventPublisher eventPublisher;
+    private TransactionTemplate transactionTemplate;
+    private ThreadPoolExecutor executor;
+    private int timeoutConexao;
+    private int timeoutLeitura;
+    private int tamanhoMaximo;
+
+    @Autowired
+    public FotoPerfilServiceImpl(UsuarioRepository usuarioRepository,
+                                 BlobStoreService blobStoreService,
+                                 ApplicationEventPublisher eventPublisher,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${foto-perfil.timeout-conexao-ms}") int timeoutConexao,
+                                 @Value("${foto-perfil.timeout-leitura-ms}") int timeoutLeitura,
+                                 @Value("${foto-perfil.tamanho-maximo-bytes}") int tamanhoMaximo,
+                                 @Value("${foto-perfil.threads}") int threads,
+                                 @Value("${foto-perfil.tamanho-fila}") int tamanhoFila) {
+        this.usuarioRepository = usuarioRepository;
+        this.blobStoreService = blobStoreService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.timeoutConexao = timeoutConexao;
+        this.timeoutLeitura = timeoutLeitura;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(tamanhoFila));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoCriarUsuarioSocial(UsuarioSocialCriadoEvent evento) {
+        if (evento.getUrlFoto() == null) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> salvarFotoPerfil(evento.getId(), evento.getUrlFoto()));
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Fila de fotos de perfil cheia, usuário {} ficará sem foto", evento.getId());
+        }
+    }
+
+    /**
+     * O download fica fora da transação para não prender uma conexão do pool enquanto o servidor da foto responde;
+     * só a gravação do hash no usuário é transacional.
+     */
+    @Override
+    public void salvarFotoPerfil(UUID usuarioId, String url) {
+        baixar(url).map(blobStoreService::salvar).ifPresent(fotoHash -> transactionTemplate.execute(status -> {
+            if (usuarioRepository.atualizarFotoSeAusente(usuarioId, fotoHash) > 0) {
+                eventPublisher.publishEvent(new UsuarioAlteradoEvent(usuarioId));
+            }
+            return null;
+        }));
+    }
+
+    @Override
+    public Optional<byte[]> baixar(String url) {
+        try {
+            HttpURLConnection conexao = (HttpURLConnection) new URL(url).openConnection();
+            conexao.setConnectTimeout(timeoutConexao);
+            conexao.setReadTimeout(timeoutLeitura);
+
+            try {
+                if (conexao.getResponseCode() != HttpURLConnection.HTTP_OK || conexao.getContentLengthLong() > tamanhoMaximo) {
+                    LOGGER.warn("Foto de perfil {} ignorada: status {}, {} bytes", url, conexao.getResponseCode(),
+                            conexao.getContentLengthLong());
+                    return Optional.empty();
+                }
+
+                return ler(conexao.getInputStream(), url);
+            } finally {
+                conexao.disconnect();
+            }
+        } catch (IOException | ClassCastException e) {
+            LOGGER.warn("Erro ao baixar a foto de perfil {}: {}", url, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private Optional<byte[]> ler(InputStream entrada, String url) throws IOException {
+        try (InputStream conteudo = entrada) {
+            ByteArrayOutputStream foto = new ByteArrayOutputStream();
+            byte[] buffer = new byte[16 * 1024];
+            int lidos;
+
+            while ((lidos = conteudo.read(buffer)) != -1) {
+                if (foto.size() + lidos > tamanhoMaximo) {
+                    LOGGER.warn("Foto de perfil {} ignorada: maior que {} bytes", url, tamanhoMaximo);
+                    return Optional.empty();
+                }
+
+                foto.write(buffer, 0, lidos);
+            }
+
+            return Optional.of(foto.toByteArray());
+        }
+    }
+}
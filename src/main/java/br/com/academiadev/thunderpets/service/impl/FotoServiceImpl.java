@@ -0,0 +1,140 @@
+package br.com.academiadev.thunderpets.service.impl;
+
+import br.com.academiadev.thunderpets.dto.ConteudoFotoDTO;
+import br.com.academiadev.thunderpets.enums.TamanhoFoto;
+import br.com.academiadev.thunderpets.exception.FotoNaoEncontradaException;
+import br.com.academiadev.thunderpets.model.Foto;
+import br.com.academiadev.thunderpets.model.Pet;
+import br.com.academiadev.thunderpets.repository.FotoRepository;
+import br.com.academiadev.thunderpets.service.BlobStoreService;
+import br.com.academiadev.thunderpets.service.FotoService;
+import br.com.academiadev.thunderpets.service.ImagemService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+public class FotoServiceImpl implements FotoService {
+
+    private static final List<TamanhoFoto> TAMANHOS_REDIMENSIONADOS =
+            Arrays.asList(TamanhoFoto.MINIATURA, TamanhoFoto.CARTAO, TamanhoFoto.COMPLETA);
+
+    private FotoRepository fotoRepository;
+    private ImagemService imagemService;
+    private BlobStoreService blobStoreService;
+    private String urlBase;
+
+    @Autowired
+    public FotoServiceImpl(FotoRepository fotoRepository,
+                           ImagemService imagemService,
+                           BlobStoreService blobStoreService,
+                           @Value("${foto-pet.url-base}") String urlBase) {
+        this.fotoRepository = fotoRepository;
+        this.imagemService = imagemService;
+        this.blobStoreService = blobStoreService;
+        this.urlBase = urlBase;
+    }
+
+    /**
+     * Os tamanhos são gerados antes de gravar o original, então uma imagem recusada por ser grande demais não deixa
+     * nada no blob store.
+     */
+    @Override
+    public Foto criar(Pet pet, byte[] image) {
+        Map<TamanhoFoto, byte[]> redimensionadas = imagemService.redimensionar(image, TAMANHOS_REDIMENSIONADOS);
+
+        Foto foto = new Foto();
+        foto.setPet(pet);
+        foto.setHashImagem(blobStoreService.salvar(image));
+        foto.setTipoConteudo(imagemService.tipoDeConteudo(image).toString());
+        foto.setHashMiniatura(salvarRedimensionada(redimensionadas.get(TamanhoFoto.MINIATURA)));
+        foto.setHashCartao(salvarRedimensionada(redimensionadas.get(TamanhoFoto.CARTAO)));
+        foto.setHashCompleta(salvarRedimensionada(redimensionadas.get(TamanhoFoto.COMPLETA)));
+
+        return foto;
+    }
+
+    @Override
+    public ConteudoFotoDTO buscarConteudo(UUID petId, UUID fotoId, TamanhoFoto tamanho) throws FotoNaoEncontradaException {
+        Foto foto = fotoRepository.findOneByIdAndPetId(fotoId, petId)
+                .orElseThrow(() -> new FotoNaoEncontradaException(
+                        String.format("Foto %s do pet %s não encontrada", fotoId, petId)));
+
+        String hash = foto.getHash(tamanho);
+
+        return blobStoreService.abrir(hash)
+                .map(conteudo -> new ConteudoFotoDTO(hash, tipo(foto, hash), conteudo))
+                .orElseThrow(() -> new FotoNaoEncontradaException(
+                        String.format("Conteúdo da foto %s não encontrado", fotoId)));
+    }
+
+    @Override
+    public Map<UUID, List<byte[]>> buscarConteudoPorPets(Collection<UUID> petIds, TamanhoFoto tamanho) {
+        return conteudos(fotoRepository.buscarPorPets(petIds), tamanho);
+    }
+
+    @Override
+    public Map<UUID, List<byte[]>> buscarPrimeiroConteudoPorPets(Collection<UUID> petIds, TamanhoFoto tamanho) {
+        return conteudos(fotoRepository.buscarPrimeiraPorPets(petIds), tamanho);
+    }
+
+    @Override
+    public Map<UUID, List<String>> buscarUrlsPorPets(Collection<UUID> petIds, TamanhoFoto tamanho) {
+        Map<UUID, List<String>> urlsPorPet = new HashMap<>();
+
+        fotoRepository.buscarPorPets(petIds).forEach((petId, fotos) -> urlsPorPet.put(petId, fotos.stream()
+                .map(foto -> url(petId, foto.getId(), tamanho))
+                .collect(Collectors.toList())));
+
+        return urlsPorPet;
+    }
+
+    private String salvarRedimensionada(byte[] redimensionada) {
+        return redimensionada != null ? blobStoreService.salvar(redimensionada) : null;
+    }
+
+    private MediaType tipo(Foto foto, String hash) {
+        if (!hash.equals(foto.getHashImagem())) {
+            return MediaType.IMAGE_JPEG;
+        }
+
+        return foto.getTipoConteudo() != null
+                ? MediaType.parseMediaType(foto.getTipoConteudo())
+                : MediaType.APPLICATION_OCTET_STREAM;
+    }
+
+    private Map<UUID, List<byte[]>> conteudos(Map<UUID, List<Foto>> fotosPorPet, TamanhoFoto tamanho) {
+        Map<UUID, List<byte[]>> conteudosPorPet = new HashMap<>();
+
+        fotosPorPet.forEach((petId, fotos) -> conteudosPorPet.put(petId, fotos.stream()
+                .map(foto -> blobStoreService.buscar(foto.getHash(tamanho)))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(Collectors.toList())));
+
+        return conteudosPorPet;
+    }
+
+    /**
+     * As URLs vão para o cache de pets e são servidas a qualquer cliente, então não podem depender do Host da requisição
+     * que as gerou. Sem foto-pet.url-base configurada, ficam relativas à raiz do servidor.
+     */
+    private String url(UUID petId, UUID fotoId, TamanhoFoto tamanho) {
+        return UriComponentsBuilder.fromUriString(urlBase)
+                .path("/pet/{petId}/fotos/{fotoId}")
+                .queryParam("tamanho", tamanho)
+                .buildAndExpand(petId, fotoId)
+                .toUriString();
+    }
+}
@@ -0,0 +1,184 @@
+package br.com.academiadev.thunderpets.service.impl;
+
+import br.com.academiadev.thunderpets.enums.TamanhoFoto;
+import br.com.academiadev.thunderpets.exception.ErroAoProcessarException;
+import br.com.academiadev.thunderpets.service.ImagemService;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URLConnection;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+@Service
+public class ImagemServiceImpl implements ImagemService {
+
+    private static final float QUALIDADE_JPEG = 0.8f;
+    private static final int LADO_HASH = 8;
+    // 40 megapixels: acima disso o bitmap decodificado passaria de 160 MB.
+    private static final long MAXIMO_PIXELS = 40_000_000L;
+
+    /**
+     * Retorna a imagem em JPEG com o maior lado limitado ao do tamanho pedido, ou null quando o conteúdo não é uma
+     * imagem legível ou já é menor que o tamanho. Nesses casos quem consome usa a foto original.
+     */
+    @Override
+    public byte[] redimensionar(byte[] original, TamanhoFoto tamanho) {
+        return redimensionar(original, Collections.singleton(tamanho)).get(tamanho);
+    }
+
+    /**
+     * Decodifica a imagem uma única vez e gera a partir dela cada tamanho pedido. Tamanhos que não precisam de redução,
+     * ou de um conteúdo que não é uma imagem legível, ficam fora do mapa.
+     */
+    @Override
+    public Map<TamanhoFoto, byte[]> redimensionar(byte[] original, Collection<TamanhoFoto> tamanhos) {
+        Map<TamanhoFoto, byte[]> redimensionadas = new EnumMap<>(TamanhoFoto.class);
+        if (original == null) {
+            return redimensionadas;
+        }
+
+        try {
+            BufferedImage imagem = ler(original);
+            if (imagem == null) {
+                return redimensionadas;
+            }
+
+            int maiorLado = Math.max(imagem.getWidth(), imagem.getHeight());
+            for (TamanhoFoto tamanho : tamanhos) {
+                if (tamanho.getLadoMaximo() > 0 && maiorLado > tamanho.getLadoMaximo()) {
+                    redimensionadas.put(tamanho, jpeg(reduzir(imagem, (double) tamanho.getLadoMaximo() / maiorLado)));
+                }
+            }
+        } catch (IOException e) {
+            redimensionadas.clear();
+        }
+
+        return redimensionadas;
+    }
+
+    @Override
+    public MediaType tipoDeConteudo(byte[] conteudo) {
+        try {
+            String tipo = URLConnection.guessContentTypeFromStream(new ByteArrayInputStream(conteudo));
+
+            return tipo != null ? MediaType.parseMediaType(tipo) : MediaType.APPLICATION_OCTET_STREAM;
+        } catch (IOException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+
+    /**
+     * dHash de 64 bits: a imagem é reduzida para 9x8 em tons de cinza e cada bit diz se um pixel é mais escuro que o
+     * vizinho da direita. Fotos parecidas, mesmo recomprimidas ou redimensionadas, ficam a poucos bits de distância.
+     * Retorna null quando o conteúdo não é uma imagem legível.
+     */
+    @Override
+    public Long hashPerceptual(byte[] conteudo) {
+        try {
+            BufferedImage imagem = ler(conteudo);
+            if (imagem == null) {
+                return null;
+            }
+
+            BufferedImage reduzida = new BufferedImage(LADO_HASH + 1, LADO_HASH, BufferedImage.TYPE_BYTE_GRAY);
+            Graphics2D grafico = reduzida.createGraphics();
+            grafico.drawImage(imagem.getScaledInstance(LADO_HASH + 1, LADO_HASH, Image.SCALE_AREA_AVERAGING),
+                    0, 0, Color.WHITE, null);
+            grafico.dispose();
+
+            long hash = 0;
+            for (int y = 0; y < LADO_HASH; y++) {
+                for (int x = 0; x < LADO_HASH; x++) {
+                    hash <<= 1;
+                    if (reduzida.getRaster().getSample(x, y, 0) < reduzida.getRaster().getSample(x + 1, y, 0)) {
+                        hash |= 1;
+                    }
+                }
+            }
+
+            return hash;
+        } catch (IOException | ErroAoProcessarException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Lê as dimensões no cabeçalho antes de decodificar, para que uma imagem pequena em bytes mas enorme em pixels
+     * seja recusada sem alocar o bitmap inteiro. Retorna null quando o conteúdo não é uma imagem legível.
+     */
+    private BufferedImage ler(byte[] conteudo) throws IOException {
+        try (ImageInputStream entrada = ImageIO.createImageInputStream(new ByteArrayInputStream(conteudo))) {
+            Iterator<ImageReader> leitores = entrada != null
+                    ? ImageIO.getImageReaders(entrada)
+                    : Collections.<ImageReader>emptyIterator();
+            if (!leitores.hasNext()) {
+                return null;
+            }
+
+            ImageReader leitor = leitores.next();
+            try {
+                leitor.setInput(entrada, true, true);
+
+                long pixels = (long) leitor.getWidth(0) * leitor.getHeight(0);
+                if (pixels > MAXIMO_PIXELS) {
+                    throw new ErroAoProcessarException(String.format(
+                            "A imagem tem %d pixels e o máximo aceito é %d", pixels, MAXIMO_PIXELS));
+                }
+
+                return leitor.read(0);
+            } finally {
+                leitor.dispose();
+            }
+        }
+    }
+
+    private BufferedImage reduzir(BufferedImage imagem, double escala) {
+        int largura = Math.max(1, (int) Math.round(imagem.getWidth() * escala));
+        int altura = Math.max(1, (int) Math.round(imagem.getHeight() * escala));
+
+        BufferedImage redimensionada = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB);
+        Graphics2D grafico = redimensionada.createGraphics();
+        grafico.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        grafico.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        grafico.drawImage(imagem, 0, 0, largura, altura, Color.WHITE, null);
+        grafico.dispose();
+
+        return redimensionada;
+    }
+
+    private byte[] jpeg(BufferedImage imagem) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam parametros = writer.getDefaultWriteParam();
+        parametros.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        parametros.setCompressionQuality(QUALIDADE_JPEG);
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(saida)) {
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(imagem, null, null), parametros);
+        } finally {
+            writer.dispose();
+        }
+
+        return saida.toByteArray();
+    }
+}
@@ -0,0 +1,283 @@
+package br.com.academiadev.thunderpets.service.impl;
+
+import br.com.academiadev.thunderpets.dto.FiltroPetDTO;
+import br.com.academiadev.thunderpets.enums.EntidadeInvalidada;
+import br.com.academiadev.thunderpets.event.InvalidacaoRemotaEvent;
+import br.com.academiadev.thunderpets.event.PetAlteradoEvent;
+import br.com.academiadev.thunderpets.geo.ArvoreKD;
+import br.com.academiadev.thunderpets.geo.DistanciaGeografica;
+import br.com.academiadev.thunderpets.geo.PetLocalizado;
+import br.com.academiadev.thunderpets.geo.PetProximo;
+import br.com.academiadev.thunderpets.repository.PetRepository;
+import br.com.academiadev.thunderpets.service.IndiceGeograficoPetService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória das coordenadas dos pets ativos, para buscas por raio e pelos mais próximos sem ir ao banco. A
+ * árvore KD é imutável: pets salvos ou excluídos depois da construção ficam num mapa à parte, consultado junto com a
+ * árvore, até que o mapa cresça o bastante para valer a reconstrução. Só atende filtros que consegue reproduzir
+ * exatamente; nome, texto, cidade e estado continuam no banco.
+ */
+@Service
+public class IndiceGeograficoPetServiceImpl implements IndiceGeograficoPetService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IndiceGeograficoPetServiceImpl.class);
+    private static final int MINIMO_ALTERADOS_PARA_RECONSTRUIR = 64;
+    private static final int QUANTIDADE_TRAVAS_PET = 64;
+
+    // Mesmo desempate do banco, que compara os bytes do uuid sem sinal.
+    private static final Comparator<PetProximo> ORDEM = Comparator.comparingDouble(PetProximo::getDistancia)
+            .thenComparing(PetProximo::getPetId, (id, outroId) -> {
+                int comparacao = Long.compareUnsigned(id.getMostSignificantBits(), outroId.getMostSignificantBits());
+                return comparacao != 0
+                        ? comparacao
+                        : Long.compareUnsigned(id.getLeastSignificantBits(), outroId.getLeastSignificantBits());
+            });
+
+    private PetRepository petRepository;
+    private boolean habilitado;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object[] travasPet = new Object[QUANTIDADE_TRAVAS_PET];
+    private volatile boolean carregado;
+    private ArvoreKD arvore = new ArvoreKD(new double[0], new double[0]);
+    private PetLocalizado[] pets = new PetLocalizado[0];
+    private Map<UUID, PetLocalizado> alterados = new HashMap<>();
+    private Set<UUID> alteradosDuranteCarga;
+
+    @Autowired
+    public IndiceGeograficoPetServiceImpl(PetRepository petRepository,
+                                          @Value("${indice-geografico.habilitado}") boolean habilitado) {
+        this.petRepository = petRepository;
+        this.habilitado = habilitado;
+
+        for (int i = 0; i < travasPet.length; i++) {
+            travasPet[i] = new Object();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoIniciar() {
+        carregar();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarPet(PetAlteradoEvent evento) {
+        indexar(evento.getId());
+    }
+
+    @EventListener
+    public void aoAlterarPetEmOutraInstancia(InvalidacaoRemotaEvent evento) {
+        if (evento.getEntidade() != EntidadeInvalidada.PET) {
+            return;
+        }
+
+        if (evento.isTodas()) {
+            carregar();
+        } else {
+            indexar(evento.getId());
+        }
+    }
+
+    @Override
+    public boolean atende(FiltroPetDTO filtro) {
+        return habilitado
+                && carregado
+                && filtro.possuiCoordenadas()
+                && filtro.getNome() == null
+                && !filtro.possuiTexto()
+                && filtro.getCidade() == null
+                && filtro.getEstado() == null;
+    }
+
+    /**
+     * Pets a no máximo raioDistancia do filtro, do mais próximo ao mais distante.
+     */
+    @Override
+    public List<PetProximo> buscarNoRaio(FiltroPetDTO filtro) {
+        List<PetProximo> proximos = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            arvore.buscarNoRaio(filtro.getLatitude(), filtro.getLongitude(), filtro.getRaioDistancia(), posicao -> {
+                if (!alterados.containsKey(pets[posicao].getId())) {
+                    adicionarSeAtende(proximos, pets[posicao], filtro);
+                }
+            });
+            adicionarAlterados(proximos, filtro);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        proximos.sort(ORDEM);
+        return proximos;
+    }
+
+    /**
+     * Até quantidade pets mais próximos que atendem o filtro; quando há raioDistancia, ele também limita o resultado.
+     */
+    @Override
+    public List<PetProximo> buscarMaisProximos(FiltroPetDTO filtro, int quantidade) {
+        List<PetProximo> proximos = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            int[] posicoes = arvore.buscarMaisProximos(filtro.getLatitude(), filtro.getLongitude(), quantidade,
+                    posicao -> !alterados.containsKey(pets[posicao].getId()) && pets[posicao].atende(filtro));
+            for (int posicao : posicoes) {
+                adicionarSeAtende(proximos, pets[posicao], filtro);
+            }
+            adicionarAlterados(proximos, filtro);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        proximos.sort(ORDEM);
+        return proximos.size() > quantidade ? new ArrayList<>(proximos.subList(0, quantidade)) : proximos;
+    }
+
+    /**
+     * A leitura e a gravação no índice acontecem sob a trava do pet, fora do lock do índice. Assim duas alterações do
+     * mesmo pet, vindas de threads diferentes, não gravam fora de ordem: quem entra depois lê o banco depois e não pode
+     * ser sobrescrito por uma versão mais antiga.
+     */
+    @Override
+    public void indexar(UUID petId) {
+        if (!habilitado) {
+            return;
+        }
+
+        synchronized (travasPet[Math.floorMod(petId.hashCode(), travasPet.length)]) {
+            PetLocalizado pet = petRepository.buscarLocalizado(petId).stream().findFirst().orElse(null);
+
+            lock.writeLock().lock();
+            try {
+                if (alteradosDuranteCarga != null) {
+                    alteradosDuranteCarga.add(petId);
+                }
+
+                alterados.put(petId, pet);
+                if (alteradosDuranteCarga == null && alterados.size() > Math.max(MINIMO_ALTERADOS_PARA_RECONSTRUIR, pets.length / 8)) {
+                    reconstruir();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Recarrega o índice do banco. Pets indexados enquanto a consulta roda continuam no mapa de alterados, já que a
+     * carga pode ter lido uma versão anterior deles.
+     */
+    @Override
+    public synchronized void carregar() {
+        if (!habilitado) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            alteradosDuranteCarga = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<PetLocalizado> localizados;
+        try {
+            localizados = petRepository.buscarLocalizados();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                alteradosDuranteCarga = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            definir(localizados);
+            alterados.keySet().retainAll(alteradosDuranteCarga);
+            alteradosDuranteCarga = null;
+            carregado = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        LOGGER.info("Índice geográfico carregado com {} pets", localizados.size());
+    }
+
+    private void adicionarSeAtende(List<PetProximo> proximos, PetLocalizado pet, FiltroPetDTO filtro) {
+        if (!pet.atende(filtro)) {
+            return;
+        }
+
+        double distancia = DistanciaGeografica.emQuilometros(filtro.getLatitude(), filtro.getLongitude(),
+                pet.getLatitude(), pet.getLongitude());
+        if (!filtro.possuiRaioDistancia() || distancia <= filtro.getRaioDistancia()) {
+            proximos.add(new PetProximo(pet.getId(), distancia));
+        }
+    }
+
+    private void adicionarAlterados(List<PetProximo> proximos, FiltroPetDTO filtro) {
+        alterados.values().forEach(pet -> {
+            if (pet != null) {
+                adicionarSeAtende(proximos, pet, filtro);
+            }
+        });
+    }
+
+    private void reconstruir() {
+        List<PetLocalizado> atuais = new ArrayList<>(pets.length + alterados.size());
+        for (PetLocalizado pet : pets) {
+            if (!alterados.containsKey(pet.getId())) {
+                atuais.add(pet);
+            }
+        }
+        alterados.values().forEach(pet -> {
+            if (pet != null) {
+                atuais.add(pet);
+            }
+        });
+
+        definir(atuais);
+        alterados = new HashMap<>();
+    }
+
+    private void definir(Collection<PetLocalizado> localizados) {
+        PetLocalizado[] novosPets = localizados.toArray(new PetLocalizado[0]);
+        double[] latitudes = new double[novosPets.length];
+        double[] longitudes = new double[novosPets.length];
+
+        for (int i = 0; i < novosPets.length; i++) {
+            latitudes[i] = novosPets[i].getLatitude();
+            longitudes[i] = novosPets[i].getLongitude();
+        }
+
+        arvore = new ArvoreKD(latitudes, longitudes);
+        pets = novosPets;
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.academiadev.thunderpets.service.impl;
+
+import br.com.academiadev.thunderpets.service.BlobStoreService;
+import br.com.academiadev.thunderpets.service.LimpezaBlobStoreService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Remove do blob store os conteúdos que nenhuma foto de pet ou de usuário referencia mais. Só entram blobs salvos há
+ * mais que a carência, que precisa ser bem maior que qualquer transação: o blob é gravado antes do commit da linha que
+ * passa a referenciá-lo.
+ */
+@Service
+public class LimpezaBlobStoreServiceImpl implements LimpezaBlobStoreService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LimpezaBlobStoreServiceImpl.class);
+
+    private JdbcTemplate jdbcTemplate;
+    private BlobStoreService blobStoreService;
+    private boolean habilitada;
+    private Duration carencia;
+
+    @Autowired
+    public LimpezaBlobStoreServiceImpl(JdbcTemplate jdbcTemplate,
+                                       BlobStoreService blobStoreService,
+                                       @Value("${blob-store.limpeza.habilitada}") boolean habilitada,
+                                       @Value("${blob-store.limpeza.carencia-horas}") long carenciaHoras) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blobStoreService = blobStoreService;
+        this.habilitada = habilitada;
+        this.carencia = Duration.ofHours(carenciaHoras);
+    }
+
+    @Scheduled(fixedDelayString = "${blob-store.limpeza.intervalo-ms}")
+    public void limparAgendado() {
+        if (habilitada) {
+            limpar();
+        }
+    }
+
+    @Override
+    public int limpar() {
+        Instant limite = Instant.now().minus(carencia);
+        Set<String> referenciados = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT hash_imagem FROM foto " +
+                        "UNION SELECT hash_miniatura FROM foto " +
+                        "UNION SELECT hash_cartao FROM foto " +
+                        "UNION SELECT hash_completa FROM foto " +
+                        "UNION SELECT foto_hash FROM usuario", String.class));
+
+        AtomicInteger removidos = new AtomicInteger();
+        blobStoreService.percorrerAnterioresA(limite, hash -> {
+            if (!referenciados.contains(hash) && blobStoreService.removerSeAnteriorA(hash, limite)) {
+                removidos.incrementAndGet();
+            }
+        });
+
+        if (removidos.get() > 0) {
+            LOGGER.info("{} blobs sem referência removidos do blob store", removidos.get());
+        }
+
+        return removidos.get();
+    }
+}
@@ -0,0 +1,172 @@
+package br.com.academiadev.thunderpets.service.impl;
+
+import br.com.academiadev.thunderpets.service.BlobStoreService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Guarda os blobs no sistema de arquivos, endereçados pelo SHA-256 do conteúdo: conteúdos iguais ocupam um único
+ * arquivo, em {@code diretorio/ab/cd/abcd...}. A data de modificação marca o último salvar do conteúdo, para que a
+ * limpeza não remova um blob que acabou de voltar a ser usado; se a limpeza o remover mesmo assim, o salvar grava o
+ * arquivo de novo.
+ */
+@Service
+public class LocalBlobStoreServiceImpl implements BlobStoreService {
+
+    private static final Pattern HASH_VALIDO = Pattern.compile("[0-9a-f]{64}");
+    private static final String SUFIXO_LAPIDE = ".removendo";
+
+    private Path diretorio;
+
+    public LocalBlobStoreServiceImpl(@Value("${blob-store.diretorio}") String diretorio) {
+        this.diretorio = Paths.get(diretorio).toAbsolutePath();
+    }
+
+    @Override
+    public String salvar(byte[] conteudo) {
+        String hash = sha256(conteudo);
+        Path destino = caminho(hash);
+
+        try {
+            if (Files.exists(destino)) {
+                try {
+                    Files.setLastModifiedTime(destino, FileTime.from(Instant.now()));
+                    return hash;
+                } catch (NoSuchFileException e) {
+                    // removido pela limpeza agora há pouco; grava de novo
+                }
+            }
+
+            Files.createDirectories(destino.getParent());
+
+            Path temporario = Files.createTempFile(destino.getParent(), hash, ".tmp");
+            try {
+                Files.write(temporario, conteudo);
+                Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // outro processo gravou o mesmo conteúdo ao mesmo tempo
+            } finally {
+                Files.deleteIfExists(temporario);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Erro ao gravar o blob %s", hash), e);
+        }
+
+        return hash;
+    }
+
+    @Override
+    public Optional<Resource> abrir(String hash) {
+        if (hash == null || !HASH_VALIDO.matcher(hash).matches()) {
+            return Optional.empty();
+        }
+
+        Path arquivo = caminho(hash);
+
+        return Files.isRegularFile(arquivo) ? Optional.of(new FileSystemResource(arquivo.toFile())) : Optional.empty();
+    }
+
+    @Override
+    public Optional<byte[]> buscar(String hash) {
+        return abrir(hash).map(recurso -> {
+            try {
+                return Files.readAllBytes(recurso.getFile().toPath());
+            } catch (IOException e) {
+                throw new UncheckedIOException(String.format("Erro ao ler o blob %s", hash), e);
+            }
+        });
+    }
+
+    @Override
+    public void percorrerAnterioresA(Instant limite, Consumer<String> consumidor) {
+        if (!Files.isDirectory(diretorio)) {
+            return;
+        }
+
+        try (Stream<Path> arquivos = Files.walk(diretorio, 3)) {
+            arquivos.filter(arquivo -> HASH_VALIDO.matcher(arquivo.getFileName().toString()).matches())
+                    .filter(arquivo -> anteriorA(arquivo, limite))
+                    .forEach(arquivo -> consumidor.accept(arquivo.getFileName().toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Erro ao percorrer o blob store em %s", diretorio), e);
+        }
+    }
+
+    @Override
+    public boolean removerSeAnteriorA(String hash, Instant limite) {
+        if (hash == null || !HASH_VALIDO.matcher(hash).matches()) {
+            return false;
+        }
+
+        Path arquivo = caminho(hash);
+        if (!anteriorA(arquivo, limite)) {
+            return false;
+        }
+
+        // Um salvar pode reutilizar o blob entre a verificação acima e a remoção. Renomear primeiro tira o arquivo do
+        // caminho de forma atômica: um salvar posterior não o encontra e grava de novo, e um salvar anterior deixou a
+        // data de modificação nova, que é conferida outra vez antes de apagar.
+        Path lapide = arquivo.resolveSibling(hash + SUFIXO_LAPIDE);
+        try {
+            try {
+                Files.move(arquivo, lapide, StandardCopyOption.ATOMIC_MOVE);
+            } catch (NoSuchFileException e) {
+                return false;
+            }
+
+            if (!anteriorA(lapide, limite)) {
+                Files.move(lapide, arquivo, StandardCopyOption.ATOMIC_MOVE);
+                return false;
+            }
+
+            return Files.deleteIfExists(lapide);
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Erro ao remover o blob %s", hash), e);
+        }
+    }
+
+    private boolean anteriorA(Path arquivo, Instant limite) {
+        try {
+            return Files.isRegularFile(arquivo) && Files.getLastModifiedTime(arquivo).toInstant().isBefore(limite);
+        } catch (IOException e) {
+            // removido enquanto a pasta era percorrida
+            return false;
+        }
+    }
+
+    private Path caminho(String hash) {
+        return diretorio.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private String sha256(byte[] conteudo) {
+        try {
+            StringBuilder hash = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(conteudo)) {
+                hash.append(String.format("%02x", b));
+            }
+
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
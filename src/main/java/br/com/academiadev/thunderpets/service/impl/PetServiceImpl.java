@@ -1,60 +1,137 @@
 package br.com.academiadev.thunderpets.service.impl;
 
+import br.com.academiadev.thunderpets.cache.ChaveBuscaPet;
+import br.com.academiadev.thunderpets.cache.ChaveCachePet;
+import br.com.academiadev.thunderpets.cache.ResultadoBuscaPet;
+import br.com.academiadev.thunderpets.cache.VersaoBuscaPet;
+import br.com.academiadev.thunderpets.dto.CelulaPetDTO;
+import br.com.academiadev.thunderpets.dto.CorrespondenciaPetDTO;
+import br.com.academiadev.thunderpets.dto.CursorPetDTO;
+import br.com.academiadev.thunderpets.dto.FiltroPetDTO;
+import br.com.academiadev.thunderpets.dto.PaginaCursorDTO;
+import br.com.academiadev.thunderpets.dto.PetComDistanciaDTO;
 import br.com.academiadev.thunderpets.dto.PetDTO;
 import br.com.academiadev.thunderpets.dto.PetRespostaDTO;
+import br.com.academiadev.thunderpets.dto.PetSimilarDTO;
 import br.com.academiadev.thunderpets.enums.*;
+import br.com.academiadev.thunderpets.event.PetAlteradoEvent;
 import br.com.academiadev.thunderpets.exception.ErroAoProcessarException;
+import br.com.academiadev.thunderpets.geo.AreaDeBusca;
+import br.com.academiadev.thunderpets.geo.DistanciaGeografica;
+import br.com.academiadev.thunderpets.geo.PetProximo;
+import br.com.academiadev.thunderpets.exception.FotoNaoEncontradaException;
 import br.com.academiadev.thunderpets.exception.NaoPermitidoException;
 import br.com.academiadev.thunderpets.exception.PetNaoEncontradoException;
+import br.com.academiadev.thunderpets.exception.ServicoIndisponivelException;
 import br.com.academiadev.thunderpets.exception.UsuarioNaoEncontradoException;
 import br.com.academiadev.thunderpets.mapper.PetMapper;
+import br.com.academiadev.thunderpets.model.CorrespondenciaPet;
 import br.com.academiadev.thunderpets.model.Foto;
 import br.com.academiadev.thunderpets.model.Localizacao;
 import br.com.academiadev.thunderpets.model.Pet;
 import br.com.academiadev.thunderpets.model.Usuario;
+import br.com.academiadev.thunderpets.model.UsuarioAutenticado;
 import br.com.academiadev.thunderpets.repository.FotoRepository;
 import br.com.academiadev.thunderpets.repository.LocalizacaoRepository;
 import br.com.academiadev.thunderpets.repository.PetRepository;
 import br.com.academiadev.thunderpets.repository.UsuarioRepository;
+import br.com.academiadev.thunderpets.service.CorrespondenciaPetService;
+import br.com.academiadev.thunderpets.service.FotoService;
+import br.com.academiadev.thunderpets.service.IndiceGeograficoPetService;
 import br.com.academiadev.thunderpets.service.PetService;
+import br.com.academiadev.thunderpets.service.SimilaridadeFotoService;
+import br.com.academiadev.thunderpets.similaridade.FotoSimilar;
+import com.github.benmanes.caffeine.cache.Cache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 public class PetServiceImpl implements PetService {
 
+    private static final int ZOOM_MAXIMO = 22;
+    private static final int CELULAS_POR_TILE = 4;
+    private static final int QUANTIDADE_MAXIMA_PROXIMOS = 100;
+    private static final String CAMPO_DISTANCIA = "distancia";
+
     private PetRepository petRepository;
     private LocalizacaoRepository localizacaoRepository;
     private UsuarioRepository usuarioRepository;
     private FotoRepository fotoRepository;
+    private FotoService fotoService;
+    private CorrespondenciaPetService correspondenciaPetService;
+    private SimilaridadeFotoService similaridadeFotoService;
+    private IndiceGeograficoPetService indiceGeograficoPetService;
     private PetMapper petMapper;
+    private Cache<ChaveCachePet, PetRespostaDTO> cachePet;
+    private Cache<ChaveBuscaPet, ResultadoBuscaPet> cacheBuscaPet;
+    private VersaoBuscaPet versaoBuscaPet;
+    private ApplicationEventPublisher eventPublisher;
+    private int casasDecimaisCoordenadas;
+    private int distanciaMaximaSimilares;
+    private int distanciaMaximaDuplicata;
+    private int maximoSimilares;
 
     @Autowired
     public PetServiceImpl(PetRepository petRepository,
                           LocalizacaoRepository localizacaoRepository,
                           UsuarioRepository usuarioRepository,
                           FotoRepository fotoRepository,
-                          PetMapper petMapper) {
+                          FotoService fotoService,
+                          CorrespondenciaPetService correspondenciaPetService,
+                          SimilaridadeFotoService similaridadeFotoService,
+                          IndiceGeograficoPetService indiceGeograficoPetService,
+                          PetMapper petMapper,
+                          Cache<ChaveCachePet, PetRespostaDTO> cachePet,
+                          Cache<ChaveBuscaPet, ResultadoBuscaPet> cacheBuscaPet,
+                          VersaoBuscaPet versaoBuscaPet,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${cache-local.busca.casas-decimais-coordenadas}") int casasDecimaisCoordenadas,
+                          @Value("${similaridade-foto.distancia-maxima}") int distanciaMaximaSimilares,
+                          @Value("${similaridade-foto.distancia-maxima-duplicata}") int distanciaMaximaDuplicata,
+                          @Value("${similaridade-foto.maximo-pets}") int maximoSimilares) {
         this.petRepository = petRepository;
         this.localizacaoRepository = localizacaoRepository;
         this.usuarioRepository = usuarioRepository;
         this.fotoRepository = fotoRepository;
+        this.fotoService = fotoService;
+        this.correspondenciaPetService = correspondenciaPetService;
+        this.similaridadeFotoService = similaridadeFotoService;
+        this.indiceGeograficoPetService = indiceGeograficoPetService;
         this.petMapper = petMapper;
+        this.cachePet = cachePet;
+        this.cacheBuscaPet = cacheBuscaPet;
+        this.versaoBuscaPet = versaoBuscaPet;
+        this.eventPublisher = eventPublisher;
+        this.casasDecimaisCoordenadas = casasDecimaisCoordenadas;
+        this.distanciaMaximaSimilares = distanciaMaximaSimilares;
+        this.distanciaMaximaDuplicata = distanciaMaximaDuplicata;
+        this.maximoSimilares = maximoSimilares;
     }
 
     @Override
     public Page<PetRespostaDTO> buscar(String nome,
+                                       String texto,
                                        LocalDate dataAchado,
                                        Especie especie,
                                        Porte porte,
@@ -67,51 +144,257 @@ public class PetServiceImpl implements PetService {
                                        String latitude,
                                        String longitude,
                                        Double raioDistancia,
+                                       FormatoFoto formatoFotos,
+                                       TamanhoFoto tamanhoFotos,
                                        Integer paginaAtual,
                                        Integer tamanho,
                                        Sort.Direction direcao,
                                        String campoOrdenacao) {
         PageRequest paginacao = PageRequest.of(paginaAtual, tamanho, direcao, campoOrdenacao);
+        FiltroPetDTO filtro = montarFiltro(nome, texto, dataAchado, especie, porte, sexo, status, idade,
+                tipoPesquisaLocalidade, cidade, estado, latitude, longitude, raioDistancia);
 
-        Page<Pet> paginaPetsFiltrados = petRepository.buscar(nome == null ? null : nome.toLowerCase(),
-                dataAchado,
-                especie,
-                porte,
-                sexo,
-                status,
-                idade,
-                (tipoPesquisaLocalidade != null && tipoPesquisaLocalidade.equals(TipoPesquisaLocalidade.CIDADE_ESTADO))
-                        ? (cidade != null ? cidade.toLowerCase() : null) : null,
-                (tipoPesquisaLocalidade != null && tipoPesquisaLocalidade.equals(TipoPesquisaLocalidade.CIDADE_ESTADO))
-                        ? (estado != null ? estado.toLowerCase() : null) : null,
-                latitude != null ? latitude : "null",
-                longitude != null ? longitude : "null",
-                raioDistancia,
-                paginacao);
+        if (filtro.possuiRaioDistancia() && CAMPO_DISTANCIA.equals(campoOrdenacao)
+                && indiceGeograficoPetService.atende(filtro)) {
+            return buscarNoIndice(filtro, paginacao, formatoFotos, tamanhoFotos);
+        }
 
-        PageImpl<PetRespostaDTO> paginaPetsFiltradosDTO = (PageImpl<PetRespostaDTO>) paginaPetsFiltrados
-                .map(p -> petMapper.toDTO(p, fotoRepository.findByPetId(p.getId()).stream()
-                        .map(Foto::getImage).collect(Collectors.toList())));
+        long versao = versaoBuscaPet.atual();
+        FiltroPetDTO filtroNormalizado = filtro.toBuilder()
+                .latitude(arredondar(filtro.getLatitude()))
+                .longitude(arredondar(filtro.getLongitude()))
+                .build();
+        ChaveBuscaPet chave = new ChaveBuscaPet(versao, filtroNormalizado, paginaAtual, tamanho, direcao, campoOrdenacao);
 
+        ResultadoBuscaPet resultado = cacheBuscaPet.getIfPresent(chave);
+        Map<UUID, PetRespostaDTO> petsDTO;
+        if (resultado != null) {
+            petsDTO = buscarPorIds(resultado.getIds(), formatoFotos, tamanhoFotos);
+        } else {
+            Page<PetComDistanciaDTO> paginaPetsFiltrados = petRepository.buscar(filtro, paginacao);
 
-        if (latitude != null && longitude != null) {
-            paginaPetsFiltradosDTO.map((petDTO) -> {
-                petDTO.setDistancia(petRepository.findDistancia(new BigDecimal(latitude), new BigDecimal(longitude), petDTO.getId()));
+            List<Pet> pets = paginaPetsFiltrados.getContent().stream()
+                    .map(PetComDistanciaDTO::getPet)
+                    .collect(Collectors.toList());
+            resultado = new ResultadoBuscaPet(
+                    pets.stream().map(Pet::getId).collect(Collectors.toList()),
+                    paginaPetsFiltrados.getTotalElements());
 
-                return petDTO;
-            });
+            // Se algum pet mudou durante a consulta, o que foi lido pode ser anterior à invalidação e não é guardado.
+            petsDTO = toDTO(pets, formatoFotos, tamanhoFotos);
+            guardarNoCache(petsDTO, formatoFotos, tamanhoFotos, versao);
+            if (versao == versaoBuscaPet.atual()) {
+                cacheBuscaPet.put(chave, resultado);
+            }
         }
 
-        return paginaPetsFiltradosDTO;
+        // A distância é recalculada a partir das coordenadas exatas de quem busca, e não das arredondadas da chave.
+        List<PetRespostaDTO> conteudo = resultado.getIds().stream()
+                .map(petsDTO::get)
+                .filter(Objects::nonNull)
+                .map(petDTO -> comDistancia(petDTO, distanciaAte(filtro, petDTO)))
+                .collect(Collectors.toList());
+
+        return new PageImpl<>(conteudo, paginacao, resultado.getTotal());
     }
 
     @Override
-    public PetRespostaDTO buscarPorId(UUID id) throws PetNaoEncontradoException {
-        Pet pet = petRepository.findById(id)
-                .orElseThrow(() -> new PetNaoEncontradoException(String.format("Pet %s não encontrado", id.toString())));
+    public PaginaCursorDTO<PetRespostaDTO> buscarPorCursor(String nome,
+                                                           String texto,
+                                                           LocalDate dataAchado,
+                                                           Especie especie,
+                                                           Porte porte,
+                                                           Sexo sexo,
+                                                           Status status,
+                                                           Idade idade,
+                                                           TipoPesquisaLocalidade tipoPesquisaLocalidade,
+                                                           String cidade,
+                                                           String estado,
+                                                           String latitude,
+                                                           String longitude,
+                                                           Double raioDistancia,
+                                                           FormatoFoto formatoFotos,
+                                                           TamanhoFoto tamanhoFotos,
+                                                           String cursor,
+                                                           Integer tamanho,
+                                                           Sort.Direction direcao) {
+        FiltroPetDTO filtro = montarFiltro(nome, texto, dataAchado, especie, porte, sexo, status, idade,
+                tipoPesquisaLocalidade, cidade, estado, latitude, longitude, raioDistancia);
+
+        Slice<PetComDistanciaDTO> fatia = petRepository.buscarPorCursor(filtro,
+                cursor == null ? null : CursorPetDTO.decodificar(cursor),
+                direcao,
+                tamanho);
+
+        List<Pet> pets = fatia.getContent().stream()
+                .map(PetComDistanciaDTO::getPet)
+                .collect(Collectors.toList());
+        Map<UUID, PetRespostaDTO> petsDTO = toDTO(pets, formatoFotos, tamanhoFotos);
+
+        List<PetRespostaDTO> conteudo = fatia.getContent().stream()
+                .map(p -> comDistancia(petsDTO.get(p.getPet().getId()), p.getDistancia()))
+                .collect(Collectors.toList());
+
+        String proximoCursor = null;
+        if (fatia.hasNext()) {
+            Pet ultimo = pets.get(pets.size() - 1);
+            proximoCursor = new CursorPetDTO(ultimo.getDataRegistro(), ultimo.getId()).codificar();
+        }
+
+        return new PaginaCursorDTO<>(conteudo, proximoCursor, !fatia.hasNext());
+    }
+
+    /**
+     * A área vem no formato minLongitude,minLatitude,maxLongitude,maxLatitude. Cada célula ocupa um quarto de um tile
+     * de 256 pixels no zoom pedido. Quando a área atravessa o antimeridiano, os dois lados são agrupados separadamente.
+     */
+    @Override
+    public List<CelulaPetDTO> agrupar(String area,
+                                      int zoom,
+                                      String nome,
+                                      String texto,
+                                      LocalDate dataAchado,
+                                      Especie especie,
+                                      Porte porte,
+                                      Sexo sexo,
+                                      Status status,
+                                      Idade idade) {
+        if (zoom < 0 || zoom > ZOOM_MAXIMO) {
+            throw new ErroAoProcessarException(String.format("O zoom deve estar entre 0 e %d", ZOOM_MAXIMO));
+        }
+
+        double[] limites = lerArea(area);
+        double tamanhoCelula = 360 / Math.pow(2, zoom) / CELULAS_POR_TILE;
+        FiltroPetDTO filtro = montarFiltro(nome, texto, dataAchado, especie, porte, sexo, status, idade,
+                null, null, null, null, null, null);
+
+        List<AreaDeBusca> areas = new ArrayList<>();
+        if (limites[0] <= limites[2]) {
+            areas.add(criarArea(limites[1], limites[3], limites[0], limites[2]));
+        } else {
+            areas.add(criarArea(limites[1], limites[3], limites[0], 180));
+            areas.add(criarArea(limites[1], limites[3], -180, limites[2]));
+        }
+
+        return areas.stream()
+                .flatMap(parte -> petRepository.agrupar(filtro, parte, tamanhoCelula).stream())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<PetRespostaDTO> buscarProximos(String latitude,
+                                               String longitude,
+                                               int quantidade,
+                                               String nome,
+                                               String texto,
+                                               LocalDate dataAchado,
+                                               Especie especie,
+                                               Porte porte,
+                                               Sexo sexo,
+                                               Status status,
+                                               Idade idade,
+                                               Double raioDistancia,
+                                               FormatoFoto formatoFotos,
+                                               TamanhoFoto tamanhoFotos) {
+        if (quantidade < 1 || quantidade > QUANTIDADE_MAXIMA_PROXIMOS) {
+            throw new ErroAoProcessarException(
+                    String.format("A quantidade deve estar entre 1 e %d", QUANTIDADE_MAXIMA_PROXIMOS));
+        }
+
+        FiltroPetDTO filtro = montarFiltro(nome, texto, dataAchado, especie, porte, sexo, status, idade,
+                null, null, null, latitude, longitude, raioDistancia);
+
+        if (indiceGeograficoPetService.atende(filtro)) {
+            List<PetProximo> proximos = indiceGeograficoPetService.buscarMaisProximos(filtro, quantidade);
+            return comDistancias(proximos, formatoFotos, tamanhoFotos);
+        }
+
+        List<PetComDistanciaDTO> encontrados = petRepository.buscar(filtro,
+                PageRequest.of(0, quantidade, Sort.Direction.ASC, CAMPO_DISTANCIA)).getContent();
+        Map<UUID, PetRespostaDTO> petsDTO = toDTO(encontrados.stream()
+                .map(PetComDistanciaDTO::getPet)
+                .collect(Collectors.toList()), formatoFotos, tamanhoFotos);
 
-        return petMapper.toDTO(
-                pet, fotoRepository.findByPetId(pet.getId()).stream().map(Foto::getImage).collect(Collectors.toList()));
+        return encontrados.stream()
+                .map(p -> comDistancia(petsDTO.get(p.getPet().getId()), p.getDistancia()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<LocalDateTime> buscarDataAtualizacao(UUID id) throws PetNaoEncontradoException {
+        List<LocalDateTime> datas = petRepository.findDataAtualizacaoById(id);
+
+        if (datas.isEmpty()) {
+            throw new PetNaoEncontradoException(String.format("Pet %s não encontrado", id));
+        }
+
+        return Optional.ofNullable(datas.get(0));
+    }
+
+    @Override
+    public PetRespostaDTO buscarPorId(UUID id, FormatoFoto formatoFotos, TamanhoFoto tamanhoFotos) throws PetNaoEncontradoException {
+        return cachePet.get(new ChaveCachePet(id, formatoFotos, tamanhoFotos), chave -> {
+            Pet pet = petRepository.findById(id)
+                    .orElseThrow(() -> new PetNaoEncontradoException(String.format("Pet %s não encontrado", id.toString())));
+
+            return toDTO(Collections.singletonList(pet), formatoFotos, tamanhoFotos).get(id);
+        });
+    }
+
+    @Override
+    public List<CorrespondenciaPetDTO> buscarCorrespondencias(UUID id, FormatoFoto formatoFotos, TamanhoFoto tamanhoFotos) throws PetNaoEncontradoException {
+        if (!petRepository.existsById(id)) {
+            throw new PetNaoEncontradoException(String.format("Pet %s não encontrado", id));
+        }
+
+        List<CorrespondenciaPet> correspondencias = correspondenciaPetService.buscar(id);
+        Map<UUID, PetRespostaDTO> petsDTO = buscarPorIds(correspondencias.stream()
+                .map(CorrespondenciaPet::getCandidatoId)
+                .collect(Collectors.toList()), formatoFotos, tamanhoFotos);
+
+        return correspondencias.stream()
+                .filter(correspondencia -> petsDTO.containsKey(correspondencia.getCandidatoId()))
+                .map(correspondencia -> new CorrespondenciaPetDTO(
+                        comDistancia(petsDTO.get(correspondencia.getCandidatoId()), correspondencia.getDistancia()),
+                        correspondencia.getPontuacao()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Pets ativos com alguma foto parecida com a foto informada, do mais parecido para o menos, contando apenas a foto
+     * mais próxima de cada pet. O próprio pet fica de fora. O hash da foto é calculado pelo índice depois que o pet é
+     * salvo; até lá a busca responde que a foto ainda não foi indexada em vez de calcular o hash na requisição.
+     */
+    @Override
+    public List<PetSimilarDTO> buscarSimilares(UUID id, UUID fotoId, FormatoFoto formatoFotos, TamanhoFoto tamanhoFotos) throws FotoNaoEncontradaException {
+        Foto foto = fotoRepository.findOneByIdAndPetId(fotoId, id)
+                .orElseThrow(() -> new FotoNaoEncontradaException(String.format("Foto %s do pet %s não encontrada", fotoId, id)));
+
+        Long hash = foto.getHashPerceptual();
+        if (hash == null) {
+            throw new ServicoIndisponivelException(String.format(
+                    "A foto %s ainda não foi indexada, tente novamente em instantes.", fotoId));
+        }
+
+        Map<UUID, FotoSimilar> maisProximaPorPet = new LinkedHashMap<>();
+        similaridadeFotoService.buscar(hash, distanciaMaximaSimilares).stream()
+                .filter(similar -> !id.equals(similar.getFoto().getPetId()))
+                .forEach(similar -> maisProximaPorPet.putIfAbsent(similar.getFoto().getPetId(), similar));
+
+        List<FotoSimilar> similares = maisProximaPorPet.values().stream()
+                .limit(maximoSimilares)
+                .collect(Collectors.toList());
+        Map<UUID, PetRespostaDTO> petsDTO = buscarPorIds(similares.stream()
+                .map(similar -> similar.getFoto().getPetId())
+                .collect(Collectors.toList()), formatoFotos, tamanhoFotos);
+
+        return similares.stream()
+                .filter(similar -> petsDTO.containsKey(similar.getFoto().getPetId()))
+                .map(similar -> new PetSimilarDTO(petsDTO.get(similar.getFoto().getPetId()),
+                        similar.getFoto().getFotoId(),
+                        similar.getDistancia(),
+                        similar.getDistancia() <= distanciaMaximaDuplicata))
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -121,7 +404,7 @@ public class PetServiceImpl implements PetService {
 
         Localizacao localizacao = null;
         if (petDTO.getLocalizacao() != null) {
-            localizacao = localizacaoRepository.saveAndFlush(petDTO.getLocalizacao());
+            localizacao = localizacaoRepository.save(petDTO.getLocalizacao());
         }
 
         if (petDTO.getId() != null) {
@@ -132,20 +415,23 @@ public class PetServiceImpl implements PetService {
             }
         }
 
-        final Pet pet = petRepository.saveAndFlush(petMapper.toEntity(petDTO, localizacao, usuario));
+        // A localização e as fotos ficam em outras tabelas; a data do pet precisa mudar junto para invalidar o ETag.
+        Pet entidade = petMapper.toEntity(petDTO, localizacao, usuario);
+        entidade.setDataAtualizacao(LocalDateTime.now());
+        final Pet pet = petRepository.save(entidade);
 
-        fotoRepository.findByPetId(pet.getId()).forEach(foto -> {
-            fotoRepository.delete(foto);
-        });
+        fotoRepository.deleteByPetId(pet.getId());
 
         List<byte[]> fotos = new ArrayList<>();
+        List<Foto> entidadesFotos = new ArrayList<>();
         for (byte[] f : petDTO.getFotos()) {
-            Foto foto = new Foto();
-            foto.setImage(f);
-            foto.setPet(pet);
-
-            fotos.add(fotoRepository.saveAndFlush(foto).getImage());
+            entidadesFotos.add(fotoService.criar(pet, f));
+            fotos.add(f);
         }
+        fotoRepository.saveAll(entidadesFotos);
+        correspondenciaPetService.atualizar(pet);
+
+        eventPublisher.publishEvent(new PetAlteradoEvent(pet.getId()));
 
         return petMapper.toDTO(pet, fotos);
     }
@@ -157,11 +443,198 @@ public class PetServiceImpl implements PetService {
 
         pet.setAtivo(false);
         petRepository.save(pet);
+        correspondenciaPetService.atualizar(pet);
+
+        eventPublisher.publishEvent(new PetAlteradoEvent(id));
+    }
+
+    /**
+     * Busca por raio ordenada por distância respondida pelo índice em memória. O banco desempata pelo id em ordem
+     * crescente nos dois sentidos, e a ordenação estável preserva esse desempate ao inverter.
+     */
+    private Page<PetRespostaDTO> buscarNoIndice(FiltroPetDTO filtro,
+                                                PageRequest paginacao,
+                                                FormatoFoto formatoFotos,
+                                                TamanhoFoto tamanhoFotos) {
+        List<PetProximo> proximos = indiceGeograficoPetService.buscarNoRaio(filtro);
+        if (paginacao.getSort().getOrderFor(CAMPO_DISTANCIA).isDescending()) {
+            proximos.sort(Comparator.comparingDouble(PetProximo::getDistancia).reversed());
+        }
+
+        List<PetProximo> pagina = proximos.stream()
+                .skip(paginacao.getOffset())
+                .limit(paginacao.getPageSize())
+                .collect(Collectors.toList());
+
+        return new PageImpl<>(comDistancias(pagina, formatoFotos, tamanhoFotos), paginacao, proximos.size());
+    }
+
+    private List<PetRespostaDTO> comDistancias(List<PetProximo> proximos, FormatoFoto formatoFotos, TamanhoFoto tamanhoFotos) {
+        Map<UUID, PetRespostaDTO> petsDTO = buscarPorIds(proximos.stream()
+                .map(PetProximo::getPetId)
+                .collect(Collectors.toList()), formatoFotos, tamanhoFotos);
+
+        return proximos.stream()
+                .filter(proximo -> petsDTO.containsKey(proximo.getPetId()))
+                .map(proximo -> comDistancia(petsDTO.get(proximo.getPetId()), proximo.getDistancia()))
+                .collect(Collectors.toList());
+    }
+
+    private double[] lerArea(String area) {
+        String[] partes = area.split(",");
+        if (partes.length != 4) {
+            throw new ErroAoProcessarException("A área deve ter o formato minLongitude,minLatitude,maxLongitude,maxLatitude");
+        }
+
+        double[] limites = new double[4];
+        try {
+            for (int i = 0; i < 4; i++) {
+                limites[i] = Double.parseDouble(partes[i].trim());
+                if (!Double.isFinite(limites[i])) {
+                    throw new ErroAoProcessarException(String.format("Área %s inválida", area));
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new ErroAoProcessarException(String.format("Área %s inválida", area));
+        }
+
+        if (limites[1] > limites[3] || Math.abs(limites[1]) > 90 || Math.abs(limites[3]) > 90
+                || Math.abs(limites[0]) > 180 || Math.abs(limites[2]) > 180) {
+            throw new ErroAoProcessarException(String.format("Área %s inválida", area));
+        }
+
+        return limites;
+    }
+
+    private AreaDeBusca criarArea(double latitudeMinima, double latitudeMaxima, double longitudeMinima, double longitudeMaxima) {
+        return new AreaDeBusca(BigDecimal.valueOf(latitudeMinima), BigDecimal.valueOf(latitudeMaxima),
+                BigDecimal.valueOf(longitudeMinima), BigDecimal.valueOf(longitudeMaxima));
+    }
+
+    private FiltroPetDTO montarFiltro(String nome,
+                                      String texto,
+                                      LocalDate dataAchado,
+                                      Especie especie,
+                                      Porte porte,
+                                      Sexo sexo,
+                                      Status status,
+                                      Idade idade,
+                                      TipoPesquisaLocalidade tipoPesquisaLocalidade,
+                                      String cidade,
+                                      String estado,
+                                      String latitude,
+                                      String longitude,
+                                      Double raioDistancia) {
+        boolean pesquisaPorCidadeEstado = TipoPesquisaLocalidade.CIDADE_ESTADO.equals(tipoPesquisaLocalidade);
+
+        return FiltroPetDTO.builder()
+                .nome(nome == null ? null : nome.toLowerCase())
+                .texto(texto == null ? null : texto.trim().toLowerCase())
+                .dataAchado(dataAchado)
+                .especie(especie)
+                .porte(porte)
+                .sexo(sexo)
+                .status(status)
+                .idade(idade)
+                .cidade(pesquisaPorCidadeEstado && cidade != null ? cidade.toLowerCase() : null)
+                .estado(pesquisaPorCidadeEstado && estado != null ? estado.toLowerCase() : null)
+                .latitude(latitude != null ? Double.valueOf(latitude) : null)
+                .longitude(longitude != null ? Double.valueOf(longitude) : null)
+                .raioDistancia(raioDistancia)
+                .build();
+    }
+
+    /**
+     * Os DTOs podem ter vindo do cache e ser compartilhados entre requisições, então a distância,
+     * que depende de quem busca, vai numa cópia.
+     */
+    private PetRespostaDTO comDistancia(PetRespostaDTO petDTO, Double distancia) {
+        if (distancia == null) {
+            return petDTO;
+        }
+
+        return petDTO.toBuilder().distancia(BigDecimal.valueOf(distancia)).build();
+    }
+
+    private Map<UUID, PetRespostaDTO> buscarPorIds(List<UUID> ids, FormatoFoto formatoFotos, TamanhoFoto tamanhoFotos) {
+        List<ChaveCachePet> chaves = ids.stream()
+                .map(id -> new ChaveCachePet(id, formatoFotos, tamanhoFotos))
+                .collect(Collectors.toList());
+
+        long versao = versaoBuscaPet.atual();
+        Map<UUID, PetRespostaDTO> petsDTO = new HashMap<>();
+        cachePet.getAllPresent(chaves).forEach((chave, petDTO) -> petsDTO.put(chave.getId(), petDTO));
+
+        List<UUID> idsFaltantes = ids.stream()
+                .filter(id -> !petsDTO.containsKey(id))
+                .collect(Collectors.toList());
+        if (!idsFaltantes.isEmpty()) {
+            Map<UUID, PetRespostaDTO> carregados = toDTO(petRepository.findAllById(idsFaltantes), formatoFotos, tamanhoFotos);
+            guardarNoCache(carregados, formatoFotos, tamanhoFotos, versao);
+            petsDTO.putAll(carregados);
+        }
+
+        return petsDTO;
+    }
+
+    /**
+     * Guarda pets lidos do banco a partir da versão informada. A invalidação pode ter acontecido entre a leitura e o
+     * put; como o invalidador incrementa a versão antes de remover, conferir a versão depois do put garante que um dos
+     * dois lados tira o valor antigo do cache.
+     */
+    private void guardarNoCache(Map<UUID, PetRespostaDTO> petsDTO, FormatoFoto formatoFotos, TamanhoFoto tamanhoFotos, long versao) {
+        Map<ChaveCachePet, PetRespostaDTO> entradas = new HashMap<>();
+        petsDTO.forEach((id, petDTO) -> entradas.put(new ChaveCachePet(id, formatoFotos, tamanhoFotos), petDTO));
+
+        cachePet.putAll(entradas);
+        if (versao != versaoBuscaPet.atual()) {
+            cachePet.invalidateAll(entradas.keySet());
+        }
+    }
+
+    private Double distanciaAte(FiltroPetDTO filtro, PetRespostaDTO petDTO) {
+        if (!filtro.possuiCoordenadas() || petDTO.getLocalizacao() == null
+                || petDTO.getLocalizacao().getLatitude() == null || petDTO.getLocalizacao().getLongitude() == null) {
+            return null;
+        }
+
+        return DistanciaGeografica.emQuilometros(filtro.getLatitude(), filtro.getLongitude(),
+                petDTO.getLocalizacao().getLatitude().doubleValue(), petDTO.getLocalizacao().getLongitude().doubleValue());
+    }
+
+    private Double arredondar(Double coordenada) {
+        if (coordenada == null) {
+            return null;
+        }
+
+        return BigDecimal.valueOf(coordenada)
+                .setScale(casasDecimaisCoordenadas, RoundingMode.HALF_UP)
+                .doubleValue();
+    }
+
+    private Map<UUID, PetRespostaDTO> toDTO(List<Pet> pets, FormatoFoto formatoFotos, TamanhoFoto tamanhoFotos) {
+        List<UUID> ids = pets.stream().map(Pet::getId).collect(Collectors.toList());
+        Map<UUID, PetRespostaDTO> petsDTO = new HashMap<>();
+
+        if (FormatoFoto.URL.equals(formatoFotos)) {
+            Map<UUID, List<String>> urlsPorPet = fotoService.buscarUrlsPorPets(ids, tamanhoFotos);
+
+            pets.forEach(pet -> petsDTO.put(pet.getId(), petMapper.toDTO(pet, null).toBuilder()
+                    .urlsFotos(urlsPorPet.getOrDefault(pet.getId(), new ArrayList<>()))
+                    .build()));
+        } else {
+            Map<UUID, List<byte[]>> fotosPorPet = fotoService.buscarConteudoPorPets(ids, tamanhoFotos);
+
+            pets.forEach(pet -> petsDTO.put(pet.getId(),
+                    petMapper.toDTO(pet, fotosPorPet.getOrDefault(pet.getId(), new ArrayList<>()))));
+        }
+
+        return petsDTO;
     }
 
-    private Usuario currentUser() {
+    private UsuarioAutenticado currentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
-        return (Usuario) authentication.getPrincipal();
+        return (UsuarioAutenticado) authentication.getPrincipal();
     }
 }
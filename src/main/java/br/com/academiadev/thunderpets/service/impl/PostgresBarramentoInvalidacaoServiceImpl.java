@@ -0,0 +1,181 @@
+package br.com.academiadev.thunderpets.service.impl;
+
+import br.com.academiadev.thunderpets.enums.EntidadeInvalidada;
+import br.com.academiadev.thunderpets.event.InvalidacaoRemotaEvent;
+import br.com.academiadev.thunderpets.event.PetAlteradoEvent;
+import br.com.academiadev.thunderpets.event.TokenRevogadoEvent;
+import br.com.academiadev.thunderpets.event.UsuarioAlteradoEvent;
+import br.com.academiadev.thunderpets.service.BarramentoInvalidacaoService;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Propaga alterações de entidades entre as instâncias da aplicação com NOTIFY/LISTEN do PostgreSQL.
+ * O NOTIFY é emitido dentro da transação que fez a alteração, então só chega às outras instâncias se ela
+ * for confirmada. Cada instância escuta o canal numa conexão própria, fora do pool.
+ */
+@Service
+public class PostgresBarramentoInvalidacaoServiceImpl implements BarramentoInvalidacaoService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PostgresBarramentoInvalidacaoServiceImpl.class);
+    private static final Pattern CANAL_VALIDO = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final String SEPARADOR = ":";
+    private static final int ESPERA_NOTIFICACOES_MS = 1000;
+
+    private final String instancia = UUID.randomUUID().toString();
+
+    private JdbcTemplate jdbcTemplate;
+    private ApplicationEventPublisher eventPublisher;
+    private boolean habilitado;
+    private String canal;
+    private long intervaloReconexao;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String usuario;
+
+    @Value("${spring.datasource.password}")
+    private String senha;
+
+    private volatile boolean ouvindo;
+    private Thread ouvinte;
+
+    @Autowired
+    public PostgresBarramentoInvalidacaoServiceImpl(JdbcTemplate jdbcTemplate,
+                                                    ApplicationEventPublisher eventPublisher,
+                                                    @Value("${invalidacao.habilitada}") boolean habilitado,
+                                                    @Value("${invalidacao.canal}") String canal,
+                                                    @Value("${invalidacao.intervalo-reconexao-ms}") long intervaloReconexao) {
+        if (!CANAL_VALIDO.matcher(canal).matches()) {
+            throw new IllegalArgumentException(String.format("Canal de invalidação %s inválido", canal));
+        }
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.habilitado = habilitado;
+        this.canal = canal;
+        this.intervaloReconexao = intervaloReconexao;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void aoAlterarPet(PetAlteradoEvent evento) {
+        notificar(EntidadeInvalidada.PET, evento.getId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void aoAlterarUsuario(UsuarioAlteradoEvent evento) {
+        notificar(EntidadeInvalidada.USUARIO, evento.getId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void aoRevogarToken(TokenRevogadoEvent evento) {
+        notificar(EntidadeInvalidada.TOKEN, evento.getJti());
+    }
+
+    @Override
+    public void notificar(EntidadeInvalidada entidade, UUID id) {
+        if (!habilitado) {
+            return;
+        }
+
+        String mensagem = String.join(SEPARADOR, instancia, entidade.name(), id.toString());
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSetExtractor<Void>) resultado -> null, canal, mensagem);
+    }
+
+    @Override
+    public void receber(String mensagem) {
+        String[] partes = mensagem.split(SEPARADOR);
+
+        if (partes.length != 3 || instancia.equals(partes[0])) {
+            return;
+        }
+
+        try {
+            eventPublisher.publishEvent(new InvalidacaoRemotaEvent(
+                    EntidadeInvalidada.valueOf(partes[1]), UUID.fromString(partes[2])));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Mensagem de invalidação ignorada: {}", mensagem);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+
+        ouvindo = true;
+        ouvinte = new Thread(this::ouvir, "barramento-invalidacao");
+        ouvinte.setDaemon(true);
+        ouvinte.start();
+    }
+
+    @PreDestroy
+    public void parar() throws InterruptedException {
+        ouvindo = false;
+
+        if (ouvinte != null) {
+            ouvinte.join(2L * ESPERA_NOTIFICACOES_MS);
+        }
+    }
+
+    private void ouvir() {
+        while (ouvindo) {
+            try (Connection conexao = DriverManager.getConnection(url, usuario, senha)) {
+                try (Statement statement = conexao.createStatement()) {
+                    statement.execute("LISTEN " + canal);
+                }
+
+                // O que mudou enquanto esta instância não escutava o canal não será notificado.
+                for (EntidadeInvalidada entidade : EntidadeInvalidada.values()) {
+                    eventPublisher.publishEvent(new InvalidacaoRemotaEvent(entidade, null));
+                }
+
+                PGConnection conexaoPostgres = conexao.unwrap(PGConnection.class);
+                while (ouvindo) {
+                    PGNotification[] notificacoes = conexaoPostgres.getNotifications(ESPERA_NOTIFICACOES_MS);
+
+                    if (notificacoes != null) {
+                        for (PGNotification notificacao : notificacoes) {
+                            receber(notificacao.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                LOGGER.warn("Conexão do barramento de invalidação perdida, reconectando em {} ms", intervaloReconexao, e);
+                aguardarReconexao();
+            }
+        }
+    }
+
+    private void aguardarReconexao() {
+        try {
+            Thread.sleep(intervaloReconexao);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ouvindo = false;
+        }
+    }
+}
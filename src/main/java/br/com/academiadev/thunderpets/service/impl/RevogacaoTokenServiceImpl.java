@@ -0,0 +1,109 @@
+package br.com.academiadev.thunderpets.service.impl;
+
+import br.com.academiadev.thunderpets.enums.EntidadeInvalidada;
+import br.com.academiadev.thunderpets.event.InvalidacaoRemotaEvent;
+import br.com.academiadev.thunderpets.event.TokenRevogadoEvent;
+import br.com.academiadev.thunderpets.model.TokenRevogado;
+import br.com.academiadev.thunderpets.repository.TokenRevogadoRepository;
+import br.com.academiadev.thunderpets.service.RevogacaoTokenService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mantém em memória os tokens revogados que ainda não expiraram, para que a validação de um JWT continue sem
+ * consultar o banco. A tabela token_revogado só é lida ao iniciar e quando outra instância revoga um token.
+ */
+@Service
+public class RevogacaoTokenServiceImpl implements RevogacaoTokenService {
+
+    private final Cache<UUID, LocalDateTime> revogados = Caffeine.newBuilder()
+            .expireAfter(new ExpiracaoDoToken())
+            .build();
+
+    private TokenRevogadoRepository tokenRevogadoRepository;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public RevogacaoTokenServiceImpl(TokenRevogadoRepository tokenRevogadoRepository,
+                                     ApplicationEventPublisher eventPublisher) {
+        this.tokenRevogadoRepository = tokenRevogadoRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void revogar(UUID jti, Date expiracao) {
+        LocalDateTime dataExpiracao = LocalDateTime.ofInstant(expiracao.toInstant(), ZoneId.systemDefault());
+
+        tokenRevogadoRepository.saveAndFlush(new TokenRevogado(jti, dataExpiracao));
+        revogados.put(jti, dataExpiracao);
+        eventPublisher.publishEvent(new TokenRevogadoEvent(jti));
+    }
+
+    @Override
+    public boolean isRevogado(UUID jti) {
+        return jti != null && revogados.getIfPresent(jti) != null;
+    }
+
+    @Override
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        LocalDateTime agora = LocalDateTime.now();
+
+        tokenRevogadoRepository.excluirExpiradosAntesDe(agora);
+        lerRevogados(agora);
+    }
+
+    @EventListener
+    public void aoRevogarEmOutraInstancia(InvalidacaoRemotaEvent evento) {
+        if (evento.getEntidade() != EntidadeInvalidada.TOKEN) {
+            return;
+        }
+
+        if (evento.isTodas()) {
+            lerRevogados(LocalDateTime.now());
+        } else {
+            tokenRevogadoRepository.findById(evento.getId())
+                    .ifPresent(token -> revogados.put(token.getJti(), token.getExpiracao()));
+        }
+    }
+
+    private void lerRevogados(LocalDateTime agora) {
+        tokenRevogadoRepository.findByExpiracaoAfter(agora)
+                .forEach(token -> revogados.put(token.getJti(), token.getExpiracao()));
+    }
+
+    private static class ExpiracaoDoToken implements Expiry<UUID, LocalDateTime> {
+
+        @Override
+        public long expireAfterCreate(UUID jti, LocalDateTime expiracao, long agora) {
+            long restante = TimeUnit.MILLISECONDS.toNanos(
+                    expiracao.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() - System.currentTimeMillis());
+
+            return Math.max(restante, 0);
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID jti, LocalDateTime expiracao, long agora, long duracaoAtual) {
+            return expireAfterCreate(jti, expiracao, agora);
+        }
+
+        @Override
+        public long expireAfterRead(UUID jti, LocalDateTime expiracao, long agora, long duracaoAtual) {
+            return duracaoAtual;
+        }
+    }
+}
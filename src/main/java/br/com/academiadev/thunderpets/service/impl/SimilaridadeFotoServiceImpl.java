@@ -0,0 +1,250 @@
+package br.com.academiadev.thunderpets.service.impl;
+
+import br.com.academiadev.thunderpets.enums.EntidadeInvalidada;
+import br.com.academiadev.thunderpets.event.InvalidacaoRemotaEvent;
+import br.com.academiadev.thunderpets.event.PetAlteradoEvent;
+import br.com.academiadev.thunderpets.model.Foto;
+import br.com.academiadev.thunderpets.model.Pet;
+import br.com.academiadev.thunderpets.repository.FotoRepository;
+import br.com.academiadev.thunderpets.repository.PetRepository;
+import br.com.academiadev.thunderpets.service.BlobStoreService;
+import br.com.academiadev.thunderpets.service.ImagemService;
+import br.com.academiadev.thunderpets.service.SimilaridadeFotoService;
+import br.com.academiadev.thunderpets.similaridade.ArvoreBK;
+import br.com.academiadev.thunderpets.similaridade.FotoIndexada;
+import br.com.academiadev.thunderpets.similaridade.FotoSimilar;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Índice em memória dos hashes perceptuais das fotos dos pets ativos. Depois que um pet é salvo, uma thread própria
+ * calcula os hashes que faltam, grava na foto e troca as entradas do pet na árvore BK. Entradas de pets alterados
+ * ficam na árvore até a próxima reconstrução, mas são ignoradas na busca.
+ */
+@Service
+public class SimilaridadeFotoServiceImpl implements SimilaridadeFotoService, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SimilaridadeFotoServiceImpl.class);
+
+    private FotoRepository fotoRepository;
+    private PetRepository petRepository;
+    private BlobStoreService blobStoreService;
+    private ImagemService imagemService;
+    private TransactionTemplate transactionTemplate;
+    private boolean habilitado;
+    private ThreadPoolExecutor executor;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean carregamentoPendente = new AtomicBoolean();
+    private final AtomicBoolean recargaNecessaria = new AtomicBoolean();
+    private ArvoreBK<FotoIndexada> arvore = new ArvoreBK<>();
+    private Map<UUID, List<FotoIndexada>> fotosPorPet = new HashMap<>();
+    private int fotosAtivas;
+
+    @Autowired
+    public SimilaridadeFotoServiceImpl(FotoRepository fotoRepository,
+                                       PetRepository petRepository,
+                                       BlobStoreService blobStoreService,
+                                       ImagemService imagemService,
+                                       TransactionTemplate transactionTemplate,
+                                       @Value("${similaridade-foto.habilitada}") boolean habilitado,
+                                       @Value("${similaridade-foto.tamanho-fila}") int tamanhoFila) {
+        this.fotoRepository = fotoRepository;
+        this.petRepository = petRepository;
+        this.blobStoreService = blobStoreService;
+        this.imagemService = imagemService;
+        this.transactionTemplate = transactionTemplate;
+        this.habilitado = habilitado;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(tamanhoFila));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoIniciar() {
+        agendarCarregamento();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarPet(PetAlteradoEvent evento) {
+        agendar(() -> indexar(evento.getId()));
+    }
+
+    @EventListener
+    public void aoAlterarPetEmOutraInstancia(InvalidacaoRemotaEvent evento) {
+        if (evento.getEntidade() != EntidadeInvalidada.PET) {
+            return;
+        }
+
+        if (evento.isTodas()) {
+            agendarCarregamento();
+        } else {
+            agendar(() -> indexar(evento.getId()));
+        }
+    }
+
+    @Override
+    public void indexar(UUID petId) {
+        List<FotoIndexada> fotos = transactionTemplate.execute(status -> {
+            Pet pet = petRepository.findById(petId).orElse(null);
+            if (pet == null || !pet.isAtivo()) {
+                return Collections.<FotoIndexada>emptyList();
+            }
+
+            List<FotoIndexada> indexadas = new ArrayList<>();
+            fotoRepository.findByPetId(petId).forEach(foto -> {
+                Long hash = hashPerceptual(foto);
+                if (hash != null) {
+                    indexadas.add(new FotoIndexada(foto.getId(), petId, hash));
+                }
+            });
+
+            return indexadas;
+        });
+
+        lock.writeLock().lock();
+        try {
+            List<FotoIndexada> anteriores = fotos.isEmpty() ? fotosPorPet.remove(petId) : fotosPorPet.put(petId, fotos);
+            fotosAtivas += fotos.size() - (anteriores == null ? 0 : anteriores.size());
+            fotos.forEach(foto -> arvore.adicionar(foto.getHash(), foto));
+
+            if (arvore.getTamanho() > 2 * fotosAtivas + 100) {
+                reconstruir();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Long hashPerceptual(Foto foto) {
+        if (foto.getHashPerceptual() != null) {
+            return foto.getHashPerceptual();
+        }
+
+        String hashConteudo = foto.getHashMiniatura() != null ? foto.getHashMiniatura() : foto.getHashImagem();
+        Long hash = blobStoreService.buscar(hashConteudo).map(imagemService::hashPerceptual).orElse(null);
+
+        if (hash != null) {
+            fotoRepository.atualizarHashPerceptual(foto.getId(), hash);
+            foto.setHashPerceptual(hash);
+        }
+
+        return hash;
+    }
+
+    @Override
+    public List<FotoSimilar> buscar(long hash, int distanciaMaxima) {
+        List<FotoSimilar> similares = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            arvore.buscar(hash, distanciaMaxima, (foto, distancia) -> {
+                List<FotoIndexada> atuais = fotosPorPet.get(foto.getPetId());
+                if (atuais != null && atuais.contains(foto)) {
+                    similares.add(new FotoSimilar(foto, distancia));
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        similares.sort(Comparator.comparingInt(FotoSimilar::getDistancia));
+        return similares;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void agendarCarregamento() {
+        if (carregamentoPendente.compareAndSet(false, true) && !agendar(this::carregar)) {
+            carregamentoPendente.set(false);
+        }
+    }
+
+    /**
+     * Recarrega o índice com as fotos que já têm hash e depois calcula os hashes das fotos pendentes, pet a pet.
+     */
+    private void carregar() {
+        carregamentoPendente.set(false);
+
+        List<FotoIndexada> fotos = transactionTemplate.execute(status -> fotoRepository.buscarIndexadas());
+        lock.writeLock().lock();
+        try {
+            fotosPorPet = fotos.stream().collect(Collectors.groupingBy(FotoIndexada::getPetId));
+            fotosAtivas = fotos.size();
+            reconstruir();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<UUID> pendentes = transactionTemplate.execute(status -> fotoRepository.buscarPetsComHashPerceptualPendente());
+        pendentes.forEach(this::indexar);
+
+        LOGGER.info("Índice de similaridade carregado com {} fotos; {} pets tiveram hashes calculados",
+                fotos.size(), pendentes.size());
+    }
+
+    private void reconstruir() {
+        ArvoreBK<FotoIndexada> novaArvore = new ArvoreBK<>();
+        fotosPorPet.values().forEach(fotos -> fotos.forEach(foto -> novaArvore.adicionar(foto.getHash(), foto)));
+        arvore = novaArvore;
+    }
+
+    private boolean agendar(Runnable tarefa) {
+        if (!habilitado) {
+            return false;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    tarefa.run();
+                } catch (RuntimeException e) {
+                    LOGGER.error("Erro ao atualizar o índice de similaridade de fotos", e);
+                }
+                recarregarSeNecessario();
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Fila do índice de similaridade cheia, o índice será recarregado quando a fila esvaziar");
+            recargaNecessaria.set(true);
+            recarregarSeNecessario();
+            return false;
+        }
+    }
+
+    /**
+     * Uma tarefa descartada com a fila cheia deixaria o pet com o índice desatualizado; em vez de guardar cada pet, o
+     * índice inteiro é recarregado assim que a fila esvazia.
+     */
+    private void recarregarSeNecessario() {
+        if (executor.getQueue().isEmpty() && recargaNecessaria.compareAndSet(true, false)) {
+            agendarCarregamento();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.academiadev.thunderpets.service.impl;
+
+import br.com.academiadev.thunderpets.dto.CredenciaisUsuarioDTO;
+import br.com.academiadev.thunderpets.event.UsuarioAlteradoEvent;
+import br.com.academiadev.thunderpets.model.UsuarioAutenticado;
+import br.com.academiadev.thunderpets.repository.UsuarioRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
+
+    private UsuarioRepository usuarioRepository;
+    private Cache<String, CredenciaisUsuarioDTO> cacheUsuario;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public UserDetailsServiceImpl(UsuarioRepository usuarioRepository,
+                                  Cache<String, CredenciaisUsuarioDTO> cacheUsuario,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.usuarioRepository = usuarioRepository;
+        this.cacheUsuario = cacheUsuario;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Cada chamada devolve uma nova instância, porque a senha do principal é apagada depois da autenticação
+     * e as credenciais em cache são compartilhadas entre as requisições.
+     */
+    @Override
+    public UserDetails loadUserByUsername(String email) {
+        CredenciaisUsuarioDTO credenciais = cacheUsuario.get(email, chave -> usuarioRepository
+                .buscarCredenciaisPorEmail(chave)
+                .orElse(null));
+
+        if (credenciais == null) {
+            throw new UsernameNotFoundException(String.format("Usuário %s não encontrado.", email));
+        }
+
+        return new UsuarioAutenticado(credenciais);
+    }
+
+    /**
+     * Chamado pelo DaoAuthenticationProvider depois de um login correto quando o hash foi gerado com outro custo.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String novaSenha) {
+        UsuarioAutenticado usuario = (UsuarioAutenticado) user;
+
+        usuarioRepository.atualizarSenha(usuario.getId(), novaSenha);
+        eventPublisher.publishEvent(new UsuarioAlteradoEvent(usuario.getId()));
+
+        return new UsuarioAutenticado(new CredenciaisUsuarioDTO(
+                usuario.getId(), usuario.getEmail(), usuario.getNome(), novaSenha, usuario.isAtivo()));
+    }
+}
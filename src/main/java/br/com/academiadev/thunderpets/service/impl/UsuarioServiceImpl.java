@@ -1,32 +1,44 @@
 package br.com.academiadev.thunderpets.service.impl;
 
+import br.com.academiadev.thunderpets.dto.ConteudoFotoDTO;
 import br.com.academiadev.thunderpets.dto.PetRespostaDTO;
 import br.com.academiadev.thunderpets.dto.UsuarioDTO;
 import br.com.academiadev.thunderpets.dto.UsuarioRespostaDTO;
+import br.com.academiadev.thunderpets.enums.TamanhoFoto;
+import br.com.academiadev.thunderpets.event.UsuarioAlteradoEvent;
 import br.com.academiadev.thunderpets.exception.*;
 import br.com.academiadev.thunderpets.mapper.ContatoMapper;
 import br.com.academiadev.thunderpets.mapper.PetMapper;
 import br.com.academiadev.thunderpets.mapper.UsuarioMapper;
 import br.com.academiadev.thunderpets.model.Contato;
-import br.com.academiadev.thunderpets.model.Foto;
+import br.com.academiadev.thunderpets.model.Pet;
 import br.com.academiadev.thunderpets.model.RecuperarSenha;
 import br.com.academiadev.thunderpets.model.Usuario;
+import br.com.academiadev.thunderpets.model.UsuarioAutenticado;
 import br.com.academiadev.thunderpets.repository.*;
+import br.com.academiadev.thunderpets.service.BlobStoreService;
 import br.com.academiadev.thunderpets.service.EmailService;
+import br.com.academiadev.thunderpets.service.FotoService;
 import br.com.academiadev.thunderpets.service.UsuarioService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -39,11 +51,14 @@ public class UsuarioServiceImpl implements UsuarioService {
     private PetRepository petRepository;
     private ContatoRepository contatoRepository;
     private RecuperarSenhaRepository recuperarSenhaRepository;
-    private FotoRepository fotoRepository;
+    private FotoService fotoService;
+    private BlobStoreService blobStoreService;
     private UsuarioMapper usuarioMapper;
     private PetMapper petMapper;
     private ContatoMapper contatoMapper;
     private EmailService emailService;
+    private ApplicationEventPublisher eventPublisher;
+    private PasswordEncoder passwordEncoder;
 
     @Value("${server.front-url}")
     private String frontUrl;
@@ -53,20 +68,26 @@ public class UsuarioServiceImpl implements UsuarioService {
                               PetRepository petRepository,
                               ContatoRepository contatoRepository,
                               RecuperarSenhaRepository recuperarSenhaRepository,
-                              FotoRepository fotoRepository,
+                              FotoService fotoService,
+                              BlobStoreService blobStoreService,
                               UsuarioMapper usuarioMapper,
                               PetMapper petMapper,
                               ContatoMapper contatoMapper,
-                              EmailService emailService) {
+                              EmailService emailService,
+                              ApplicationEventPublisher eventPublisher,
+                              PasswordEncoder passwordEncoder) {
         this.usuarioRepository = usuarioRepository;
         this.petRepository = petRepository;
         this.contatoRepository = contatoRepository;
         this.recuperarSenhaRepository = recuperarSenhaRepository;
-        this.fotoRepository = fotoRepository;
+        this.fotoService = fotoService;
+        this.blobStoreService = blobStoreService;
         this.usuarioMapper = usuarioMapper;
         this.petMapper = petMapper;
         this.contatoMapper = contatoMapper;
         this.emailService = emailService;
+        this.eventPublisher = eventPublisher;
+        this.passwordEncoder = passwordEncoder;
     }
 
     @Override
@@ -87,35 +108,42 @@ public class UsuarioServiceImpl implements UsuarioService {
     }
 
     @Override
+    @Transactional
     public UsuarioRespostaDTO salvar(UsuarioDTO usuarioDTO) {
         if (usuarioDTO.getId() == null) {
-            usuarioDTO.setSenha(new BCryptPasswordEncoder().encode(usuarioDTO.getSenha()));
+            usuarioDTO.setSenha(passwordEncoder.encode(usuarioDTO.getSenha()));
             usuarioDTO.setAtivo(true);
         } else {
             Object usuarioLogado = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
-            if (usuarioLogado instanceof Usuario
-                    && ((Usuario) usuarioLogado).getId().equals(usuarioDTO.getId())) {
+            if (usuarioLogado instanceof UsuarioAutenticado
+                    && ((UsuarioAutenticado) usuarioLogado).getId().equals(usuarioDTO.getId())) {
                 if (usuarioDTO.getSenha() == null) {
-                    usuarioDTO.setSenha(((Usuario) usuarioLogado).getSenha());
+                    usuarioDTO.setSenha(usuarioRepository.findById(usuarioDTO.getId())
+                            .map(Usuario::getSenha)
+                            .orElseThrow(() -> new UsuarioNaoEncontradoException(
+                                    String.format("Usuário %s não encontrado.", usuarioDTO.getId()))));
                 } else {
-                    usuarioDTO.setSenha(new BCryptPasswordEncoder().encode(usuarioDTO.getSenha()));
+                    usuarioDTO.setSenha(passwordEncoder.encode(usuarioDTO.getSenha()));
                 }
             } else {
                 throw new NaoPermitidoException("Você não tem permissão para atualizar dados de outro usuário");
             }
         }
 
-        final Usuario usuario = usuarioRepository
-                .saveAndFlush(usuarioMapper.toEntity(usuarioDTO));
+        Usuario usuarioComFoto = usuarioMapper.toEntity(usuarioDTO);
+        guardarFoto(usuarioComFoto);
 
-        Set<Contato> contatosDoUsuario = contatoRepository.findByUsuario(usuario);
-        contatosDoUsuario.forEach(contatoRepository::delete);
+        final Usuario usuario = usuarioRepository.saveAndFlush(usuarioComFoto);
 
-        usuarioDTO.getContatos().forEach(contatoDTO -> contatoRepository.save(
-                contatoMapper.toEntity(contatoDTO, usuario)));
+        contatoRepository.deleteByUsuarioId(usuario.getId());
 
-        return usuarioMapper.toDTO(usuario, contatoRepository.findByUsuario(usuario));
+        Set<Contato> contatos = new HashSet<>(contatoRepository.saveAll(usuarioDTO.getContatos().stream()
+                .map(contatoDTO -> contatoMapper.toEntity(contatoDTO, usuario))
+                .collect(Collectors.toList())));
+        eventPublisher.publishEvent(new UsuarioAlteradoEvent(usuario.getId()));
+
+        return usuarioMapper.toDTO(usuario, contatos);
     }
 
     @Override
@@ -125,20 +153,17 @@ public class UsuarioServiceImpl implements UsuarioService {
 
         usuario.setAtivo(false);
         usuarioRepository.saveAndFlush(usuario);
+        eventPublisher.publishEvent(new UsuarioAlteradoEvent(usuario.getId()));
     }
 
     @Override
-    public byte[] getFoto(UUID id) {
+    public ConteudoFotoDTO getFoto(UUID id) {
         Usuario usuario = usuarioRepository.findById(id)
                 .orElseThrow(() -> new UsuarioNaoEncontradoException(String.format("Usuário %s não encontrado.", id)));
 
-        byte[] bytes = usuario.getFoto();
-
-        if (bytes == null) {
-            throw new FotoNaoEncontradaException(String.format("O usuário %s não possui foto.", id));
-        }
-
-        return bytes;
+        return blobStoreService.abrir(usuario.getFotoHash())
+                .map(foto -> new ConteudoFotoDTO(usuario.getFotoHash(), MediaType.IMAGE_JPEG, foto))
+                .orElseThrow(() -> new FotoNaoEncontradaException(String.format("O usuário %s não possui foto.", id)));
     }
 
     @Override
@@ -146,15 +171,17 @@ public class UsuarioServiceImpl implements UsuarioService {
         Usuario usuario = usuarioRepository.findById(id)
                 .orElseThrow(() -> new UsuarioNaoEncontradoException(String.format("Usuário %s não encontrado.", id)));
 
-        return petRepository.findByUsuarioAndAtivoIsTrue(usuario).stream()
-                .map(pet -> petMapper.toDTO(
-                        pet,
-                        fotoRepository.findFirstByPetId(pet.getId())
-                                .stream().map(Foto::getImage).collect(Collectors.toList())))
+        List<Pet> pets = petRepository.findByUsuarioAndAtivoIsTrue(usuario);
+        Map<UUID, List<byte[]>> primeiraFotoPorPet = fotoService.buscarPrimeiroConteudoPorPets(pets.stream()
+                .map(Pet::getId).collect(Collectors.toList()), TamanhoFoto.MINIATURA);
+
+        return pets.stream()
+                .map(pet -> petMapper.toDTO(pet, primeiraFotoPorPet.getOrDefault(pet.getId(), Collections.emptyList())))
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional
     public String esqueciMinhaSenha(String email) {
         Usuario usuario = usuarioRepository.findOneByEmail(email);
         if (usuario == null) {
@@ -190,8 +217,9 @@ public class UsuarioServiceImpl implements UsuarioService {
 
         Usuario usuario = recuperarSenha.getUsuario();
         try {
-            usuario.setSenha(new BCryptPasswordEncoder().encode(senha));
+            usuario.setSenha(passwordEncoder.encode(senha));
             usuarioRepository.saveAndFlush(usuario);
+            eventPublisher.publishEvent(new UsuarioAlteradoEvent(usuario.getId()));
 
             recuperarSenha.setAtivo(false);
             recuperarSenhaRepository.saveAndFlush(recuperarSenha);
@@ -211,10 +239,18 @@ public class UsuarioServiceImpl implements UsuarioService {
 
         Object usuarioLogado = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
-        if (usuarioLogado instanceof Usuario && ((Usuario) usuarioLogado).getId().equals(usuarioId)) {
-            return Optional.ofNullable(usuarioMapper.toDTO(usuarioRepository.saveAndFlush(usuario), contatoRepository.findByUsuario(usuario)));
+        if (usuarioLogado instanceof UsuarioAutenticado && ((UsuarioAutenticado) usuarioLogado).getId().equals(usuarioId)) {
+            guardarFoto(usuario);
+            Usuario usuarioSalvo = usuarioRepository.saveAndFlush(usuario);
+            eventPublisher.publishEvent(new UsuarioAlteradoEvent(usuarioId));
+
+            return Optional.ofNullable(usuarioMapper.toDTO(usuarioSalvo, contatoRepository.findByUsuario(usuarioSalvo)));
         } else {
             throw new NaoPermitidoException("Você está tentando salvar a foto de outro usuário");
         }
     }
+
+    private void guardarFoto(Usuario usuario) {
+        usuario.setFotoHash(usuario.getFoto() != null ? blobStoreService.salvar(usuario.getFoto()) : null);
+    }
 }
@@ -0,0 +1,102 @@
+package br.com.academiadev.thunderpets.similaridade;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Árvore BK sobre hashes de 64 bits com a distância de Hamming. Cada filho fica na posição da sua distância até o pai,
+ * então a busca por raio só desce nos filhos entre distancia - raio e distancia + raio. Não é thread-safe e não
+ * remove valores: quem usa descarta as entradas obsoletas na leitura e reconstrói a árvore de tempos em tempos. O vetor
+ * de filhos só é criado no primeiro filho, já que a maior parte dos nós são folhas.
+ */
+public class ArvoreBK<T> {
+
+    private static final int BITS = 64;
+
+    private No<T> raiz;
+    private int tamanho;
+
+    @SuppressWarnings("unchecked")
+    public void adicionar(long hash, T valor) {
+        tamanho++;
+
+        if (raiz == null) {
+            raiz = new No<>(hash, valor);
+            return;
+        }
+
+        No<T> no = raiz;
+        while (true) {
+            int distancia = distancia(no.hash, hash);
+            if (distancia == 0) {
+                no.valores.add(valor);
+                return;
+            }
+
+            if (no.filhos == null) {
+                no.filhos = new No[BITS + 1];
+            }
+
+            if (no.filhos[distancia] == null) {
+                no.filhos[distancia] = new No<>(hash, valor);
+                return;
+            }
+
+            no = no.filhos[distancia];
+        }
+    }
+
+    /**
+     * Entrega ao consumidor cada valor com hash a no máximo distanciaMaxima bits do hash buscado, junto da distância.
+     */
+    public void buscar(long hash, int distanciaMaxima, BiConsumer<T, Integer> consumidor) {
+        if (raiz == null) {
+            return;
+        }
+
+        Deque<No<T>> pendentes = new ArrayDeque<>();
+        pendentes.push(raiz);
+
+        while (!pendentes.isEmpty()) {
+            No<T> no = pendentes.pop();
+            int distancia = distancia(no.hash, hash);
+
+            if (distancia <= distanciaMaxima) {
+                no.valores.forEach(valor -> consumidor.accept(valor, distancia));
+            }
+
+            if (no.filhos == null) {
+                continue;
+            }
+
+            for (int i = Math.max(1, distancia - distanciaMaxima); i <= Math.min(BITS, distancia + distanciaMaxima); i++) {
+                if (no.filhos[i] != null) {
+                    pendentes.push(no.filhos[i]);
+                }
+            }
+        }
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    public static int distancia(long hash, long outroHash) {
+        return Long.bitCount(hash ^ outroHash);
+    }
+
+    private static class No<T> {
+
+        private final long hash;
+        private final List<T> valores = new ArrayList<>(1);
+        private No<T>[] filhos;
+
+        private No(long hash, T valor) {
+            this.hash = hash;
+            this.valores.add(valor);
+        }
+    }
+}
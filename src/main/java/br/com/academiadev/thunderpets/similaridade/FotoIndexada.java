@@ -0,0 +1,15 @@
+package br.com.academiadev.thunderpets.similaridade;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class FotoIndexada {
+
+    private UUID fotoId;
+    private UUID petId;
+    private long hash;
+}
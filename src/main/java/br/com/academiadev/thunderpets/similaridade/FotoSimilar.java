@@ -0,0 +1,12 @@
+package br.com.academiadev.thunderpets.similaridade;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class FotoSimilar {
+
+    private FotoIndexada foto;
+    private int distancia;
+}
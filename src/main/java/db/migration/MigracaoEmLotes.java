@@ -0,0 +1,104 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Preenche uma coluna nova em lotes pela chave primária, cada lote na sua própria transação, para que a migração não
+ * bloqueie a tabela inteira nem gere um único UPDATE enorme. Linhas escritas durante o preenchimento ficam a cargo do
+ * trigger criado junto com a coluna.
+ */
+public abstract class MigracaoEmLotes extends BaseJavaMigration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MigracaoEmLotes.class);
+    private static final int TAMANHO_LOTE = 1000;
+
+    protected abstract String getTabela();
+
+    /**
+     * Trecho do SET do UPDATE, por exemplo "coluna_nova = CAST(coluna AS TIMESTAMP)".
+     */
+    protected abstract String getAtribuicao();
+
+    /**
+     * Condição das linhas que ainda precisam ser preenchidas.
+     */
+    protected abstract String getPendente();
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection conexao = context.getConnection();
+        String condicao = "(" + getPendente() + ")";
+
+        Object inicio = null;
+        long atualizadas = 0;
+        while (true) {
+            Object fim = buscarFim(conexao, inicio);
+
+            StringBuilder sql = new StringBuilder("UPDATE ").append(getTabela())
+                    .append(" SET ").append(getAtribuicao())
+                    .append(" WHERE ").append(condicao);
+            if (inicio != null) {
+                sql.append(" AND id > ?");
+            }
+            if (fim != null) {
+                sql.append(" AND id <= ?");
+            }
+
+            try (PreparedStatement update = conexao.prepareStatement(sql.toString())) {
+                int parametro = 1;
+                if (inicio != null) {
+                    update.setObject(parametro++, inicio);
+                }
+                if (fim != null) {
+                    update.setObject(parametro, fim);
+                }
+                atualizadas += update.executeUpdate();
+            }
+            confirmar(conexao);
+
+            if (fim == null) {
+                break;
+            }
+            inicio = fim;
+        }
+
+        LOGGER.info("{} linhas de {} preenchidas em lotes de {}", atualizadas, getTabela(), TAMANHO_LOTE);
+    }
+
+    /**
+     * Último id do lote que começa depois de inicio, ou null quando restam menos linhas que um lote.
+     */
+    private Object buscarFim(Connection conexao, Object inicio) throws SQLException {
+        String sql = "SELECT id FROM " + getTabela() + (inicio == null ? "" : " WHERE id > ?")
+                + " ORDER BY id OFFSET " + (TAMANHO_LOTE - 1) + " LIMIT 1";
+
+        try (PreparedStatement consulta = conexao.prepareStatement(sql)) {
+            if (inicio != null) {
+                consulta.setObject(1, inicio);
+            }
+
+            try (ResultSet resultado = consulta.executeQuery()) {
+                return resultado.next() ? resultado.getObject(1) : null;
+            }
+        }
+    }
+
+    private void confirmar(Connection conexao) throws SQLException {
+        if (!conexao.getAutoCommit()) {
+            conexao.commit();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+public class V0010_1__preencher_coordenadas_numericas_localizacao extends MigracaoEmLotes {
+
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(V0010_1__preencher_coordenadas_numericas_localizacao.class);
+
+    @Override
+    protected String getTabela() {
+        return "localizacao";
+    }
+
+    @Override
+    protected String getAtribuicao() {
+        return "latitude_numerico = converter_coordenada(latitude), longitude_numerico = converter_coordenada(longitude)";
+    }
+
+    @Override
+    protected String getPendente() {
+        return "latitude_numerico IS NULL OR longitude_numerico IS NULL";
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        super.migrate(context);
+
+        try (Statement consulta = context.getConnection().createStatement();
+             ResultSet resultado = consulta.executeQuery("SELECT count(*) FROM localizacao "
+                     + "WHERE latitude_numerico IS NULL OR longitude_numerico IS NULL")) {
+            resultado.next();
+            long invalidas = resultado.getLong(1);
+            if (invalidas > 0) {
+                LOGGER.warn("{} localizações possuem coordenadas que não são números válidos e ficarão sem coordenadas",
+                        invalidas);
+            }
+        }
+    }
+}
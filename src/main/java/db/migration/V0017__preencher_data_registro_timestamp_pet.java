@@ -0,0 +1,19 @@
+package db.migration;
+
+public class V0017__preencher_data_registro_timestamp_pet extends MigracaoEmLotes {
+
+    @Override
+    protected String getTabela() {
+        return "pet";
+    }
+
+    @Override
+    protected String getAtribuicao() {
+        return "data_registro_timestamp = CAST(data_registro AS TIMESTAMP)";
+    }
+
+    @Override
+    protected String getPendente() {
+        return "data_registro_timestamp IS NULL";
+    }
+}
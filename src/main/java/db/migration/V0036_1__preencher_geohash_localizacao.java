@@ -0,0 +1,22 @@
+package db.migration;
+
+/**
+ * Localizações gravadas durante o preenchimento já recebem o geohash pelo trigger da V0036.
+ */
+public class V0036_1__preencher_geohash_localizacao extends MigracaoEmLotes {
+
+    @Override
+    protected String getTabela() {
+        return "localizacao";
+    }
+
+    @Override
+    protected String getAtribuicao() {
+        return "geohash = geohash_codificar(latitude, longitude, 12)";
+    }
+
+    @Override
+    protected String getPendente() {
+        return "geohash IS NULL AND latitude IS NOT NULL AND longitude IS NOT NULL";
+    }
+}
@@ -0,0 +1,175 @@
+package db.migration;
+
+import br.com.academiadev.thunderpets.enums.TamanhoFoto;
+import br.com.academiadev.thunderpets.exception.ErroAoProcessarException;
+import br.com.academiadev.thunderpets.service.BlobStoreService;
+import br.com.academiadev.thunderpets.service.ImagemService;
+import br.com.academiadev.thunderpets.service.impl.ImagemServiceImpl;
+import br.com.academiadev.thunderpets.service.impl.LocalBlobStoreServiceImpl;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Copia as fotos que ainda estão nas colunas BYTEA para o blob store antes da V0037 apagar essas colunas. As linhas
+ * são percorridas em lotes pela chave primária, cada lote na sua própria transação, e cada uma recebe os hashes do que
+ * foi gravado. O diretório do blob store vem do placeholder blob-store-diretorio, preenchido pela aplicação com
+ * blob-store.diretorio.
+ */
+public class V0036_3__mover_fotos_bytea_blob_store extends BaseJavaMigration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(V0036_3__mover_fotos_bytea_blob_store.class);
+    private static final int TAMANHO_LOTE = 50;
+    private static final String DIRETORIO_PADRAO = "blobs";
+
+    private BlobStoreService blobStoreService;
+    private ImagemService imagemService;
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        String diretorio = context.getConfiguration().getPlaceholders()
+                .getOrDefault("blob-store-diretorio", DIRETORIO_PADRAO);
+        blobStoreService = new LocalBlobStoreServiceImpl(diretorio);
+        imagemService = new ImagemServiceImpl();
+
+        Connection conexao = context.getConnection();
+        long fotosPets = moverFotosPets(conexao);
+        long fotosUsuarios = moverFotosUsuarios(conexao);
+
+        LOGGER.info("{} fotos de pets e {} fotos de usuários movidas para o blob store em {}", fotosPets,
+                fotosUsuarios, diretorio);
+    }
+
+    private long moverFotosPets(Connection conexao) throws SQLException {
+        String consulta = "SELECT id, image, miniatura, cartao, completa FROM foto "
+                + "WHERE hash_imagem IS NULL AND image IS NOT NULL %s ORDER BY id LIMIT " + TAMANHO_LOTE;
+        String atualizacao = "UPDATE foto SET hash_imagem = ?, hash_miniatura = ?, hash_cartao = ?, "
+                + "hash_completa = ?, tipo_conteudo = ? WHERE id = ?";
+
+        Object inicio = null;
+        long movidas = 0;
+        while (true) {
+            int lote = 0;
+            try (PreparedStatement select = prepararLote(conexao, consulta, inicio);
+                 PreparedStatement update = conexao.prepareStatement(atualizacao);
+                 ResultSet fotos = select.executeQuery()) {
+                while (fotos.next()) {
+                    byte[] image = fotos.getBytes("image");
+                    Map<TamanhoFoto, byte[]> redimensionadas = redimensionarAusentes(image,
+                            fotos.getBytes("miniatura"), fotos.getBytes("cartao"), fotos.getBytes("completa"));
+
+                    update.setString(1, blobStoreService.salvar(image));
+                    update.setString(2, salvarTamanho(redimensionadas.get(TamanhoFoto.MINIATURA)));
+                    update.setString(3, salvarTamanho(redimensionadas.get(TamanhoFoto.CARTAO)));
+                    update.setString(4, salvarTamanho(redimensionadas.get(TamanhoFoto.COMPLETA)));
+                    update.setString(5, imagemService.tipoDeConteudo(image).toString());
+                    update.setObject(6, fotos.getObject("id"));
+                    update.addBatch();
+
+                    inicio = fotos.getObject("id");
+                    lote++;
+                }
+                update.executeBatch();
+            }
+            confirmar(conexao);
+
+            movidas += lote;
+            if (lote < TAMANHO_LOTE) {
+                return movidas;
+            }
+        }
+    }
+
+    private long moverFotosUsuarios(Connection conexao) throws SQLException {
+        String consulta = "SELECT id, foto FROM usuario "
+                + "WHERE foto_hash IS NULL AND foto IS NOT NULL %s ORDER BY id LIMIT " + TAMANHO_LOTE;
+
+        Object inicio = null;
+        long movidas = 0;
+        while (true) {
+            int lote = 0;
+            try (PreparedStatement select = prepararLote(conexao, consulta, inicio);
+                 PreparedStatement update = conexao.prepareStatement("UPDATE usuario SET foto_hash = ? WHERE id = ?");
+                 ResultSet usuarios = select.executeQuery()) {
+                while (usuarios.next()) {
+                    update.setString(1, blobStoreService.salvar(usuarios.getBytes("foto")));
+                    update.setObject(2, usuarios.getObject("id"));
+                    update.addBatch();
+
+                    inicio = usuarios.getObject("id");
+                    lote++;
+                }
+                update.executeBatch();
+            }
+            confirmar(conexao);
+
+            movidas += lote;
+            if (lote < TAMANHO_LOTE) {
+                return movidas;
+            }
+        }
+    }
+
+    /**
+     * O primeiro lote começa do início da tabela; os seguintes, depois do último id do lote anterior.
+     */
+    private PreparedStatement prepararLote(Connection conexao, String consulta, Object inicio) throws SQLException {
+        PreparedStatement select = conexao.prepareStatement(String.format(consulta, inicio == null ? "" : "AND id > ?"));
+        if (inicio != null) {
+            select.setObject(1, inicio);
+        }
+
+        return select;
+    }
+
+    /**
+     * Mantém os tamanhos já gravados e gera os que faltam decodificando o original uma única vez. Uma imagem grande
+     * demais para ser decodificada fica sem os tamanhos que faltam, e quem consome usa o original.
+     */
+    private Map<TamanhoFoto, byte[]> redimensionarAusentes(byte[] image, byte[] miniatura, byte[] cartao,
+                                                           byte[] completa) {
+        Map<TamanhoFoto, byte[]> existentes = new EnumMap<>(TamanhoFoto.class);
+        existentes.put(TamanhoFoto.MINIATURA, miniatura);
+        existentes.put(TamanhoFoto.CARTAO, cartao);
+        existentes.put(TamanhoFoto.COMPLETA, completa);
+
+        List<TamanhoFoto> ausentes = existentes.entrySet().stream()
+                .filter(existente -> existente.getValue() == null)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        if (!ausentes.isEmpty()) {
+            try {
+                existentes.putAll(imagemService.redimensionar(image, ausentes));
+            } catch (ErroAoProcessarException e) {
+                LOGGER.warn("Tamanhos de uma foto não gerados: {}", e.getMessage());
+            }
+        }
+
+        return existentes;
+    }
+
+    private String salvarTamanho(byte[] conteudo) {
+        return conteudo != null ? blobStoreService.salvar(conteudo) : null;
+    }
+
+    private void confirmar(Connection conexao) throws SQLException {
+        if (!conexao.getAutoCommit()) {
+            conexao.commit();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+DROP TRIGGER tg_sincronizar_coordenadas_localizacao ON localizacao;
+DROP FUNCTION sincronizar_coordenadas_localizacao();
+DROP FUNCTION converter_coordenada(CHARACTER VARYING);
+
+ALTER TABLE localizacao
+  DROP COLUMN latitude,
+  DROP COLUMN longitude;
+ALTER TABLE localizacao
+  RENAME COLUMN latitude_numerico TO latitude;
+ALTER TABLE localizacao
+  RENAME COLUMN longitude_numerico TO longitude;
+
+-- Coordenadas que não eram números válidos ficaram nulas no preenchimento. Com elas na tabela a restrição bloquearia
+-- qualquer atualização dessas linhas, então ela só é criada quando não há nenhuma.
+DO $$
+BEGIN
+  IF EXISTS (SELECT 1 FROM localizacao WHERE latitude IS NULL OR longitude IS NULL) THEN
+    RAISE WARNING 'Localizações com coordenadas inválidas; ck_localizacao_coordenadas_not_null não foi criada';
+  ELSE
+    ALTER TABLE localizacao
+      ADD CONSTRAINT ck_localizacao_coordenadas_not_null CHECK (latitude IS NOT NULL AND longitude IS NOT NULL) NOT VALID;
+  END IF;
+END;
+$$;
\ No newline at end of file
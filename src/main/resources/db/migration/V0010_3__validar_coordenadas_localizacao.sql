@@ -0,0 +1,7 @@
+DO $$
+BEGIN
+  IF EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'ck_localizacao_coordenadas_not_null' AND NOT convalidated) THEN
+    ALTER TABLE localizacao VALIDATE CONSTRAINT ck_localizacao_coordenadas_not_null;
+  END IF;
+END;
+$$;
\ No newline at end of file
@@ -0,0 +1,24 @@
+CREATE FUNCTION converter_coordenada(valor CHARACTER VARYING) RETURNS NUMERIC AS $$
+BEGIN
+  RETURN CAST(valor AS NUMERIC(9,6));
+EXCEPTION
+  WHEN invalid_text_representation OR numeric_value_out_of_range THEN
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+ALTER TABLE localizacao
+  ADD COLUMN latitude_numerico NUMERIC(9,6),
+  ADD COLUMN longitude_numerico NUMERIC(9,6);
+
+CREATE FUNCTION sincronizar_coordenadas_localizacao() RETURNS TRIGGER AS $$
+BEGIN
+  NEW.latitude_numerico := converter_coordenada(NEW.latitude);
+  NEW.longitude_numerico := converter_coordenada(NEW.longitude);
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER tg_sincronizar_coordenadas_localizacao
+  BEFORE INSERT OR UPDATE OF latitude, longitude ON localizacao
+  FOR EACH ROW EXECUTE PROCEDURE sincronizar_coordenadas_localizacao();
\ No newline at end of file
@@ -0,0 +1,2 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_localizacao_latitude_longitude
+  ON localizacao (latitude, longitude);
\ No newline at end of file
@@ -0,0 +1,4 @@
+ALTER TABLE foto
+  ADD COLUMN miniatura BYTEA,
+  ADD COLUMN cartao    BYTEA,
+  ADD COLUMN completa  BYTEA;
\ No newline at end of file
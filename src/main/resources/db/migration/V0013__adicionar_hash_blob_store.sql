@@ -0,0 +1,10 @@
+ALTER TABLE foto
+  ADD COLUMN hash_imagem    CHARACTER VARYING(64),
+  ADD COLUMN hash_miniatura CHARACTER VARYING(64),
+  ADD COLUMN hash_cartao    CHARACTER VARYING(64),
+  ADD COLUMN hash_completa  CHARACTER VARYING(64),
+  ADD COLUMN tipo_conteudo  CHARACTER VARYING(100),
+  ALTER COLUMN image DROP NOT NULL;
+
+ALTER TABLE usuario
+  ADD COLUMN foto_hash CHARACTER VARYING(64);
\ No newline at end of file
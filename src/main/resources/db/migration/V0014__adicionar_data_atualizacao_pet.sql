@@ -0,0 +1,2 @@
+ALTER TABLE pet
+  ADD COLUMN data_atualizacao TIMESTAMP;
\ No newline at end of file
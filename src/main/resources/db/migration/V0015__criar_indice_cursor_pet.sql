@@ -0,0 +1,2 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pet_ativo_data_registro_id
+  ON pet (data_registro, id) WHERE ativo = TRUE;
\ No newline at end of file
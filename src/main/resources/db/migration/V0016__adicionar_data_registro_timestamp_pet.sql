@@ -0,0 +1,13 @@
+ALTER TABLE pet
+  ADD COLUMN data_registro_timestamp TIMESTAMP;
+
+CREATE FUNCTION sincronizar_data_registro_pet() RETURNS TRIGGER AS $$
+BEGIN
+  NEW.data_registro_timestamp := CAST(NEW.data_registro AS TIMESTAMP);
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER tg_sincronizar_data_registro_pet
+  BEFORE INSERT OR UPDATE OF data_registro ON pet
+  FOR EACH ROW EXECUTE PROCEDURE sincronizar_data_registro_pet();
\ No newline at end of file
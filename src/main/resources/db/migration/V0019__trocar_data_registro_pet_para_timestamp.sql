@@ -0,0 +1,12 @@
+DROP TRIGGER tg_sincronizar_data_registro_pet ON pet;
+DROP FUNCTION sincronizar_data_registro_pet();
+
+ALTER TABLE pet
+  DROP COLUMN data_registro;
+ALTER TABLE pet
+  RENAME COLUMN data_registro_timestamp TO data_registro;
+ALTER INDEX idx_pet_ativo_data_registro_timestamp_id
+  RENAME TO idx_pet_ativo_data_registro_id;
+
+ALTER TABLE pet
+  ADD CONSTRAINT ck_pet_data_registro_not_null CHECK (data_registro IS NOT NULL) NOT VALID;
\ No newline at end of file
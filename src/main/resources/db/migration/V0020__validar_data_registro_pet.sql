@@ -0,0 +1,2 @@
+ALTER TABLE pet
+  VALIDATE CONSTRAINT ck_pet_data_registro_not_null;
\ No newline at end of file
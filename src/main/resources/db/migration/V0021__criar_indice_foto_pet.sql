@@ -0,0 +1,2 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_foto_pet_id
+  ON foto (pet_id);
\ No newline at end of file
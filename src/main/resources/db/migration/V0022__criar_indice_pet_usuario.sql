@@ -0,0 +1,2 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pet_usuario_id
+  ON pet (usuario_id);
\ No newline at end of file
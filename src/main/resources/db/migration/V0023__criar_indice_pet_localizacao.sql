@@ -0,0 +1,2 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pet_localizacao_id
+  ON pet (localizacao_id);
\ No newline at end of file
@@ -0,0 +1,2 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_contato_usuario_id
+  ON contato (usuario_id);
\ No newline at end of file
@@ -0,0 +1,2 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_recuperar_senha_usuario_id
+  ON recuperar_senha (usuario_id);
\ No newline at end of file
@@ -0,0 +1,2 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pet_ativo_especie_status_data_registro
+  ON pet (especie, status, data_registro) WHERE ativo = TRUE;
\ No newline at end of file
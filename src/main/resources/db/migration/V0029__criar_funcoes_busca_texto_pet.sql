@@ -0,0 +1,22 @@
+-- unaccent() é STABLE e não pode ser usada em índices; as funções abaixo são IMMUTABLE e escritas
+-- em SQL simples para que o planner as expanda e as consultas casem com as expressões dos índices.
+CREATE FUNCTION sem_acento(texto TEXT) RETURNS TEXT AS $$
+  SELECT public.unaccent(CAST('public.unaccent' AS REGDICTIONARY), texto)
+$$ LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT;
+
+CREATE FUNCTION documento_pet(nome TEXT, descricao TEXT) RETURNS TSVECTOR AS $$
+  SELECT setweight(to_tsvector(CAST('portuguese' AS REGCONFIG), sem_acento(coalesce(nome, ''))), 'A')
+      || setweight(to_tsvector(CAST('portuguese' AS REGCONFIG), sem_acento(coalesce(descricao, ''))), 'B')
+$$ LANGUAGE sql IMMUTABLE PARALLEL SAFE;
+
+CREATE FUNCTION consulta_pet(texto TEXT) RETURNS TSQUERY AS $$
+  SELECT plainto_tsquery(CAST('portuguese' AS REGCONFIG), sem_acento(texto))
+$$ LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT;
+
+CREATE FUNCTION pet_corresponde_texto(nome TEXT, descricao TEXT, texto TEXT) RETURNS BOOLEAN AS $$
+  SELECT documento_pet(nome, descricao) @@ consulta_pet(texto)
+$$ LANGUAGE sql IMMUTABLE PARALLEL SAFE;
+
+CREATE FUNCTION relevancia_pet(nome TEXT, descricao TEXT, texto TEXT) RETURNS REAL AS $$
+  SELECT ts_rank(documento_pet(nome, descricao), consulta_pet(texto))
+$$ LANGUAGE sql IMMUTABLE PARALLEL SAFE;
\ No newline at end of file
@@ -0,0 +1,2 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pet_ativo_nome_trigrama
+  ON pet USING GIN (sem_acento(lower(nome)) gin_trgm_ops) WHERE ativo = TRUE;
\ No newline at end of file
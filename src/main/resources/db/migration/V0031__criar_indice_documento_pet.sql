@@ -0,0 +1,2 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pet_ativo_documento
+  ON pet USING GIN (documento_pet(nome, descricao)) WHERE ativo = TRUE;
\ No newline at end of file
@@ -0,0 +1,7 @@
+CREATE TABLE token_revogado (
+  jti       UUID NOT NULL,
+  expiracao TIMESTAMP NOT NULL,
+  CONSTRAINT token_revogado_pk PRIMARY KEY (jti)
+);
+
+CREATE INDEX idx_token_revogado_expiracao ON token_revogado (expiracao);
\ No newline at end of file
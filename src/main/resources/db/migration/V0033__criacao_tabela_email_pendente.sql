@@ -0,0 +1,14 @@
+CREATE TABLE email_pendente (
+  id                 UUID NOT NULL,
+  para               VARCHAR(255) NOT NULL,
+  assunto            VARCHAR(255) NOT NULL,
+  conteudo           TEXT NOT NULL,
+  status             VARCHAR(20) NOT NULL,
+  tentativas         INTEGER NOT NULL DEFAULT 0,
+  proxima_tentativa  TIMESTAMP NOT NULL,
+  ultimo_erro        TEXT,
+  created_at         TIMESTAMP,
+  CONSTRAINT email_pendente_pk PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_email_pendente_pendente_proxima_tentativa ON email_pendente (proxima_tentativa) WHERE status = 'PENDENTE';
\ No newline at end of file
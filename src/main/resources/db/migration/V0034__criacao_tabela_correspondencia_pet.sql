@@ -0,0 +1,14 @@
+CREATE TABLE correspondencia_pet (
+  id           UUID NOT NULL,
+  pet_id       UUID NOT NULL,
+  candidato_id UUID NOT NULL,
+  pontuacao    DOUBLE PRECISION NOT NULL,
+  distancia    DOUBLE PRECISION,
+  CONSTRAINT correspondencia_pet_pk PRIMARY KEY (id),
+  CONSTRAINT correspondencia_pet_pet_fk FOREIGN KEY (pet_id) REFERENCES pet (id),
+  CONSTRAINT correspondencia_pet_candidato_fk FOREIGN KEY (candidato_id) REFERENCES pet (id),
+  CONSTRAINT correspondencia_pet_unica UNIQUE (pet_id, candidato_id)
+);
+
+CREATE INDEX idx_correspondencia_pet_pet_id_pontuacao ON correspondencia_pet (pet_id, pontuacao DESC);
+CREATE INDEX idx_correspondencia_pet_candidato_id ON correspondencia_pet (candidato_id);
\ No newline at end of file
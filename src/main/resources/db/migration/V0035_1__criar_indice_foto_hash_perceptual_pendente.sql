@@ -0,0 +1,4 @@
+-- Sozinho na migração porque CREATE INDEX CONCURRENTLY não pode rodar dentro de uma transação. Logo depois da
+-- V0035 todas as fotos estão pendentes: o índice cobre a tabela inteira e não pode bloquear as escritas.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_foto_hash_perceptual_pendente_pet_id
+  ON foto (pet_id) WHERE hash_perceptual IS NULL;
\ No newline at end of file
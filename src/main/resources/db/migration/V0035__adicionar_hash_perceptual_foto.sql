@@ -0,0 +1,3 @@
+ALTER TABLE foto ADD COLUMN hash_perceptual BIGINT;
+
+-- O índice das fotos pendentes é criado pela V0035_1.
\ No newline at end of file
@@ -0,0 +1,4 @@
+-- Sozinho na migração porque CREATE INDEX CONCURRENTLY não pode rodar dentro de uma transação.
+-- text_pattern_ops permite que o like 'prefixo%' use o índice independente da collation do banco.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_localizacao_geohash
+  ON localizacao (geohash text_pattern_ops);
\ No newline at end of file
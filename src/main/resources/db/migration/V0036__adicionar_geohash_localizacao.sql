@@ -0,0 +1,62 @@
+-- Mesma codificação de br.com.academiadev.thunderpets.geo.Geohash, usada para preencher as linhas existentes e pelo
+-- trigger que mantém o geohash das linhas gravadas por fora da entidade.
+CREATE FUNCTION geohash_codificar(latitude NUMERIC, longitude NUMERIC, precisao INTEGER) RETURNS VARCHAR AS $$
+DECLARE
+  alfabeto CONSTANT TEXT := '0123456789bcdefghjkmnpqrstuvwxyz';
+  latitude_minima DOUBLE PRECISION := -90;
+  latitude_maxima DOUBLE PRECISION := 90;
+  longitude_minima DOUBLE PRECISION := -180;
+  longitude_maxima DOUBLE PRECISION := 180;
+  meio DOUBLE PRECISION;
+  resultado TEXT := '';
+  longitude_par BOOLEAN := TRUE;
+  valor INTEGER := 0;
+  bits INTEGER := 0;
+BEGIN
+  WHILE length(resultado) < precisao LOOP
+    IF longitude_par THEN
+      meio := (longitude_minima + longitude_maxima) / 2;
+      IF CAST(longitude AS DOUBLE PRECISION) >= meio THEN
+        valor := valor * 2 + 1;
+        longitude_minima := meio;
+      ELSE
+        valor := valor * 2;
+        longitude_maxima := meio;
+      END IF;
+    ELSE
+      meio := (latitude_minima + latitude_maxima) / 2;
+      IF CAST(latitude AS DOUBLE PRECISION) >= meio THEN
+        valor := valor * 2 + 1;
+        latitude_minima := meio;
+      ELSE
+        valor := valor * 2;
+        latitude_maxima := meio;
+      END IF;
+    END IF;
+
+    longitude_par := NOT longitude_par;
+    bits := bits + 1;
+    IF bits = 5 THEN
+      resultado := resultado || substr(alfabeto, valor + 1, 1);
+      bits := 0;
+      valor := 0;
+    END IF;
+  END LOOP;
+
+  RETURN resultado;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE STRICT;
+
+-- O preenchimento é feito em lotes pela V0036_1 e o índice é criado pela V0036_2.
+ALTER TABLE localizacao ADD COLUMN geohash VARCHAR(12);
+
+CREATE FUNCTION sincronizar_geohash_localizacao() RETURNS TRIGGER AS $$
+BEGIN
+  NEW.geohash := geohash_codificar(NEW.latitude, NEW.longitude, 12);
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER tg_sincronizar_geohash_localizacao
+  BEFORE INSERT OR UPDATE OF latitude, longitude ON localizacao
+  FOR EACH ROW EXECUTE PROCEDURE sincronizar_geohash_localizacao();
\ No newline at end of file
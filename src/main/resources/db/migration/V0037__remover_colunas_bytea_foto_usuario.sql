@@ -0,0 +1,19 @@
+-- As imagens em BYTEA foram copiadas para o blob store pela V0036_3. Se ainda houver alguma, interrompe antes de
+-- apagar as colunas em vez de perder a foto.
+DO $$
+BEGIN
+  IF EXISTS (SELECT 1 FROM foto WHERE hash_imagem IS NULL AND image IS NOT NULL)
+     OR EXISTS (SELECT 1 FROM usuario WHERE foto_hash IS NULL AND foto IS NOT NULL) THEN
+    RAISE EXCEPTION 'Há fotos ainda em BYTEA; verifique os erros da V0036_3 antes desta migração';
+  END IF;
+END;
+$$;
+
+ALTER TABLE foto
+  DROP COLUMN image,
+  DROP COLUMN miniatura,
+  DROP COLUMN cartao,
+  DROP COLUMN completa;
+
+ALTER TABLE usuario
+  DROP COLUMN foto;
\ No newline at end of file
@@ -0,0 +1,43 @@
+package br.com.academiadev.thunderpets.config.security;
+
+import br.com.academiadev.thunderpets.exception.ServicoIndisponivelException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+
+public class PasswordEncoderLimitadoTests {
+
+    @Test
+    public void dadoHashComOutroCusto_quandoVerifico_entaoAceitaSenhaEPedeNovoHash() {
+        //Dado
+        PasswordEncoderLimitado encoder = new PasswordEncoderLimitado(4, 1, 1);
+        String hashAntigo = new BCryptPasswordEncoder(5).encode("senha");
+
+        //Quando
+        boolean corresponde = encoder.matches("senha", hashAntigo);
+
+        //Entao
+        Assert.assertTrue(corresponde);
+        Assert.assertTrue(encoder.upgradeEncoding(hashAntigo));
+        Assert.assertFalse(encoder.upgradeEncoding(encoder.encode("senha")));
+        encoder.destroy();
+    }
+
+    @Test(expected = ServicoIndisponivelException.class)
+    public void dadoPoolEFilaOcupados_quandoCodifico_entaoServicoIndisponivel() throws Exception {
+        //Dado
+        PasswordEncoderLimitado encoder = new PasswordEncoderLimitado(14, 1, 1);
+        CompletableFuture.runAsync(() -> encoder.encode("em execucao"));
+        CompletableFuture.runAsync(() -> encoder.encode("na fila"));
+        Thread.sleep(200);
+
+        //Quando
+        try {
+            encoder.encode("recusada");
+        } finally {
+            encoder.destroy();
+        }
+    }
+}
@@ -9,12 +9,15 @@ import org.springframework.boot.json.JacksonJsonParser;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
+import java.util.Map;
+
 import static org.hamcrest.core.Is.is;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -23,6 +26,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc
+@ActiveProfiles("test")
 @RunWith(SpringRunner.class)
 @SpringBootTest
 public class AuthControllerTests {
@@ -167,6 +171,43 @@ public class AuthControllerTests {
         Assert.assertEquals("true", logout.andReturn().getResponse().getContentAsString());
     }
 
+    @Test
+    public void dadoTokenRevogado_quandoUsoTokenNovamente_entaoNaoAutorizado() throws Exception {
+        //Dado
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("grant_type", "password");
+        params.add("username", "admin@mail.com");
+        params.add("password", "admin");
+
+        Map<String, Object> tokens = parser.parseMap(mock.perform(
+                post("/oauth/token")
+                        .params(params)
+                        .accept("application/json;charset=UTF-8")
+                        .with(httpBasic(client, secret)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+        String token = "Bearer " + tokens.get("access_token");
+
+        mock.perform(get("/oauth/logout").header("Authorization", token)).andExpect(status().isOk());
+
+        MultiValueMap<String, String> paramsRefresh = new LinkedMultiValueMap<>();
+        paramsRefresh.add("grant_type", "refresh_token");
+        paramsRefresh.add("refresh_token", tokens.get("refresh_token").toString());
+
+        //Quando
+        ResultActions whoAmI = mock.perform(get("/oauth/whoAmI").header("Authorization", token));
+        ResultActions refresh = mock.perform(post("/oauth/token")
+                .params(paramsRefresh)
+                .accept("application/json;charset=UTF-8")
+                .with(httpBasic(client, secret)));
+
+        //Entao
+        whoAmI.andExpect(status().isUnauthorized());
+        refresh.andExpect(status().is4xxClientError());
+    }
+
     @Test
     public void dadoSemUsuario_quandoFazLogout_entaoErro() throws Exception {
         mock.perform(get("/oauth/logout")).andExpect(status().is(HttpStatus.BAD_REQUEST.value()));
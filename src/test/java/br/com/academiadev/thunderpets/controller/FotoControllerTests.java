@@ -0,0 +1,226 @@
+package br.com.academiadev.thunderpets.controller;
+
+import br.com.academiadev.thunderpets.dto.PetDTO;
+import br.com.academiadev.thunderpets.dto.UsuarioRespostaDTO;
+import br.com.academiadev.thunderpets.repository.UsuarioRepository;
+import br.com.academiadev.thunderpets.util.LocalizacaoUtil;
+import br.com.academiadev.thunderpets.util.PetDTOUtil;
+import br.com.academiadev.thunderpets.util.UsuarioDTOUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.json.JacksonJsonParser;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import javax.transaction.Transactional;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest
+@Transactional
+public class FotoControllerTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UsuarioDTOUtil usuarioDTOUtil;
+
+    @Autowired
+    private PetDTOUtil petDTOUtil;
+
+    @Autowired
+    private LocalizacaoUtil localizacaoUtil;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Value("${security.oauth2.client.client-id}")
+    private String client;
+
+    @Value("${security.oauth2.client.client-secret}")
+    private String secret;
+
+    private ObjectMapper objectMapper = new ObjectMapper();
+    private JacksonJsonParser parser = new JacksonJsonParser();
+    private String token = "";
+
+    @Test
+    public void dadoPetComFotos_quandoBuscoComFormatoUrl_entaoRetornaUrlsSemConteudo() throws Exception {
+        //Dado
+        String petId = salvarPetBrabo();
+
+        //Quando
+        ResultActions pet = mvc.perform(get("/pet/" + petId).param("formatoFotos", "URL"));
+
+        //Entao
+        pet.andExpect(status().isOk())
+                .andExpect(jsonPath("$.fotos", nullValue()))
+                .andExpect(jsonPath("$.urlsFotos", hasSize(3)))
+                .andExpect(jsonPath("$.urlsFotos[0]", startsWith("/pet/" + petId + "/fotos/")))
+                .andExpect(jsonPath("$.urlsFotos[0]", containsString("tamanho=COMPLETA")));
+    }
+
+    @Test
+    public void dadoUrlDeFoto_quandoBuscoFoto_entaoRetornaConteudo() throws Exception {
+        //Dado
+        String petId = salvarPetBrabo();
+        String url = new JSONObject(mvc.perform(get("/pet/" + petId).param("formatoFotos", "URL"))
+                .andReturn().getResponse().getContentAsString()).getJSONArray("urlsFotos").getString(0);
+
+        //Quando
+        ResultActions foto = mvc.perform(get(url));
+
+        //Entao
+        foto.andExpect(status().isOk());
+        Assert.assertEquals(3, foto.andReturn().getResponse().getContentAsByteArray().length);
+    }
+
+    @Test
+    public void dadoFotoInexistente_quandoBuscoFoto_entaoRetornaErro() throws Exception {
+        //Dado
+        String petId = salvarPetBrabo();
+
+        //Quando
+        ResultActions foto = mvc.perform(get(String.format("/pet/%s/fotos/%s", petId, UUID.randomUUID())));
+
+        //Entao
+        foto.andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void dadoEtagDaFoto_quandoBuscoFotoNovamente_entaoRetornaNaoModificado() throws Exception {
+        //Dado
+        String petId = salvarPetBrabo();
+        String url = new JSONObject(mvc.perform(get("/pet/" + petId).param("formatoFotos", "URL"))
+                .andReturn().getResponse().getContentAsString()).getJSONArray("urlsFotos").getString(0);
+        String etag = mvc.perform(get(url))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //Quando
+        ResultActions foto = mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag));
+
+        //Entao
+        foto.andExpect(status().isNotModified());
+        Assert.assertEquals(0, foto.andReturn().getResponse().getContentAsByteArray().length);
+    }
+
+    @Test
+    public void dadoEtagDoPet_quandoBuscoPetNovamente_entaoRetornaNaoModificado() throws Exception {
+        //Dado
+        String petId = salvarPetBrabo();
+        String etag = mvc.perform(get("/pet/" + petId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //Quando
+        ResultActions naoModificado = mvc.perform(get("/pet/" + petId).header(HttpHeaders.IF_NONE_MATCH, etag));
+        ResultActions outroFormato = mvc.perform(get("/pet/" + petId)
+                .param("formatoFotos", "URL")
+                .header(HttpHeaders.IF_NONE_MATCH, etag));
+
+        //Entao
+        naoModificado.andExpect(status().isNotModified());
+        outroFormato.andExpect(status().isOk());
+    }
+
+    @Test
+    public void dadoEtagDoPet_quandoAlteroApenasALocalizacao_entaoRetornaPetNovamente() throws Exception {
+        //Dado
+        getAuthHeader();
+        UsuarioRespostaDTO dono = new UsuarioRespostaDTO();
+        dono.setId(usuarioRepository.findOneByEmail("admin@mail.com").getId());
+        PetDTO petDTO = petDTOUtil.criaPetDTOBrabo(dono);
+        petDTO.setId(UUID.fromString(new JSONObject(mvc.perform(post("/pet")
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE)
+                .content(UsuarioDTOUtil.convertObjectToJsonBytes(petDTO)))
+                .andReturn().getResponse().getContentAsString()).getString("id")));
+        String etag = mvc.perform(get("/pet/" + petDTO.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //Quando
+        petDTO.setLocalizacao(localizacaoUtil.criaLocalizacaoAmerica());
+        mvc.perform(post("/pet")
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE)
+                .content(UsuarioDTOUtil.convertObjectToJsonBytes(petDTO)))
+                .andExpect(status().isOk());
+        ResultActions pet = mvc.perform(get("/pet/" + petDTO.getId()).header(HttpHeaders.IF_NONE_MATCH, etag));
+
+        //Entao
+        pet.andExpect(status().isOk());
+        Assert.assertNotEquals(etag, pet.andReturn().getResponse().getHeader(HttpHeaders.ETAG));
+        Assert.assertEquals(1, pet.andReturn().getResponse().getHeaders(HttpHeaders.ETAG).size());
+    }
+
+    private String salvarPetBrabo() throws Exception {
+        getAuthHeader();
+
+        UsuarioRespostaDTO usuario = objectMapper.readValue(mvc.perform(post("/usuario")
+                .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE)
+                .content(UsuarioDTOUtil.convertObjectToJsonBytes(usuarioDTOUtil.criarUsuarioDTOJekaterina())))
+                .andReturn().getResponse().getContentAsString(), UsuarioRespostaDTO.class);
+
+        String pet = mvc.perform(post("/pet")
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE)
+                .content(UsuarioDTOUtil.convertObjectToJsonBytes(petDTOUtil.criaPetDTOBrabo(usuario))))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        return new JSONObject(pet).getString("id");
+    }
+
+    private void getAuthHeader() throws Exception {
+        if (token.isEmpty()) {
+            MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+            params.add("grant_type", "password");
+            params.add("username", "admin@mail.com");
+            params.add("password", "admin");
+
+            ResultActions login = mvc.perform(
+                    post("/oauth/token")
+                            .params(params)
+                            .accept("application/json;charset=UTF-8")
+                            .with(httpBasic(client, secret)))
+                    .andExpect(status().isOk());
+
+            String accessToken = parser.parseMap(login
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString()).get("access_token").toString();
+
+            this.token = String.format("Bearer %s", accessToken);
+        }
+    }
+}
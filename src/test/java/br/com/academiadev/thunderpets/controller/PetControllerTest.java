@@ -3,7 +3,10 @@ package br.com.academiadev.thunderpets.controller;
 import br.com.academiadev.thunderpets.dto.PetDTO;
 import br.com.academiadev.thunderpets.dto.UsuarioDTO;
 import br.com.academiadev.thunderpets.dto.UsuarioRespostaDTO;
+import br.com.academiadev.thunderpets.enums.Especie;
+import br.com.academiadev.thunderpets.enums.Status;
 import br.com.academiadev.thunderpets.repository.PetRepository;
+import br.com.academiadev.thunderpets.util.LocalizacaoUtil;
 import br.com.academiadev.thunderpets.util.PetDTOUtil;
 import br.com.academiadev.thunderpets.util.UsuarioDTOUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -32,6 +35,8 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.core.Is.is;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -58,6 +63,9 @@ public class PetControllerTest {
     @Autowired
     private PetDTOUtil petDTOUtil;
 
+    @Autowired
+    private LocalizacaoUtil localizacaoUtil;
+
     @Value("${security.oauth2.client.client-id}")
     private String client;
 
@@ -319,6 +327,388 @@ public class PetControllerTest {
         Assert.assertEquals(new BigDecimal("1.26"), distanciaPetPocoto);
     }
 
+    @Test
+    public void dadoPets_quandoBuscoPorRaioDeDistancia3OrdenacaoDistanciaDESC_entaoBuscarPetsMaisDistantesPrimeiro()
+            throws Exception {
+        getAuthHeader();
+
+        UsuarioRespostaDTO usuario = objectMapper.readValue(mvc.perform(post("/usuario")
+                .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE)
+                .content(UsuarioDTOUtil.convertObjectToJsonBytes(usuarioDTOUtil.criarUsuarioDTOJekaterina())))
+                .andReturn().getResponse().getContentAsString(), UsuarioRespostaDTO.class);
+
+        mvc.perform(post("/pet")
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE)
+                .content(UsuarioDTOUtil.convertObjectToJsonBytes(petDTOUtil.criaPetDTOCarijo(usuario))));
+
+        mvc.perform(post("/pet")
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE)
+                .content(UsuarioDTOUtil.convertObjectToJsonBytes(petDTOUtil.criaPetDTOBrabo(usuario))));
+
+        mvc.perform(post("/pet")
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE)
+                .content(UsuarioDTOUtil.convertObjectToJsonBytes(petDTOUtil.criaPetDTOPocoto(usuario))));
+
+        //Quando
+        ResultActions listaDePets = mvc.perform(get("/pet")
+                .param("buscarPorLocalidade", "RAIO_DISTANCIA")
+                .param("latitudeUsuario", "-26.301245")
+                .param("longitudeUsuario", "-48.844594")
+                .param("raioDistancia", "3")
+                .param("direcao", "DESC")
+                .param("campoOrdenacao", "distancia"));
+
+        //Entao
+        listaDePets.andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(2)))
+                .andExpect(jsonPath("$.content[0].nome", is("Pocotó")))
+                .andExpect(jsonPath("$.content[1].nome", is("Carijó")));
+    }
+
+    @Test
+    public void dadoPets_quandoBuscoProximos_entaoRetornaOsMaisProximosEmOrdem() throws Exception {
+        //Dado
+        getAuthHeader();
+
+        UsuarioRespostaDTO usuario = objectMapper.readValue(mvc.perform(post("/usuario")
+                .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE)
+                .content(UsuarioDTOUtil.convertObjectToJsonBytes(usuarioDTOUtil.criarUsuarioDTOJekaterina())))
+                .andReturn().getResponse().getContentAsString(), UsuarioRespostaDTO.class);
+
+        for (PetDTO petDTO : new PetDTO[]{petDTOUtil.criaPetDTOCarijo(usuario),
+                petDTOUtil.criaPetDTOBrabo(usuario),
+                petDTOUtil.criaPetDTOPocoto(usuario)}) {
+            salvarPet(petDTO);
+        }
+
+        //Quando
+        ResultActions proximos = mvc.perform(get("/pet/proximos")
+                .param("latitudeUsuario", "-26.301245")
+                .param("longitudeUsuario", "-48.844594")
+                .param("quantidade", "2")
+                .param("formatoFotos", "URL"));
+
+        //Entao
+        proximos.andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[0].nome", is("Carijó")))
+                .andExpect(jsonPath("$[1].nome", is("Pocotó")))
+                .andExpect(jsonPath("$[1].distancia", closeTo(1.26, 0.01)));
+    }
+
+    @Test
+    public void dadoPetSemLocalizacao_quandoBuscoComCoordenadas_entaoRetornaSemDistancia() throws Exception {
+        //Dado
+        getAuthHeader();
+
+        UsuarioRespostaDTO usuario = objectMapper.readValue(mvc.perform(post("/usuario")
+                .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE)
+                .content(UsuarioDTOUtil.convertObjectToJsonBytes(usuarioDTOUtil.criarUsuarioDTOJekaterina())))
+                .andReturn().getResponse().getContentAsString(), UsuarioRespostaDTO.class);
+
+        PetDTO semLocalizacao = petDTOUtil.criaPetDTOBrabo(usuario);
+        semLocalizacao.setLocalizacao(null);
+        salvarPet(petDTOUtil.criaPetDTOCarijo(usuario));
+        salvarPet(semLocalizacao);
+
+        //Quando
+        ResultActions listaDePets = mvc.perform(get("/pet")
+                .param("latitudeUsuario", "-26.301245")
+                .param("longitudeUsuario", "-48.844594")
+                .param("direcao", "ASC")
+                .param("campoOrdenacao", "distancia"));
+        ResultActions paginaCursor = mvc.perform(get("/pet/cursor")
+                .param("latitudeUsuario", "-26.301245")
+                .param("longitudeUsuario", "-48.844594")
+                .param("tamanho", "2")
+                .param("direcao", "DESC"));
+
+        //Entao
+        listaDePets.andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(2)))
+                .andExpect(jsonPath("$.content[0].nome", is("Carijó")))
+                .andExpect(jsonPath("$.content[1].nome", is("Brabo")))
+                .andExpect(jsonPath("$.content[1].distancia").doesNotExist());
+        paginaCursor.andExpect(status().isOk())
+                .andExpect(jsonPath("$.conteudo.length()", is(2)))
+                .andExpect(jsonPath("$.conteudo[0].nome", is("Brabo")))
+                .andExpect(jsonPath("$.conteudo[0].distancia").doesNotExist());
+    }
+
+    @Test
+    public void dadoQuantidadeInvalida_quandoBuscoProximos_entaoRetornaErro() throws Exception {
+        //Quando
+        ResultActions proximos = mvc.perform(get("/pet/proximos")
+                .param("latitudeUsuario", "-26.301245")
+                .param("longitudeUsuario", "-48.844594")
+                .param("quantidade", "0"));
+
+        //Entao
+        proximos.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void dadoBuscaSemCoordenadas_quandoOrdenoPorDistancia_entaoRetornaErro() throws Exception {
+        //Quando
+        ResultActions listaDePets = mvc.perform(get("/pet")
+                .param("campoOrdenacao", "distancia"));
+
+        //Entao
+        listaDePets.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void dadoCampoDeOutraEntidade_quandoOrdeno_entaoRetornaErro() throws Exception {
+        //Quando
+        ResultActions listaDePets = mvc.perform(get("/pet")
+                .param("campoOrdenacao", "usuario.senha"));
+
+        //Entao
+        listaDePets.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void dadoPets_quandoBuscoPorNomeSemAcento_entaoBuscarPetsComAcento() throws Exception {
+        getAuthHeader();
+
+        UsuarioRespostaDTO usuario = objectMapper.readValue(mvc.perform(post("/usuario")
+                .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE)
+                .content(UsuarioDTOUtil.convertObjectToJsonBytes(usuarioDTOUtil.criarUsuarioDTOJekaterina())))
+                .andReturn().getResponse().getContentAsString(), UsuarioRespostaDTO.class);
+
+        //Dado
+        for (PetDTO petDTO : new PetDTO[]{petDTOUtil.criaPetDTOCarijo(usuario),
+                petDTOUtil.criaPetDTOBrabo(usuario),
+                petDTOUtil.criaPetDTOPocoto(usuario)}) {
+            mvc.perform(post("/pet")
+                    .header("Authorization", token)
+                    .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE)
+                    .content(UsuarioDTOUtil.convertObjectToJsonBytes(petDTO)));
+        }
+
+        //Quando
+        ResultActions listaDePets = mvc.perform(get("/pet")
+                .param("nome", "POCOTO"));
+
+        //Entao
+        listaDePets.andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(1)))
+                .andExpect(jsonPath("$.content[0].nome", is("Pocotó")));
+    }
+
+    @Test
+    public void dadoPets_quandoBuscoPorTextoOrdenacaoRelevancia_entaoBuscarPetsMaisRelevantesPrimeiro() throws Exception {
+        getAuthHeader();
+
+        UsuarioRespostaDTO usuario = objectMapper.readValue(mvc.perform(post("/usuario")
+                .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE)
+                .content(UsuarioDTOUtil.convertObjectToJsonBytes(usuarioDTOUtil.criarUsuarioDTOJekaterina())))
+                .andReturn().getResponse().getContentAsString(), UsuarioRespostaDTO.class);
+
+        //Dado
+        PetDTO gentil = petDTOUtil.criaPetDTOBrabo(usuario);
+        gentil.setNome("Gentil");
+        gentil.setDescricao("Cachorro gentil e brincalhão");
+
+        for (PetDTO petDTO : new PetDTO[]{petDTOUtil.criaPetDTOCarijo(usuario),
+                gentil,
+                petDTOUtil.criaPetDTOPocoto(usuario)}) {
+            mvc.perform(post("/pet")
+                    .header("Authorization", token)
+                    .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE)
+                    .content(UsuarioDTOUtil.convertObjectToJsonBytes(petDTO)));
+        }
+
+        //Quando
+        ResultActions listaDePets = mvc.perform(get("/pet")
+                .param("texto", "gêntil")
+                .param("direcao", "DESC")
+                .param("campoOrdenacao", "relevancia"));
+
+        //Entao
+        listaDePets.andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(2)))
+                .andExpect(jsonPath("$.content[0].nome", is("Gentil")))
+                .andExpect(jsonPath("$.content[1].nome", is("Carijó")));
+    }
+
+    @Test
+    public void dadoBuscaSemTexto_quandoOrdenoPorRelevancia_entaoRetornaErro() throws Exception {
+        //Quando
+        ResultActions listaDePets = mvc.perform(get("/pet")
+                .param("campoOrdenacao", "relevancia"));
+
+        //Entao
+        listaDePets.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void dadoPets_quandoBuscoPorCursor_entaoPercorrePaginasSemRepetir() throws Exception {
+        getAuthHeader();
+
+        UsuarioRespostaDTO usuario = objectMapper.readValue(mvc.perform(post("/usuario")
+                .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE)
+                .content(UsuarioDTOUtil.convertObjectToJsonBytes(usuarioDTOUtil.criarUsuarioDTOJekaterina())))
+                .andReturn().getResponse().getContentAsString(), UsuarioRespostaDTO.class);
+
+        //Dado
+        for (PetDTO petDTO : new PetDTO[]{petDTOUtil.criaPetDTOCarijo(usuario),
+                petDTOUtil.criaPetDTOBrabo(usuario),
+                petDTOUtil.criaPetDTOPocoto(usuario)}) {
+            mvc.perform(post("/pet")
+                    .header("Authorization", token)
+                    .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE)
+                    .content(UsuarioDTOUtil.convertObjectToJsonBytes(petDTO)));
+        }
+
+        //Quando
+        ResultActions primeiraPagina = mvc.perform(get("/pet/cursor")
+                .param("tamanho", "2")
+                .param("direcao", "DESC"));
+        String proximoCursor = new JSONObject(primeiraPagina.andReturn().getResponse().getContentAsString())
+                .getString("proximoCursor");
+        ResultActions segundaPagina = mvc.perform(get("/pet/cursor")
+                .param("tamanho", "2")
+                .param("direcao", "DESC")
+                .param("cursor", proximoCursor));
+
+        //Entao
+        primeiraPagina.andExpect(status().isOk())
+                .andExpect(jsonPath("$.conteudo[0].nome", is("Pocotó")))
+                .andExpect(jsonPath("$.conteudo[1].nome", is("Brabo")))
+                .andExpect(jsonPath("$.ultima", is(false)));
+        segundaPagina.andExpect(status().isOk())
+                .andExpect(jsonPath("$.conteudo[0].nome", is("Carijó")))
+                .andExpect(jsonPath("$.conteudo.length()", is(1)))
+                .andExpect(jsonPath("$.ultima", is(true)));
+    }
+
+    @Test
+    public void dadoCursorInvalido_quandoBuscoPorCursor_entaoRetornaErro() throws Exception {
+        //Quando
+        ResultActions listaDePets = mvc.perform(get("/pet/cursor")
+                .param("cursor", "invalido"));
+
+        //Entao
+        listaDePets.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void dadoPetPerdidoEPetAchadoParecidos_quandoBuscoCorrespondencias_entaoRetornaPetAchado() throws Exception {
+        getAuthHeader();
+
+        UsuarioRespostaDTO usuario = objectMapper.readValue(mvc.perform(post("/usuario")
+                .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE)
+                .content(UsuarioDTOUtil.convertObjectToJsonBytes(usuarioDTOUtil.criarUsuarioDTOJekaterina())))
+                .andReturn().getResponse().getContentAsString(), UsuarioRespostaDTO.class);
+
+        //Dado
+        PetDTO perdido = petDTOUtil.criaPetDTOBrabo(usuario);
+        perdido.setStatus(Status.PROCURANDO_PET);
+        PetDTO achado = petDTOUtil.criaPetDTOBrabo(usuario);
+        achado.setStatus(Status.PROCURANDO_DONO);
+        achado.setLocalizacao(localizacaoUtil.criaLocalizacaoTerminalCentral());
+        PetDTO gatoAchado = petDTOUtil.criaPetDTOBrabo(usuario);
+        gatoAchado.setStatus(Status.PROCURANDO_DONO);
+        gatoAchado.setEspecie(Especie.GATO);
+
+        String idPerdido = salvarPet(perdido);
+        String idAchado = salvarPet(achado);
+        salvarPet(gatoAchado);
+
+        //Quando
+        ResultActions correspondenciasPerdido = mvc.perform(get("/pet/" + idPerdido + "/matches"));
+        ResultActions correspondenciasAchado = mvc.perform(get("/pet/" + idAchado + "/matches"));
+
+        //Entao
+        correspondenciasPerdido.andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].pet.id", is(idAchado)))
+                .andExpect(jsonPath("$[0].pet.distancia", greaterThan(4.0)))
+                .andExpect(jsonPath("$[0].pontuacao", greaterThan(0.8)));
+        correspondenciasAchado.andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].pet.id", is(idPerdido)));
+    }
+
+    @Test
+    public void dadoIdPetInexistente_quandoBuscoCorrespondencias_entaoRetornaErro() throws Exception {
+        //Quando
+        ResultActions correspondencias = mvc.perform(get("/pet/" + UUID.randomUUID() + "/matches"));
+
+        //Entao
+        correspondencias.andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void dadoPets_quandoAgrupoPorArea_entaoRetornaCelulasComQuantidadePorStatus() throws Exception {
+        getAuthHeader();
+
+        UsuarioRespostaDTO usuario = objectMapper.readValue(mvc.perform(post("/usuario")
+                .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE)
+                .content(UsuarioDTOUtil.convertObjectToJsonBytes(usuarioDTOUtil.criarUsuarioDTOJekaterina())))
+                .andReturn().getResponse().getContentAsString(), UsuarioRespostaDTO.class);
+
+        //Dado
+        salvarPet(petDTOUtil.criaPetDTOBrabo(usuario));
+        salvarPet(petDTOUtil.criaPetDTOCarijo(usuario));
+        salvarPet(petDTOUtil.criaPetDTOPocoto(usuario));
+
+        //Quando
+        ResultActions celulasProximas = mvc.perform(get("/pet/clusters")
+                .param("bbox", "-48.95,-26.35,-48.80,-26.25")
+                .param("zoom", "10")
+                .param("especie", "OUTROS"));
+        ResultActions celulaUnica = mvc.perform(get("/pet/clusters")
+                .param("bbox", "-48.95,-26.35,-48.80,-26.25")
+                .param("zoom", "2"));
+
+        //Entao
+        celulasProximas.andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].quantidade", is(2)))
+                .andExpect(jsonPath("$[0].quantidadePorStatus.ACHEI_DONO", is(1)))
+                .andExpect(jsonPath("$[0].quantidadePorStatus.PROCURANDO_DONO", is(1)))
+                .andExpect(jsonPath("$[0].latitude", closeTo(new BigDecimal("-26.300977"), new BigDecimal("0.000001"))));
+        celulaUnica.andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].quantidade", is(3)));
+    }
+
+    @Test
+    public void dadoAreaInvalida_quandoAgrupo_entaoRetornaErro() throws Exception {
+        //Quando
+        ResultActions celulas = mvc.perform(get("/pet/clusters")
+                .param("bbox", "-48.95,-26.35")
+                .param("zoom", "10"));
+
+        //Entao
+        celulas.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void dadoAreaComNaN_quandoAgrupo_entaoRetornaErro() throws Exception {
+        //Quando
+        ResultActions celulas = mvc.perform(get("/pet/clusters")
+                .param("bbox", "-48.95,NaN,-48.45,-26.20")
+                .param("zoom", "10"));
+
+        //Entao
+        celulas.andExpect(status().isBadRequest());
+    }
+
+    private String salvarPet(PetDTO petDTO) throws Exception {
+        return new JSONObject(mvc.perform(post("/pet")
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE)
+                .content(UsuarioDTOUtil.convertObjectToJsonBytes(petDTO)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).getString("id");
+    }
+
     private void getAuthHeader() throws Exception {
         if (token.isEmpty()) {
             MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
@@ -5,7 +5,6 @@ import br.com.academiadev.thunderpets.model.RecuperarSenha;
 import br.com.academiadev.thunderpets.repository.RecuperarSenhaRepository;
 import br.com.academiadev.thunderpets.util.UsuarioDTOUtil;
 import org.json.JSONObject;
-import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +12,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
@@ -30,6 +30,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc
+@ActiveProfiles("test")
 @RunWith(SpringJUnit4ClassRunner.class)
 @SpringBootTest
 @Transactional
@@ -208,11 +209,12 @@ public class UsuarioControllerTests {
         //Entao
         listaDeUsuarios.andExpect(content().contentType(MediaType.IMAGE_JPEG));
         assertThat(retorno.getContentAsByteArray()).isEqualTo(new byte[]{1, 2, 3});
+        assertThat(new JSONObject(conteudoRetorno).getString("fotoHash"))
+                .isEqualTo("039058c6f2c0cb492c533b0a4d14ef77cc0f78abccced5287d84a1a2011cfb81");
     }
 
-    @Ignore
     @Test
-    public void dadoEmailValido_quandoEsqueciMinhaSenha_entaoEnviaEmailDeRedefinicaoDeSenha() throws Exception {
+    public void dadoEmailValido_quandoEsqueciMinhaSenha_entaoAgendaEmailDeRedefinicaoDeSenha() throws Exception {
         //Dado
         mvc.perform(post("/usuario")
                 .contentType(MediaType.APPLICATION_JSON_UTF8_VALUE)
@@ -224,7 +226,7 @@ public class UsuarioControllerTests {
 
         //Entao
         enviaEmail.andExpect(status().isOk())
-                .andExpect(jsonPath("$", is("E-mail enviado com sucesso.")));
+                .andExpect(jsonPath("$", is("E-mail agendado para envio.")));
     }
 
     @Test
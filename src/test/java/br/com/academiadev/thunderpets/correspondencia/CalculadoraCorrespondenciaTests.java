@@ -0,0 +1,75 @@
+package br.com.academiadev.thunderpets.correspondencia;
+
+import br.com.academiadev.thunderpets.enums.*;
+import br.com.academiadev.thunderpets.model.Localizacao;
+import br.com.academiadev.thunderpets.model.Pet;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class CalculadoraCorrespondenciaTests {
+
+    private CalculadoraCorrespondencia calculadora = new CalculadoraCorrespondencia(50, 60);
+
+    @Test
+    public void dadoPetsIguaisEProximos_quandoPontuo_entaoPontuacaoMaiorQueDePetsDiferentes() {
+        //Dado
+        Pet perdido = criarPet(Porte.GRANDE, Sexo.MACHO, "-26.301245", "-48.844594", 0);
+        Pet parecido = criarPet(Porte.GRANDE, Sexo.MACHO, "-26.300709", "-48.857203", 2);
+        Pet outroPorte = criarPet(Porte.PEQUENO, Sexo.MACHO, "-26.300709", "-48.857203", 2);
+
+        //Quando
+        double pontuacaoParecido = calculadora.pontuar(perdido, parecido, calculadora.distancia(perdido, parecido));
+        double pontuacaoOutroPorte = calculadora.pontuar(perdido, outroPorte, calculadora.distancia(perdido, outroPorte));
+
+        //Entao
+        Assert.assertTrue(pontuacaoParecido > 0.9);
+        Assert.assertTrue(pontuacaoOutroPorte < pontuacaoParecido - 0.15);
+    }
+
+    @Test
+    public void dadoPetDeSexoOposto_quandoPontuo_entaoPontuacaoZero() {
+        //Dado
+        Pet perdido = criarPet(Porte.GRANDE, Sexo.MACHO, "-26.301245", "-48.844594", 0);
+        Pet femea = criarPet(Porte.GRANDE, Sexo.FEMEA, "-26.301245", "-48.844594", 0);
+
+        //Quando
+        double pontuacao = calculadora.pontuar(perdido, femea, calculadora.distancia(perdido, femea));
+
+        //Entao
+        Assert.assertEquals(0, pontuacao, 0);
+    }
+
+    @Test
+    public void dadoPetForaDoRaioOuDaJanela_quandoPontuo_entaoPontuacaoZero() {
+        //Dado
+        Pet perdido = criarPet(Porte.GRANDE, Sexo.MACHO, "-26.301245", "-48.844594", 0);
+        Pet distante = criarPet(Porte.GRANDE, Sexo.MACHO, "-23.550520", "-46.633308", 0);
+        Pet antigo = criarPet(Porte.GRANDE, Sexo.MACHO, "-26.301245", "-48.844594", 90);
+
+        //Quando
+        double pontuacaoDistante = calculadora.pontuar(perdido, distante, calculadora.distancia(perdido, distante));
+        double pontuacaoAntigo = calculadora.pontuar(perdido, antigo, calculadora.distancia(perdido, antigo));
+
+        //Entao
+        Assert.assertEquals(0, pontuacaoDistante, 0);
+        Assert.assertEquals(0, pontuacaoAntigo, 0);
+    }
+
+    private Pet criarPet(Porte porte, Sexo sexo, String latitude, String longitude, int diasAtras) {
+        return Pet.builder()
+                .especie(Especie.CACHORRO)
+                .porte(porte)
+                .sexo(sexo)
+                .idade(Idade.ADULTO)
+                .dataAchado(LocalDate.now().minusDays(diasAtras))
+                .localizacao(Localizacao.builder()
+                        .latitude(new BigDecimal(latitude))
+                        .longitude(new BigDecimal(longitude))
+                        .build())
+                .ativo(true)
+                .build();
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.academiadev.thunderpets.geo;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+public class AreaDeBuscaTests {
+
+    @Test
+    public void dadoCentroERaio_quandoCalculoArea_entaoAreaContemApenasPontosProximos() {
+        //Dado
+        double latitude = -26.301245;
+        double longitude = -48.844594;
+
+        //Quando
+        AreaDeBusca area = AreaDeBusca.aoRedorDe(latitude, longitude, 3);
+
+        //Entao
+        Assert.assertTrue(contem(area, new BigDecimal("-26.300709"), new BigDecimal("-48.857203")));
+        Assert.assertTrue(contem(area, new BigDecimal("-26.328000"), new BigDecimal("-48.844594")));
+        Assert.assertFalse(contem(area, new BigDecimal("-26.294918"), new BigDecimal("-48.890790")));
+    }
+
+    @Test
+    public void dadoRaioQueAtravessaAntimeridiano_quandoCalculoArea_entaoUsaTodasAsLongitudes() {
+        //Quando
+        AreaDeBusca area = AreaDeBusca.aoRedorDe(0, 179.99, 50);
+
+        //Entao
+        Assert.assertEquals(new BigDecimal("-180.000000"), area.getLongitudeMinima());
+        Assert.assertEquals(new BigDecimal("180.000000"), area.getLongitudeMaxima());
+    }
+
+    private boolean contem(AreaDeBusca area, BigDecimal latitude, BigDecimal longitude) {
+        return latitude.compareTo(area.getLatitudeMinima()) >= 0
+                && latitude.compareTo(area.getLatitudeMaxima()) <= 0
+                && longitude.compareTo(area.getLongitudeMinima()) >= 0
+                && longitude.compareTo(area.getLongitudeMaxima()) <= 0;
+    }
+}
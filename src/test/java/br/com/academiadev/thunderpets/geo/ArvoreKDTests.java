@@ -0,0 +1,78 @@
+package br.com.academiadev.thunderpets.geo;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class ArvoreKDTests {
+
+    @Test
+    public void dadoPontosAleatorios_quandoBuscoPorRaio_entaoRetornaOsMesmosDaBuscaExaustiva() {
+        //Dado
+        Random aleatorio = new Random(42);
+        double[] latitudes = new double[5000];
+        double[] longitudes = new double[5000];
+        preencher(aleatorio, latitudes, longitudes);
+        ArvoreKD arvore = new ArvoreKD(latitudes, longitudes);
+
+        //Quando
+        List<Integer> encontrados = new ArrayList<>();
+        arvore.buscarNoRaio(-26.3, 179.9, 80, posicao -> {
+            if (DistanciaGeografica.emQuilometros(-26.3, 179.9, latitudes[posicao], longitudes[posicao]) <= 80) {
+                encontrados.add(posicao);
+            }
+        });
+
+        //Entao
+        List<Integer> esperados = IntStream.range(0, latitudes.length)
+                .filter(i -> DistanciaGeografica.emQuilometros(-26.3, 179.9, latitudes[i], longitudes[i]) <= 80)
+                .boxed()
+                .collect(Collectors.toList());
+        Assert.assertFalse(esperados.isEmpty());
+        Assert.assertEquals(esperados, encontrados.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void dadoPontosAleatorios_quandoBuscoMaisProximosComFiltro_entaoRetornaOsMesmosDaBuscaExaustiva() {
+        //Dado
+        Random aleatorio = new Random(7);
+        double[] latitudes = new double[5000];
+        double[] longitudes = new double[5000];
+        preencher(aleatorio, latitudes, longitudes);
+        ArvoreKD arvore = new ArvoreKD(latitudes, longitudes);
+
+        //Quando
+        int[] encontrados = arvore.buscarMaisProximos(-26.3, -48.8, 15, posicao -> posicao % 3 == 0);
+
+        //Entao
+        List<Integer> esperados = IntStream.range(0, latitudes.length)
+                .filter(i -> i % 3 == 0)
+                .boxed()
+                .sorted(Comparator.comparingDouble(i -> DistanciaGeografica.emQuilometros(-26.3, -48.8, latitudes[i], longitudes[i])))
+                .limit(15)
+                .collect(Collectors.toList());
+        Assert.assertEquals(esperados, IntStream.of(encontrados).boxed().collect(Collectors.toList()));
+    }
+
+    private void preencher(Random aleatorio, double[] latitudes, double[] longitudes) {
+        for (int i = 0; i < latitudes.length; i++) {
+            // Metade espalhada pelo globo e metade concentrada perto dos centros buscados, dos dois lados do antimeridiano.
+            if (i % 2 == 0) {
+                latitudes[i] = aleatorio.nextDouble() * 180 - 90;
+                longitudes[i] = aleatorio.nextDouble() * 360 - 180;
+            } else if (i % 4 == 1) {
+                latitudes[i] = -26.3 + aleatorio.nextGaussian();
+                longitudes[i] = ((179.9 + aleatorio.nextGaussian() + 540) % 360) - 180;
+            } else {
+                latitudes[i] = -26.3 + aleatorio.nextGaussian();
+                longitudes[i] = -48.8 + aleatorio.nextGaussian();
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package br.com.academiadev.thunderpets.geo;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+public class GeohashTests {
+
+    @Test
+    public void dadoCoordenadas_quandoCodifico_entaoRetornaGeohashConhecido() {
+        //Quando
+        String geohash = Geohash.codificar(57.64911, 10.40744, 11);
+
+        //Entao
+        Assert.assertEquals("u4pruydqqvj", geohash);
+    }
+
+    @Test
+    public void dadoAreaDeBusca_quandoCalculoPrefixos_entaoTodoPontoDaAreaPossuiUmDosPrefixos() {
+        //Dado
+        AreaDeBusca area = AreaDeBusca.aoRedorDe(-26.301245, -48.844594, 3);
+        Random random = new Random(42);
+
+        //Quando
+        List<String> prefixos = Geohash.prefixosCobrindo(area, 16);
+
+        //Entao
+        Assert.assertFalse(prefixos.isEmpty());
+        Assert.assertTrue(prefixos.size() <= 16);
+        for (int i = 0; i < 1000; i++) {
+            double latitude = interpolar(area.getLatitudeMinima().doubleValue(), area.getLatitudeMaxima().doubleValue(), random.nextDouble());
+            double longitude = interpolar(area.getLongitudeMinima().doubleValue(), area.getLongitudeMaxima().doubleValue(), random.nextDouble());
+            String geohash = Geohash.codificar(latitude, longitude, Geohash.PRECISAO_MAXIMA);
+
+            Assert.assertTrue(geohash, prefixos.stream().anyMatch(geohash::startsWith));
+        }
+    }
+
+    @Test
+    public void dadoAreaMaiorQueOLimite_quandoCalculoPrefixos_entaoNaoUsaPrefixos() {
+        //Dado
+        AreaDeBusca area = AreaDeBusca.aoRedorDe(0, 179.99, 50);
+
+        //Quando
+        List<String> prefixos = Geohash.prefixosCobrindo(area, 4);
+
+        //Entao
+        Assert.assertTrue(prefixos.isEmpty());
+    }
+
+    private double interpolar(double minimo, double maximo, double fracao) {
+        return minimo + (maximo - minimo) * fracao;
+    }
+}
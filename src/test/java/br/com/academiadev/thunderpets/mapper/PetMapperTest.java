@@ -1,6 +1,7 @@
 package br.com.academiadev.thunderpets.mapper;
 
 
+import br.com.academiadev.thunderpets.dto.LocalizacaoDTO;
 import br.com.academiadev.thunderpets.dto.PetDTO;
 import br.com.academiadev.thunderpets.dto.PetRespostaDTO;
 import br.com.academiadev.thunderpets.enums.*;
@@ -64,7 +65,7 @@ public class PetMapperTest {
         Assert.assertEquals(petRespostaDTO.getStatus(), Status.PARA_ADOTAR);
         Assert.assertEquals(petRespostaDTO.getIdade(), Idade.ADULTO);
         Assert.assertEquals(petRespostaDTO.getUsuarioId(), usuario.getId());
-        Assert.assertEquals(petRespostaDTO.getLocalizacao(), localizacao);
+        Assert.assertEquals(petRespostaDTO.getLocalizacao(), LocalizacaoDTO.de(localizacao));
         Assert.assertTrue(petRespostaDTO.isAtivo());
     }
 
@@ -60,6 +60,7 @@ public class UsuarioMapperTests {
     public void dadoEntity_quandoMapeio_entaoDTO() {
         //Dado
         Usuario usuario = usuarioUtil.criarUsuarioKamuela();
+        usuario.setFotoHash("039058c6f2c0cb492c533b0a4d14ef77cc0f78abccced5287d84a1a2011cfb81");
 
         Contato contato1 = contatoUtil.criarContatoEmail();
         contato1.setUsuario(usuario);
@@ -79,7 +80,7 @@ public class UsuarioMapperTests {
         //Entao
         Assert.assertEquals(usuarioDTO.getNome(), "Kamuela Pereira");
         Assert.assertEquals(usuarioDTO.getEmail(), "kamuela@mail.com");
-        Assert.assertEquals(Arrays.toString(usuarioDTO.getFoto()), Arrays.toString(new byte[]{7, 8, 9}));
+        Assert.assertEquals(usuarioDTO.getFotoHash(), "039058c6f2c0cb492c533b0a4d14ef77cc0f78abccced5287d84a1a2011cfb81");
         Assert.assertTrue(usuarioDTO.isAtivo());
         Assert.assertEquals(usuarioDTO.getContatos(), contatosEsperados);
     }
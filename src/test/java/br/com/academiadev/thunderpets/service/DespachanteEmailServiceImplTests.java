@@ -0,0 +1,104 @@
+package br.com.academiadev.thunderpets.service;
+
+import br.com.academiadev.thunderpets.enums.StatusEmail;
+import br.com.academiadev.thunderpets.model.EmailPendente;
+import br.com.academiadev.thunderpets.repository.EmailPendenteRepository;
+import br.com.academiadev.thunderpets.service.impl.DespachanteEmailServiceImpl;
+import br.com.academiadev.thunderpets.util.ServidorSmtpFalso;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.transaction.Transactional;
+import java.net.ServerSocket;
+import java.time.LocalDateTime;
+import java.util.Properties;
+
+@ActiveProfiles("test")
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest
+@Transactional
+public class DespachanteEmailServiceImplTests {
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailPendenteRepository emailPendenteRepository;
+
+    @Test
+    public void dadoEmailNaFila_quandoDespacho_entaoEnviaPeloSmtp() throws Exception {
+        try (ServidorSmtpFalso smtp = new ServidorSmtpFalso()) {
+            //Dado
+            emailService.enviaMensagemSimples("epaminondas@mail.com", "Assunto do teste", "Conteúdo do teste");
+            EmailPendente email = buscarEmail("Assunto do teste");
+
+            //Quando
+            despachante(smtp.getPorta(), 3).despachar();
+
+            //Entao
+            Assert.assertEquals(StatusEmail.ENVIADO, email.getStatus());
+            Assert.assertTrue(smtp.getMensagens().stream().anyMatch(mensagem -> mensagem.contains("Subject: Assunto do teste")));
+        }
+    }
+
+    @Test
+    public void dadoSmtpIndisponivel_quandoDespacho_entaoReagendaComEspera() throws Exception {
+        //Dado
+        emailService.enviaMensagemSimples("epaminondas@mail.com", "Assunto sem servidor", "Conteúdo do teste");
+        EmailPendente email = buscarEmail("Assunto sem servidor");
+
+        //Quando
+        despachante(portaFechada(), 3).despachar();
+
+        //Entao
+        Assert.assertEquals(StatusEmail.PENDENTE, email.getStatus());
+        Assert.assertEquals(1, email.getTentativas());
+        Assert.assertNotNull(email.getUltimoErro());
+        Assert.assertTrue(email.getProximaTentativa().isAfter(LocalDateTime.now().plusSeconds(29)));
+    }
+
+    @Test
+    public void dadoUltimaTentativa_quandoEnvioFalha_entaoDescartaEmail() throws Exception {
+        //Dado
+        emailService.enviaMensagemSimples("epaminondas@mail.com", "Assunto descartado", "Conteúdo do teste");
+        EmailPendente email = buscarEmail("Assunto descartado");
+
+        //Quando
+        despachante(portaFechada(), 1).despachar();
+
+        //Entao
+        Assert.assertEquals(StatusEmail.DESCARTADO, email.getStatus());
+    }
+
+    private DespachanteEmailServiceImpl despachante(int porta, int maximoTentativas) {
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("127.0.0.1");
+        javaMailSender.setPort(porta);
+
+        Properties propriedades = new Properties();
+        propriedades.put("mail.smtp.connectiontimeout", "2000");
+        propriedades.put("mail.smtp.timeout", "2000");
+        javaMailSender.setJavaMailProperties(propriedades);
+
+        return new DespachanteEmailServiceImpl(emailPendenteRepository, javaMailSender, true, 100, maximoTentativas, 30, 3600);
+    }
+
+    private EmailPendente buscarEmail(String assunto) {
+        return emailPendenteRepository.findAll().stream()
+                .filter(email -> email.getAssunto().equals(assunto))
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+    }
+
+    private int portaFechada() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
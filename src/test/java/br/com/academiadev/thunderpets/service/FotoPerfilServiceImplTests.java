@@ -0,0 +1,109 @@
+package br.com.academiadev.thunderpets.service;
+
+import br.com.academiadev.thunderpets.model.Usuario;
+import br.com.academiadev.thunderpets.repository.UsuarioRepository;
+import br.com.academiadev.thunderpets.util.UsuarioUtil;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Optional;
+
+@ActiveProfiles("test")
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(properties = "foto-perfil.tamanho-maximo-bytes=1024")
+@Transactional
+public class FotoPerfilServiceImplTests {
+
+    @Autowired
+    private FotoPerfilService fotoPerfilService;
+
+    @Autowired
+    private BlobStoreService blobStoreService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private UsuarioUtil usuarioUtil;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private HttpServer servidor;
+
+    @Before
+    public void iniciarServidor() throws Exception {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/pequena", troca -> responder(troca, new byte[]{1, 2, 3}));
+        servidor.createContext("/grande", troca -> responder(troca, new byte[2048]));
+        servidor.start();
+    }
+
+    @After
+    public void pararServidor() {
+        servidor.stop(0);
+    }
+
+    @Test
+    public void dadoFotoPequena_quandoBaixo_entaoRetornaConteudo() {
+        //Dado
+        String url = url("/pequena");
+
+        //Quando
+        Optional<byte[]> foto = fotoPerfilService.baixar(url);
+
+        //Entao
+        Assert.assertArrayEquals(new byte[]{1, 2, 3}, foto.orElse(null));
+    }
+
+    @Test
+    public void dadoFotoMaiorQueOLimite_quandoBaixo_entaoIgnoraFoto() {
+        //Dado
+        String url = url("/grande");
+
+        //Quando
+        Optional<byte[]> foto = fotoPerfilService.baixar(url);
+
+        //Entao
+        Assert.assertFalse(foto.isPresent());
+    }
+
+    @Test
+    public void dadoUsuarioSocialSemFoto_quandoSalvoFotoPerfil_entaoGravaFotoNoBlobStore() {
+        //Dado
+        Usuario usuario = usuarioRepository.saveAndFlush(usuarioUtil.criarUsuarioKamuela());
+
+        //Quando
+        fotoPerfilService.salvarFotoPerfil(usuario.getId(), url("/pequena"));
+
+        //Entao
+        entityManager.refresh(usuario);
+        Assert.assertNotNull(usuario.getFotoHash());
+        Assert.assertArrayEquals(new byte[]{1, 2, 3}, blobStoreService.buscar(usuario.getFotoHash()).orElse(null));
+    }
+
+    private String url(String caminho) {
+        return String.format("http://127.0.0.1:%d%s", servidor.getAddress().getPort(), caminho);
+    }
+
+    private static void responder(HttpExchange troca, byte[] corpo) throws IOException {
+        troca.sendResponseHeaders(200, corpo.length);
+        try (OutputStream saida = troca.getResponseBody()) {
+            saida.write(corpo);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package br.com.academiadev.thunderpets.service;
+
+import br.com.academiadev.thunderpets.enums.TamanhoFoto;
+import br.com.academiadev.thunderpets.exception.ErroAoProcessarException;
+import br.com.academiadev.thunderpets.service.impl.ImagemServiceImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+public class ImagemServiceImplTests {
+
+    private ImagemService imagemService = new ImagemServiceImpl();
+
+    @Test
+    public void dadoImagemGrande_quandoRedimensionoParaMiniatura_entaoMaiorLadoLimitado() throws IOException {
+        //Dado
+        byte[] original = png(1600, 900);
+
+        //Quando
+        byte[] miniatura = imagemService.redimensionar(original, TamanhoFoto.MINIATURA);
+
+        //Entao
+        BufferedImage imagem = ImageIO.read(new ByteArrayInputStream(miniatura));
+        Assert.assertEquals(160, imagem.getWidth());
+        Assert.assertEquals(90, imagem.getHeight());
+    }
+
+    @Test
+    public void dadoImagemPequena_quandoRedimensiono_entaoMantemOriginal() throws IOException {
+        //Dado
+        byte[] original = png(100, 80);
+
+        //Quando
+        byte[] miniatura = imagemService.redimensionar(original, TamanhoFoto.MINIATURA);
+
+        //Entao
+        Assert.assertNull(miniatura);
+    }
+
+    @Test
+    public void dadoConteudoQueNaoEImagem_quandoRedimensiono_entaoMantemOriginal() {
+        //Quando
+        byte[] miniatura = imagemService.redimensionar(new byte[]{1, 2, 3}, TamanhoFoto.CARTAO);
+
+        //Entao
+        Assert.assertNull(miniatura);
+    }
+
+    @Test
+    public void dadoImagemGrande_quandoRedimensionoVariosTamanhos_entaoGeraSoOsMenoresQueAImagem() throws IOException {
+        //Dado
+        byte[] original = png(1000, 500);
+
+        //Quando
+        Map<TamanhoFoto, byte[]> redimensionadas = imagemService.redimensionar(original,
+                Arrays.asList(TamanhoFoto.MINIATURA, TamanhoFoto.CARTAO, TamanhoFoto.COMPLETA));
+
+        //Entao
+        Assert.assertEquals(160, ImageIO.read(new ByteArrayInputStream(redimensionadas.get(TamanhoFoto.MINIATURA))).getWidth());
+        Assert.assertEquals(480, ImageIO.read(new ByteArrayInputStream(redimensionadas.get(TamanhoFoto.CARTAO))).getWidth());
+        Assert.assertFalse(redimensionadas.containsKey(TamanhoFoto.COMPLETA));
+    }
+
+    @Test(expected = ErroAoProcessarException.class)
+    public void dadoImagemComMuitosPixels_quandoRedimensiono_entaoRecusaSemDecodificar() throws IOException {
+        //Quando
+        imagemService.redimensionar(cabecalhoPng(50000, 50000), TamanhoFoto.MINIATURA);
+    }
+
+    @Test
+    public void dadoMesmaImagemEmTamanhosDiferentes_quandoCalculoHashPerceptual_entaoHashesProximos() throws IOException {
+        //Dado
+        byte[] original = ondas(1200, 900, 0);
+        byte[] reduzida = imagemService.redimensionar(original, TamanhoFoto.MINIATURA);
+        byte[] outra = ondas(1200, 900, Math.PI / 2);
+
+        //Quando
+        long hashOriginal = imagemService.hashPerceptual(original);
+        long hashReduzida = imagemService.hashPerceptual(reduzida);
+        long hashOutra = imagemService.hashPerceptual(outra);
+
+        //Entao
+        Assert.assertTrue(Long.bitCount(hashOriginal ^ hashReduzida) <= 4);
+        Assert.assertTrue(Long.bitCount(hashOriginal ^ hashOutra) > 16);
+        Assert.assertNull(imagemService.hashPerceptual(new byte[]{1, 2, 3}));
+    }
+
+    private byte[] ondas(int largura, int altura, double fase) throws IOException {
+        BufferedImage imagem = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < largura; x++) {
+            for (int y = 0; y < altura; y++) {
+                int cinza = (int) (127 + 127 * Math.sin(3 * Math.PI * x / largura + 2 * Math.PI * y / altura + fase));
+                imagem.setRGB(x, y, cinza << 16 | cinza << 8 | cinza);
+            }
+        }
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        ImageIO.write(imagem, "png", saida);
+
+        return saida.toByteArray();
+    }
+
+    /**
+     * Só a assinatura e o IHDR de um PNG: as dimensões são legíveis, mas não há pixels para decodificar.
+     */
+    private byte[] cabecalhoPng(int largura, int altura) throws IOException {
+        ByteArrayOutputStream ihdr = new ByteArrayOutputStream();
+        DataOutputStream dados = new DataOutputStream(ihdr);
+        dados.writeBytes("IHDR");
+        dados.writeInt(largura);
+        dados.writeInt(altura);
+        dados.write(new byte[]{8, 2, 0, 0, 0});
+
+        CRC32 crc = new CRC32();
+        crc.update(ihdr.toByteArray());
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        DataOutputStream png = new DataOutputStream(saida);
+        png.write(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'});
+        png.writeInt(13);
+        png.write(ihdr.toByteArray());
+        png.writeInt((int) crc.getValue());
+
+        return saida.toByteArray();
+    }
+
+    private byte[] png(int largura, int altura) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB), "png", saida);
+
+        return saida.toByteArray();
+    }
+}
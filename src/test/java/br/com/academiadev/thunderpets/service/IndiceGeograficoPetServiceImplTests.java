@@ -0,0 +1,167 @@
+package br.com.academiadev.thunderpets.service;
+
+import br.com.academiadev.thunderpets.dto.FiltroPetDTO;
+import br.com.academiadev.thunderpets.dto.PetComDistanciaDTO;
+import br.com.academiadev.thunderpets.dto.PetRespostaDTO;
+import br.com.academiadev.thunderpets.enums.*;
+import br.com.academiadev.thunderpets.geo.PetProximo;
+import br.com.academiadev.thunderpets.model.Localizacao;
+import br.com.academiadev.thunderpets.model.Pet;
+import br.com.academiadev.thunderpets.model.Usuario;
+import br.com.academiadev.thunderpets.repository.LocalizacaoRepository;
+import br.com.academiadev.thunderpets.repository.PetRepository;
+import br.com.academiadev.thunderpets.repository.UsuarioRepository;
+import br.com.academiadev.thunderpets.util.LocalizacaoUtil;
+import br.com.academiadev.thunderpets.util.PetUtil;
+import br.com.academiadev.thunderpets.util.UsuarioUtil;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.transaction.Transactional;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@ActiveProfiles("test")
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(properties = "indice-geografico.habilitado=true")
+@Transactional
+public class IndiceGeograficoPetServiceImplTests {
+
+    private static final double LATITUDE = -27.596910;
+    private static final double LONGITUDE = -48.549580;
+
+    @Autowired
+    private IndiceGeograficoPetService indiceGeograficoPetService;
+
+    @Autowired
+    private PetService petService;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private LocalizacaoRepository localizacaoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private UsuarioUtil usuarioUtil;
+
+    @Autowired
+    private LocalizacaoUtil localizacaoUtil;
+
+    @Autowired
+    private PetUtil petUtil;
+
+    @Before
+    public void criarPets() {
+        Usuario usuario = usuarioRepository.save(usuarioUtil.criarUsuarioKamuela());
+
+        Random aleatorio = new Random(42);
+        for (int i = 0; i < 40; i++) {
+            Localizacao localizacao = localizacaoUtil.criaLocalizacaoGaruva();
+            localizacao.setLatitude(coordenada(LATITUDE + (aleatorio.nextDouble() - 0.5) * 0.4));
+            localizacao.setLongitude(coordenada(LONGITUDE + (aleatorio.nextDouble() - 0.5) * 0.4));
+
+            Pet pet = petUtil.criaPetBrabo();
+            pet.setNome("Brabo " + i);
+            pet.setEspecie(i % 2 == 0 ? Especie.CACHORRO : Especie.GATO);
+            pet.setStatus(i % 3 == 0 ? Status.PROCURANDO_DONO : Status.PARA_ADOTAR);
+            pet.setUsuario(usuario);
+            pet.setLocalizacao(localizacaoRepository.save(localizacao));
+            petRepository.save(pet);
+        }
+        petRepository.flush();
+
+        indiceGeograficoPetService.carregar();
+    }
+
+    @Test
+    public void dadoIndiceCarregado_quandoBuscoPorRaioOrdenadoPorDistancia_entaoRetornaOMesmoQueOBanco() {
+        //Dado
+        FiltroPetDTO filtro = FiltroPetDTO.builder()
+                .latitude(LATITUDE)
+                .longitude(LONGITUDE)
+                .raioDistancia(12.0)
+                .status(Status.PARA_ADOTAR)
+                .build();
+        Page<PetComDistanciaDTO> doBanco = petRepository.buscar(filtro,
+                PageRequest.of(1, 5, Sort.Direction.DESC, "distancia"));
+
+        //Quando
+        Page<PetRespostaDTO> doIndice = petService.buscar(null, null, null, null, null, null, Status.PARA_ADOTAR, null,
+                null, null, null, String.valueOf(LATITUDE), String.valueOf(LONGITUDE), 12.0,
+                FormatoFoto.URL, TamanhoFoto.MINIATURA, 1, 5, Sort.Direction.DESC, "distancia");
+
+        //Entao
+        Assert.assertTrue(indiceGeograficoPetService.atende(filtro));
+        Assert.assertEquals(doBanco.getTotalElements(), doIndice.getTotalElements());
+        Assert.assertEquals(doBanco.getContent().stream().map(p -> p.getPet().getId()).collect(Collectors.toList()),
+                doIndice.getContent().stream().map(PetRespostaDTO::getId).collect(Collectors.toList()));
+        for (int i = 0; i < doBanco.getContent().size(); i++) {
+            Assert.assertEquals(doBanco.getContent().get(i).getDistancia(),
+                    doIndice.getContent().get(i).getDistancia().doubleValue(), 1e-6);
+        }
+    }
+
+    @Test
+    public void dadoIndiceCarregado_quandoBuscoMaisProximos_entaoRetornaOMesmoQueOBanco() {
+        //Dado
+        FiltroPetDTO filtro = FiltroPetDTO.builder()
+                .latitude(LATITUDE)
+                .longitude(LONGITUDE)
+                .especie(Especie.GATO)
+                .build();
+        List<UUID> doBanco = petRepository.buscar(filtro, PageRequest.of(0, 7, Sort.Direction.ASC, "distancia"))
+                .getContent().stream()
+                .map(p -> p.getPet().getId())
+                .collect(Collectors.toList());
+
+        //Quando
+        List<UUID> doIndice = indiceGeograficoPetService.buscarMaisProximos(filtro, 7).stream()
+                .map(PetProximo::getPetId)
+                .collect(Collectors.toList());
+
+        //Entao
+        Assert.assertEquals(7, doIndice.size());
+        Assert.assertEquals(doBanco, doIndice);
+    }
+
+    @Test
+    public void dadoPetIndexado_quandoDesativoEReindexo_entaoNaoRetornaMais() {
+        //Dado
+        FiltroPetDTO filtro = FiltroPetDTO.builder()
+                .latitude(LATITUDE)
+                .longitude(LONGITUDE)
+                .build();
+        Pet pet = petRepository.findById(indiceGeograficoPetService.buscarMaisProximos(filtro, 1).get(0).getPetId()).get();
+
+        //Quando
+        pet.setAtivo(false);
+        petRepository.saveAndFlush(pet);
+        indiceGeograficoPetService.indexar(pet.getId());
+
+        //Entao
+        Assert.assertNotEquals(pet.getId(), indiceGeograficoPetService.buscarMaisProximos(filtro, 1).get(0).getPetId());
+        Assert.assertTrue(indiceGeograficoPetService.buscarNoRaio(filtro.toBuilder().raioDistancia(50.0).build()).stream()
+                .noneMatch(proximo -> proximo.getPetId().equals(pet.getId())));
+    }
+
+    private BigDecimal coordenada(double valor) {
+        return BigDecimal.valueOf(valor).setScale(6, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.academiadev.thunderpets.service;
+
+import br.com.academiadev.thunderpets.model.Usuario;
+import br.com.academiadev.thunderpets.repository.UsuarioRepository;
+import br.com.academiadev.thunderpets.util.UsuarioUtil;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.transaction.Transactional;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+@ActiveProfiles("test")
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest
+@Transactional
+public class LimpezaBlobStoreServiceImplTests {
+
+    @Autowired
+    private LimpezaBlobStoreService limpezaBlobStoreService;
+
+    @Autowired
+    private BlobStoreService blobStoreService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private UsuarioUtil usuarioUtil;
+
+    @Value("${blob-store.diretorio}")
+    private String diretorio;
+
+    @Test
+    public void dadoBlobsAntigos_quandoLimpo_entaoRemoveApenasOsSemReferencia() throws IOException {
+        //Dado
+        String referenciado = blobStoreService.salvar(new byte[]{31, 32, 33});
+        String semReferencia = blobStoreService.salvar(new byte[]{34, 35, 36});
+        String recente = blobStoreService.salvar(new byte[]{37, 38, 39});
+        envelhecer(referenciado);
+        envelhecer(semReferencia);
+
+        Usuario usuario = usuarioUtil.criarUsuarioKamuela();
+        usuario.setFotoHash(referenciado);
+        usuarioRepository.saveAndFlush(usuario);
+
+        //Quando
+        limpezaBlobStoreService.limpar();
+
+        //Entao
+        Assert.assertTrue(blobStoreService.buscar(referenciado).isPresent());
+        Assert.assertFalse(blobStoreService.buscar(semReferencia).isPresent());
+        Assert.assertTrue(blobStoreService.buscar(recente).isPresent());
+    }
+
+    @Test
+    public void dadoBlobAntigoSemReferencia_quandoSalvoDeNovoAntesDaLimpeza_entaoNaoRemove() throws IOException {
+        //Dado
+        String hash = blobStoreService.salvar(new byte[]{41, 42, 43});
+        envelhecer(hash);
+
+        //Quando
+        blobStoreService.salvar(new byte[]{41, 42, 43});
+        limpezaBlobStoreService.limpar();
+
+        //Entao
+        Assert.assertTrue(blobStoreService.buscar(hash).isPresent());
+    }
+
+    private void envelhecer(String hash) throws IOException {
+        Path arquivo = Paths.get(diretorio).toAbsolutePath()
+                .resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+        Files.setLastModifiedTime(arquivo, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+    }
+}
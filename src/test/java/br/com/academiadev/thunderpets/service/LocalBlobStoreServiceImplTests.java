@@ -0,0 +1,92 @@
+package br.com.academiadev.thunderpets.service;
+
+import br.com.academiadev.thunderpets.service.impl.LocalBlobStoreServiceImpl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.stream.Stream;
+
+public class LocalBlobStoreServiceImplTests {
+
+    @Rule
+    public TemporaryFolder diretorio = new TemporaryFolder();
+
+    private BlobStoreService blobStoreService;
+
+    @Before
+    public void setUp() {
+        blobStoreService = new LocalBlobStoreServiceImpl(diretorio.getRoot().getAbsolutePath());
+    }
+
+    @Test
+    public void dadoConteudo_quandoSalvo_entaoBuscoPeloHash() {
+        //Quando
+        String hash = blobStoreService.salvar(new byte[]{1, 2, 3});
+
+        //Entao
+        Assert.assertEquals("039058c6f2c0cb492c533b0a4d14ef77cc0f78abccced5287d84a1a2011cfb81", hash);
+        Assert.assertArrayEquals(new byte[]{1, 2, 3}, blobStoreService.buscar(hash).get());
+    }
+
+    @Test
+    public void dadoMesmoConteudoDuasVezes_quandoSalvo_entaoGuardaUmArquivo() throws IOException {
+        //Quando
+        String primeiro = blobStoreService.salvar(new byte[]{4, 5, 6});
+        String segundo = blobStoreService.salvar(new byte[]{4, 5, 6});
+
+        //Entao
+        Assert.assertEquals(primeiro, segundo);
+        try (Stream<Path> arquivos = Files.walk(diretorio.getRoot().toPath())) {
+            Assert.assertEquals(1, arquivos.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    public void dadoHashInexistenteOuInvalido_quandoBusco_entaoVazio() {
+        //Entao
+        Assert.assertFalse(blobStoreService.buscar("0000000000000000000000000000000000000000000000000000000000000000").isPresent());
+        Assert.assertFalse(blobStoreService.buscar("../../etc/passwd").isPresent());
+        Assert.assertFalse(blobStoreService.buscar(null).isPresent());
+    }
+
+    @Test
+    public void dadoBlobSalvoDepoisDoLimite_quandoRemovo_entaoMantemOArquivo() throws IOException {
+        //Dado
+        String hash = blobStoreService.salvar(new byte[]{7, 8, 9});
+
+        //Quando
+        boolean removido = blobStoreService.removerSeAnteriorA(hash, Instant.now().minus(1, ChronoUnit.HOURS));
+
+        //Entao
+        Assert.assertFalse(removido);
+        Assert.assertArrayEquals(new byte[]{7, 8, 9}, blobStoreService.buscar(hash).get());
+        try (Stream<Path> arquivos = Files.walk(diretorio.getRoot().toPath())) {
+            Assert.assertEquals(1, arquivos.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    public void dadoBlobRemovido_quandoSalvoDeNovo_entaoGravaOArquivo() throws IOException {
+        //Dado
+        String hash = blobStoreService.salvar(new byte[]{10, 11, 12});
+        Assert.assertTrue(blobStoreService.removerSeAnteriorA(hash, Instant.now().plus(1, ChronoUnit.HOURS)));
+        Assert.assertFalse(blobStoreService.buscar(hash).isPresent());
+
+        //Quando
+        blobStoreService.salvar(new byte[]{10, 11, 12});
+
+        //Entao
+        Assert.assertArrayEquals(new byte[]{10, 11, 12}, blobStoreService.buscar(hash).get());
+        try (Stream<Path> arquivos = Files.walk(diretorio.getRoot().toPath())) {
+            Assert.assertEquals(1, arquivos.filter(Files::isRegularFile).count());
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package br.com.academiadev.thunderpets.service;
+
+import br.com.academiadev.thunderpets.cache.ChaveBuscaPet;
+import br.com.academiadev.thunderpets.cache.ChaveCachePet;
+import br.com.academiadev.thunderpets.cache.ResultadoBuscaPet;
+import br.com.academiadev.thunderpets.cache.VersaoBuscaPet;
+import br.com.academiadev.thunderpets.dto.PetDTO;
+import br.com.academiadev.thunderpets.dto.PetRespostaDTO;
+import br.com.academiadev.thunderpets.dto.PetSimilarDTO;
+import br.com.academiadev.thunderpets.enums.FormatoFoto;
+import br.com.academiadev.thunderpets.enums.TamanhoFoto;
+import br.com.academiadev.thunderpets.exception.ServicoIndisponivelException;
+import br.com.academiadev.thunderpets.mapper.UsuarioMapper;
+import br.com.academiadev.thunderpets.model.Pet;
+import br.com.academiadev.thunderpets.model.Usuario;
+import br.com.academiadev.thunderpets.repository.FotoRepository;
+import br.com.academiadev.thunderpets.repository.LocalizacaoRepository;
+import br.com.academiadev.thunderpets.repository.PetRepository;
+import br.com.academiadev.thunderpets.repository.UsuarioRepository;
+import br.com.academiadev.thunderpets.util.PetDTOUtil;
+import br.com.academiadev.thunderpets.util.PetUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import javax.imageio.ImageIO;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.transaction.Transactional;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+@ActiveProfiles("test")
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest
+@Transactional
+public class PetServiceImplTests {
+
+    @Autowired
+    private PetService petService;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private LocalizacaoRepository localizacaoRepository;
+
+    @Autowired
+    private UsuarioMapper usuarioMapper;
+
+    @Autowired
+    private PetUtil petUtil;
+
+    @Autowired
+    private PetDTOUtil petDTOUtil;
+
+    @Autowired
+    private Cache<ChaveCachePet, PetRespostaDTO> cachePet;
+
+    @Autowired
+    private Cache<ChaveBuscaPet, ResultadoBuscaPet> cacheBuscaPet;
+
+    @Autowired
+    private VersaoBuscaPet versaoBuscaPet;
+
+    @Autowired
+    private BarramentoInvalidacaoService barramentoInvalidacaoService;
+
+    @Autowired
+    private SimilaridadeFotoService similaridadeFotoService;
+
+    @Autowired
+    private FotoRepository fotoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void dadoPetJaBuscado_quandoBuscoNovamente_entaoRetornaDoCache() {
+        //Dado
+        Pet pet = salvarPet();
+        PetRespostaDTO primeiraBusca = petService.buscarPorId(pet.getId(), FormatoFoto.CONTEUDO, TamanhoFoto.COMPLETA);
+        long acertosAntes = cachePet.stats().hitCount();
+
+        //Quando
+        PetRespostaDTO segundaBusca = petService.buscarPorId(pet.getId(), FormatoFoto.CONTEUDO, TamanhoFoto.COMPLETA);
+
+        //Entao
+        Assert.assertSame(primeiraBusca, segundaBusca);
+        Assert.assertEquals(acertosAntes + 1, cachePet.stats().hitCount());
+    }
+
+    @Test
+    public void dadoPetEmCache_quandoExcluoETransacaoTermina_entaoRemoveDoCache() {
+        //Dado
+        Pet pet = salvarPet();
+        ChaveCachePet chave = new ChaveCachePet(pet.getId(), FormatoFoto.CONTEUDO, TamanhoFoto.COMPLETA);
+        petService.buscarPorId(pet.getId(), FormatoFoto.CONTEUDO, TamanhoFoto.COMPLETA);
+
+        //Quando
+        petService.excluir(pet.getId());
+        boolean emCacheAntesDoFim = cachePet.getIfPresent(chave) != null;
+        TestTransaction.end();
+
+        //Entao
+        Assert.assertTrue(emCacheAntesDoFim);
+        Assert.assertNull(cachePet.getIfPresent(chave));
+    }
+
+    @Test
+    public void dadoBuscaJaFeita_quandoBuscoComMesmosFiltros_entaoReaproveitaResultado() {
+        //Dado
+        Pet pet = salvarPet();
+        Page<PetRespostaDTO> primeiraBusca = buscarPorNome("BRABO");
+        long acertosAntes = cacheBuscaPet.stats().hitCount();
+
+        //Quando
+        Page<PetRespostaDTO> segundaBusca = buscarPorNome("brabo");
+
+        //Entao
+        Assert.assertEquals(acertosAntes + 1, cacheBuscaPet.stats().hitCount());
+        Assert.assertEquals(1, segundaBusca.getTotalElements());
+        Assert.assertEquals(pet.getId(), segundaBusca.getContent().get(0).getId());
+        Assert.assertSame(primeiraBusca.getContent().get(0), segundaBusca.getContent().get(0));
+    }
+
+    @Test
+    public void dadoBuscaEmCache_quandoPetEAlteradoETransacaoTermina_entaoNovaVersaoDaBusca() {
+        //Dado
+        Pet pet = salvarPet();
+        buscarPorNome("brabo");
+        long versaoAntes = versaoBuscaPet.atual();
+
+        //Quando
+        petService.excluir(pet.getId());
+        TestTransaction.end();
+
+        //Entao
+        Assert.assertEquals(versaoAntes + 1, versaoBuscaPet.atual());
+    }
+
+    @Test
+    public void dadoPetEmCache_quandoOutraInstanciaNotificaAlteracao_entaoRemoveDoCache() {
+        //Dado
+        Pet pet = salvarPet();
+        ChaveCachePet chave = new ChaveCachePet(pet.getId(), FormatoFoto.CONTEUDO, TamanhoFoto.COMPLETA);
+        petService.buscarPorId(pet.getId(), FormatoFoto.CONTEUDO, TamanhoFoto.COMPLETA);
+        long versaoAntes = versaoBuscaPet.atual();
+
+        //Quando
+        barramentoInvalidacaoService.receber(String.format("outra-instancia:PET:%s", pet.getId()));
+
+        //Entao
+        Assert.assertNull(cachePet.getIfPresent(chave));
+        Assert.assertEquals(versaoAntes + 1, versaoBuscaPet.atual());
+    }
+
+    @Test
+    public void dadoPetComVariasFotos_quandoSalvo_entaoUsaMesmaQuantidadeDeComandosQueComUmaFoto() {
+        //Dado
+        Usuario usuario = salvarPet().getUsuario();
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.setStatisticsEnabled(true);
+
+        //Quando
+        long comandosComUmaFoto = contarComandos(estatisticas, criarPetDTO(usuario, 1));
+        long comandosComCincoFotos = contarComandos(estatisticas, criarPetDTO(usuario, 5));
+        estatisticas.setStatisticsEnabled(false);
+
+        //Entao
+        Assert.assertEquals(comandosComUmaFoto, comandosComCincoFotos);
+    }
+
+    @Test
+    public void dadoMesmaFotoEmDoisPets_quandoBuscoSimilares_entaoRetornaOutroPetComoDuplicata() throws IOException {
+        //Dado
+        Usuario usuario = salvarPet().getUsuario();
+        byte[] foto = png();
+        PetRespostaDTO original = petService.salvar(criarPetDTO(usuario, Collections.singletonList(foto)));
+        PetRespostaDTO repetido = petService.salvar(criarPetDTO(usuario, Collections.singletonList(foto)));
+        similaridadeFotoService.indexar(original.getId());
+        similaridadeFotoService.indexar(repetido.getId());
+        UUID fotoId = fotoRepository.findByPetId(original.getId()).get(0).getId();
+
+        //Quando
+        List<PetSimilarDTO> similares = petService.buscarSimilares(original.getId(), fotoId, FormatoFoto.URL, TamanhoFoto.MINIATURA);
+
+        //Entao
+        Assert.assertEquals(1, similares.size());
+        Assert.assertEquals(repetido.getId(), similares.get(0).getPet().getId());
+        Assert.assertEquals(0, similares.get(0).getDistancia());
+        Assert.assertTrue(similares.get(0).isDuplicata());
+    }
+
+    @Test
+    public void dadoFotoAindaNaoIndexada_quandoBuscoSimilares_entaoErroSemCalcularHash() throws IOException {
+        //Dado
+        Usuario usuario = salvarPet().getUsuario();
+        PetRespostaDTO pet = petService.salvar(criarPetDTO(usuario, Collections.singletonList(png())));
+        UUID fotoId = fotoRepository.findByPetId(pet.getId()).get(0).getId();
+
+        //Quando
+        try {
+            petService.buscarSimilares(pet.getId(), fotoId, FormatoFoto.URL, TamanhoFoto.MINIATURA);
+            Assert.fail();
+        } catch (ServicoIndisponivelException e) {
+            //Entao
+            Assert.assertNull(fotoRepository.findById(fotoId).get().getHashPerceptual());
+        }
+    }
+
+    private long contarComandos(Statistics estatisticas, PetDTO petDTO) {
+        estatisticas.clear();
+        petService.salvar(petDTO);
+        entityManager.flush();
+
+        return estatisticas.getPrepareStatementCount();
+    }
+
+    private PetDTO criarPetDTO(Usuario usuario, int quantidadeFotos) {
+        return criarPetDTO(usuario, Collections.nCopies(quantidadeFotos, new byte[]{1, 2, 3}));
+    }
+
+    private PetDTO criarPetDTO(Usuario usuario, List<byte[]> fotos) {
+        PetDTO petDTO = petDTOUtil.criaPetDTOBrabo(usuarioMapper.toDTO(usuario, null));
+        petDTO.setFotos(fotos);
+
+        return petDTO;
+    }
+
+    private byte[] png() throws IOException {
+        BufferedImage imagem = new BufferedImage(90, 80, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < 90; x++) {
+            for (int y = 0; y < 80; y++) {
+                imagem.setRGB(x, y, (x * 7 + y * 3) % 256 * 0x010101);
+            }
+        }
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        ImageIO.write(imagem, "png", saida);
+
+        return saida.toByteArray();
+    }
+
+    private Page<PetRespostaDTO> buscarPorNome(String nome) {
+        return petService.buscar(nome, null, null, null, null, null, null, null, null, null, null, null, null, null,
+                FormatoFoto.CONTEUDO, TamanhoFoto.MINIATURA, 0, 10, Sort.Direction.DESC, "dataRegistro");
+    }
+
+    private Pet salvarPet() {
+        Pet pet = petUtil.criaPetBrabo();
+        pet.setUsuario(usuarioRepository.save(pet.getUsuario()));
+        pet.setLocalizacao(localizacaoRepository.save(pet.getLocalizacao()));
+
+        return petRepository.saveAndFlush(pet);
+    }
+}
@@ -0,0 +1,124 @@
+package br.com.academiadev.thunderpets.service;
+
+import br.com.academiadev.thunderpets.dto.CredenciaisUsuarioDTO;
+import br.com.academiadev.thunderpets.model.Usuario;
+import br.com.academiadev.thunderpets.model.UsuarioAutenticado;
+import br.com.academiadev.thunderpets.repository.UsuarioRepository;
+import br.com.academiadev.thunderpets.util.UsuarioUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import javax.transaction.Transactional;
+
+@ActiveProfiles("test")
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest
+@Transactional
+public class UserDetailsServiceImplTests {
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private Cache<String, CredenciaisUsuarioDTO> cacheUsuario;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UsuarioUtil usuarioUtil;
+
+    @Before
+    public void limparCache() {
+        // O cache é por e-mail e sobrevive ao rollback dos outros testes que usam o mesmo usuário.
+        cacheUsuario.invalidateAll();
+    }
+
+    @Test
+    public void dadoUsuarioJaCarregado_quandoCarregoNovamente_entaoRetornaDoCacheSemCompartilharInstancia() {
+        //Dado
+        Usuario usuario = usuarioRepository.saveAndFlush(usuarioUtil.criarUsuarioKamuela());
+        UserDetails primeiraCarga = userDetailsService.loadUserByUsername(usuario.getEmail());
+        long acertosAntes = cacheUsuario.stats().hitCount();
+
+        //Quando
+        UserDetails segundaCarga = userDetailsService.loadUserByUsername(usuario.getEmail());
+
+        //Entao
+        Assert.assertEquals(acertosAntes + 1, cacheUsuario.stats().hitCount());
+        Assert.assertNotSame(primeiraCarga, segundaCarga);
+        Assert.assertEquals(usuario.getSenha(), segundaCarga.getPassword());
+    }
+
+    @Test
+    public void dadoUsuarioEmCache_quandoDesativoETransacaoTermina_entaoRemoveDoCache() {
+        //Dado
+        Usuario usuario = usuarioRepository.saveAndFlush(usuarioUtil.criarUsuarioKamuela());
+        userDetailsService.loadUserByUsername(usuario.getEmail());
+
+        //Quando
+        usuarioService.deletar(usuario.getId());
+        TestTransaction.end();
+
+        //Entao
+        Assert.assertNull(cacheUsuario.getIfPresent(usuario.getEmail()));
+    }
+
+    @Test
+    public void dadoCredenciaisValidas_quandoAutentico_entaoPrincipalSemSenha() {
+        //Dado
+        Usuario usuario = usuarioRepository.saveAndFlush(usuarioUtil.criarUsuarioKamuela());
+        usuario.setSenha(passwordEncoder.encode("kamuela123"));
+        usuarioRepository.saveAndFlush(usuario);
+
+        //Quando
+        Authentication autenticacao = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(usuario.getEmail(), "kamuela123"));
+
+        //Entao
+        UsuarioAutenticado principal = (UsuarioAutenticado) autenticacao.getPrincipal();
+        Assert.assertEquals(usuario.getId(), principal.getId());
+        Assert.assertEquals("Kamuela Pereira", principal.getNome());
+        Assert.assertNull(principal.getPassword());
+    }
+
+    @Test
+    public void dadoHashComCustoAntigo_quandoAutentico_entaoRefazHashComCustoAtual() {
+        //Dado
+        Usuario usuario = usuarioRepository.saveAndFlush(usuarioUtil.criarUsuarioKamuela());
+        usuario.setSenha(new BCryptPasswordEncoder(5).encode("kamuela123"));
+        usuarioRepository.saveAndFlush(usuario);
+
+        //Quando
+        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(usuario.getEmail(), "kamuela123"));
+
+        //Entao
+        String novaSenha = usuarioRepository.buscarCredenciaisPorEmail(usuario.getEmail()).get().getSenha();
+        Assert.assertFalse(passwordEncoder.upgradeEncoding(novaSenha));
+        Assert.assertTrue(passwordEncoder.matches("kamuela123", novaSenha));
+    }
+}
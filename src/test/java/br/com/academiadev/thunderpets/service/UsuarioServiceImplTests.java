@@ -0,0 +1,127 @@
+package br.com.academiadev.thunderpets.service;
+
+import br.com.academiadev.thunderpets.dto.UsuarioDTO;
+import br.com.academiadev.thunderpets.dto.UsuarioRespostaDTO;
+import br.com.academiadev.thunderpets.enums.TipoContato;
+import br.com.academiadev.thunderpets.model.Contato;
+import br.com.academiadev.thunderpets.model.Usuario;
+import br.com.academiadev.thunderpets.repository.ContatoRepository;
+import br.com.academiadev.thunderpets.repository.EmailPendenteRepository;
+import br.com.academiadev.thunderpets.repository.RecuperarSenhaRepository;
+import br.com.academiadev.thunderpets.repository.UsuarioRepository;
+import br.com.academiadev.thunderpets.util.UsuarioDTOUtil;
+import br.com.academiadev.thunderpets.util.UsuarioUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.AopTestUtils;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sem @Transactional: cada chamada ao serviço precisa abrir e confirmar a sua própria transação.
+ */
+@ActiveProfiles("test")
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest
+public class UsuarioServiceImplTests {
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @SpyBean
+    private EmailService emailService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ContatoRepository contatoRepository;
+
+    @Autowired
+    private RecuperarSenhaRepository recuperarSenhaRepository;
+
+    @Autowired
+    private EmailPendenteRepository emailPendenteRepository;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private UsuarioUtil usuarioUtil;
+
+    @Autowired
+    private UsuarioDTOUtil usuarioDTOUtil;
+
+    @After
+    public void removerUsuario() {
+        SecurityContextHolder.clearContext();
+
+        Usuario usuario = usuarioRepository.findOneByEmail("kamuela@mail.com");
+        if (usuario != null) {
+            contatoRepository.deleteAll(contatoRepository.findByUsuario(usuario));
+            usuarioRepository.delete(usuario);
+        }
+    }
+
+    @Test
+    public void dadoFalhaDepoisDeAgendarEmail_quandoEsqueciMinhaSenha_entaoDesfazTokenEEmail() {
+        //Dado
+        usuarioRepository.saveAndFlush(usuarioUtil.criarUsuarioKamuela());
+        long tokensAntes = recuperarSenhaRepository.count();
+        long emailsAntes = emailPendenteRepository.count();
+        Mockito.doAnswer(invocacao -> {
+            invocacao.callRealMethod();
+            emailPendenteRepository.flush();
+            throw new IllegalStateException("Falha depois de agendar o e-mail");
+        }).when(AopTestUtils.<EmailService>getTargetObject(emailService))
+                .enviaMensagemSimples(Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+
+        //Quando
+        try {
+            usuarioService.esqueciMinhaSenha("kamuela@mail.com");
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            //Entao
+            Assert.assertEquals(tokensAntes, recuperarSenhaRepository.count());
+            Assert.assertEquals(emailsAntes, emailPendenteRepository.count());
+        }
+    }
+
+    @Test
+    public void dadoUsuarioComContato_quandoAtualizoContatos_entaoSubstituiContatos() {
+        //Dado
+        UsuarioRespostaDTO usuario = usuarioService.salvar(usuarioDTOUtil.criarUsuarioDTOKamuela());
+        UserDetails usuarioLogado = userDetailsService.loadUserByUsername(usuario.getEmail());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(usuarioLogado, null, usuarioLogado.getAuthorities()));
+
+        UsuarioDTO atualizacao = usuarioDTOUtil.criarUsuarioDTOKamuela();
+        atualizacao.setId(usuario.getId());
+        atualizacao.setSenha(null);
+        atualizacao.setContatos(usuarioDTOUtil.criarUsuarioDTOJekaterina().getContatos());
+
+        //Quando
+        usuarioService.salvar(atualizacao);
+
+        //Entao
+        Set<TipoContato> tipos = contatoRepository.findByUsuarioId(usuario.getId()).stream()
+                .map(Contato::getTipo)
+                .collect(Collectors.toSet());
+        Assert.assertEquals(2, tipos.size());
+        Assert.assertTrue(tipos.contains(TipoContato.TELEFONE));
+        Assert.assertTrue(tipos.contains(TipoContato.CELULAR));
+    }
+}
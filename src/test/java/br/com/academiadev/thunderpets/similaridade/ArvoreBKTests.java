@@ -0,0 +1,39 @@
+package br.com.academiadev.thunderpets.similaridade;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+public class ArvoreBKTests {
+
+    @Test
+    public void dadoHashesAleatorios_quandoBuscoPorRaio_entaoRetornaOsMesmosDaBuscaExaustiva() {
+        //Dado
+        Random aleatorio = new Random(42);
+        List<Long> hashes = new ArrayList<>();
+        ArvoreBK<Long> arvore = new ArvoreBK<>();
+        long centro = aleatorio.nextLong();
+
+        for (int i = 0; i < 5000; i++) {
+            long hash = i % 10 == 0 ? centro ^ (1L << aleatorio.nextInt(64)) ^ (1L << aleatorio.nextInt(64)) : aleatorio.nextLong();
+            hashes.add(hash);
+            arvore.adicionar(hash, hash);
+        }
+
+        //Quando
+        List<Long> encontrados = new ArrayList<>();
+        arvore.buscar(centro, 6, (hash, distancia) -> encontrados.add(hash));
+
+        //Entao
+        List<Long> esperados = hashes.stream()
+                .filter(hash -> ArvoreBK.distancia(hash, centro) <= 6)
+                .sorted()
+                .collect(Collectors.toList());
+        Assert.assertFalse(esperados.isEmpty());
+        Assert.assertEquals(esperados, encontrados.stream().sorted().collect(Collectors.toList()));
+    }
+}
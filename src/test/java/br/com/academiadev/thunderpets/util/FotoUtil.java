@@ -1,8 +1,5 @@
 package br.com.academiadev.thunderpets.util;
 
-import br.com.academiadev.thunderpets.model.Foto;
-import br.com.academiadev.thunderpets.model.Pet;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -13,25 +10,12 @@ import java.util.List;
 @Component
 public class FotoUtil {
 
-    @Autowired
-    PetUtil petUtil;
+    public List<byte[]> criaTresFotos(){
+        List<byte[]> fotos = new ArrayList<>();
 
-    public List<Foto> criaTresFotos(){
-        List<Foto> fotos = new ArrayList<>();
-
-        Pet pet = petUtil.criaPetBrabo();
-
-        Foto fotoA = new Foto();
-        fotoA.setImage(new byte[]{1,2,3});
-        fotoA.setPet(pet);
-
-        Foto fotoB = new Foto();
-        fotoB.setImage(new byte[]{4,5,6});
-        fotoB.setPet(pet);
-
-        Foto fotoC = new Foto();
-        fotoC.setImage(new byte[]{7,8,9});
-        fotoC.setPet(pet);
+        byte[] fotoA = new byte[]{1,2,3};
+        byte[] fotoB = new byte[]{4,5,6};
+        byte[] fotoC = new byte[]{7,8,9};
 
         fotos.add(fotoA);
         fotos.add(fotoB);
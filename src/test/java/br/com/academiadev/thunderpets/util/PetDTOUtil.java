@@ -3,14 +3,12 @@ package br.com.academiadev.thunderpets.util;
 import br.com.academiadev.thunderpets.dto.PetDTO;
 import br.com.academiadev.thunderpets.dto.UsuarioRespostaDTO;
 import br.com.academiadev.thunderpets.enums.*;
-import br.com.academiadev.thunderpets.model.Foto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Component
 @ActiveProfiles("test")
@@ -26,7 +24,7 @@ public class PetDTOUtil {
     }
 
     public PetDTO criaPetDTOBrabo(UsuarioRespostaDTO usuario) {
-        List<Foto> fotos = fotoUtil.criaTresFotos();
+        List<byte[]> fotos = fotoUtil.criaTresFotos();
 
         PetDTO petDTO = PetDTO.builder()
                 .nome("Brabo")
@@ -39,7 +37,7 @@ public class PetDTOUtil {
                 .idade(Idade.ADULTO)
                 .usuarioId(usuario.getId())
                 .localizacao(localizacaoUtil.criaLocalizacaoGaruva())
-                .fotos(fotos.stream().map(Foto::getImage).collect(Collectors.toList()))
+                .fotos(fotos)
                 .ativo(true)
                 .build();
 
@@ -47,7 +45,7 @@ public class PetDTOUtil {
     }
 
     public PetDTO criaPetDTOCarijo(UsuarioRespostaDTO usuario) {
-        List<Foto> fotos = fotoUtil.criaTresFotos();
+        List<byte[]> fotos = fotoUtil.criaTresFotos();
 
         PetDTO petDTO = PetDTO.builder()
                 .nome("Carijó")
@@ -60,7 +58,7 @@ public class PetDTOUtil {
                 .idade(Idade.ADULTO)
                 .usuarioId(usuario.getId())
                 .localizacao(localizacaoUtil.criaLocalizacaoTerminalCentral())
-                .fotos(fotos.stream().map(Foto::getImage).collect(Collectors.toList()))
+                .fotos(fotos)
                 .ativo(true)
                 .build();
 
@@ -68,7 +66,7 @@ public class PetDTOUtil {
     }
 
     public PetDTO criaPetDTOPocoto(UsuarioRespostaDTO usuario) {
-        List<Foto> fotos = fotoUtil.criaTresFotos();
+        List<byte[]> fotos = fotoUtil.criaTresFotos();
 
         PetDTO petDTO = PetDTO.builder()
                 .nome("Pocotó")
@@ -81,7 +79,7 @@ public class PetDTOUtil {
                 .idade(Idade.FILHOTE)
                 .usuarioId(usuario.getId())
                 .localizacao(localizacaoUtil.criaLocalizacaoAmerica())
-                .fotos(fotos.stream().map(Foto::getImage).collect(Collectors.toList()))
+                .fotos(fotos)
                 .ativo(true)
                 .build();
 
@@ -0,0 +1,91 @@
+package br.com.academiadev.thunderpets.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Servidor SMTP mínimo que aceita qualquer mensagem e guarda o conteúdo recebido após o DATA.
+ */
+public class ServidorSmtpFalso implements Closeable {
+
+    private final ServerSocket servidor;
+    private final List<String> mensagens = new CopyOnWriteArrayList<>();
+
+    public ServidorSmtpFalso() throws IOException {
+        servidor = new ServerSocket(0);
+
+        Thread thread = new Thread(this::aceitar, "smtp-falso");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public int getPorta() {
+        return servidor.getLocalPort();
+    }
+
+    public List<String> getMensagens() {
+        return mensagens;
+    }
+
+    @Override
+    public void close() throws IOException {
+        servidor.close();
+    }
+
+    private void aceitar() {
+        while (!servidor.isClosed()) {
+            try (Socket cliente = servidor.accept()) {
+                atender(cliente);
+            } catch (IOException e) {
+                // Servidor fechado ou cliente desconectado.
+            }
+        }
+    }
+
+    private void atender(Socket cliente) throws IOException {
+        BufferedReader entrada = new BufferedReader(new InputStreamReader(cliente.getInputStream(), StandardCharsets.UTF_8));
+        PrintWriter saida = new PrintWriter(cliente.getOutputStream(), true);
+
+        responder(saida, "220 localhost");
+
+        String linha;
+        while ((linha = entrada.readLine()) != null) {
+            String comando = linha.toUpperCase();
+
+            if (comando.startsWith("DATA")) {
+                responder(saida, "354 fim com <CRLF>.<CRLF>");
+                mensagens.add(lerConteudo(entrada));
+                responder(saida, "250 OK");
+            } else if (comando.startsWith("QUIT")) {
+                responder(saida, "221 tchau");
+                return;
+            } else {
+                responder(saida, "250 OK");
+            }
+        }
+    }
+
+    private String lerConteudo(BufferedReader entrada) throws IOException {
+        StringBuilder conteudo = new StringBuilder();
+
+        String linha;
+        while ((linha = entrada.readLine()) != null && !linha.equals(".")) {
+            conteudo.append(linha).append('\n');
+        }
+
+        return conteudo.toString();
+    }
+
+    private void responder(PrintWriter saida, String resposta) {
+        saida.print(resposta + "\r\n");
+        saida.flush();
+    }
+}